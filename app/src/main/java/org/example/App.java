@@ -3,25 +3,74 @@ package org.example;
 import org.example.compiler.Compiler;
 import org.example.errors.ErrorHandler; // Assuming you have this
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 public class App {
+    private static final String USAGE = "Usage: run [--engine=tree|nodes|vm|flat] <file|directory>...\n"
+            + "       run --client [--socket=path] [--engine=...] <file|directory|->...\n"
+            + "       serve [--socket=path]";
+
     public static void main(String[] args) {
+        if (args.length >= 1 && args[0].equals("serve")) {
+            Path socket = OakServer.defaultSocket();
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].startsWith("--socket=")) {
+                    socket = Path.of(args[i].substring("--socket=".length()));
+                } else {
+                    usage();
+                }
+            }
+            new OakServer(socket).serve();
+            return;
+        }
         if (args.length < 2 || !args[0].equals("run")) {
-            System.err.println("Usage: run <filename>");
-            System.exit(1);
+            usage();
+        }
+
+        String engine = "tree";
+        boolean client = false;
+        Path socket = OakServer.defaultSocket();
+        List<String> oakFileNames = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--engine=")) {
+                engine = args[i].substring("--engine=".length());
+            } else if (args[i].equals("--client")) {
+                client = true;
+            } else if (args[i].startsWith("--socket=")) {
+                socket = Path.of(args[i].substring("--socket=".length()));
+            } else {
+                oakFileNames.add(args[i]);
+            }
+        }
+        if (oakFileNames.isEmpty()) {
+            usage();
         }
 
-        String command = args[0];
-        String oakFileName = args[1];
+        int status = client
+                ? new OakClient(socket).run(engine, oakFileNames)
+                : run(engine, oakFileNames);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
 
-        Compiler compiler = new Compiler(oakFileName, command);
+    /** Runs the program made of the given files; returns the process exit status. */
+    static int run(String engine, List<String> oakFileNames) {
+        Compiler compiler = new Compiler(oakFileNames, "run", engine);
 
         // Check if the compiler is in a state to proceed
         if (compiler.canCompile()) {
-            compiler.compile();
-            // Potentially add more steps here: parser, AST, code generation, etc.
+            return compiler.compile() ? 0 : 1;
         } else {
             System.err.println("Compilation failed due to file reading issues. See errors above.");
-            System.exit(1);
+            return 1;
         }
     }
-}
\ No newline at end of file
+
+    private static void usage() {
+        System.err.println(USAGE);
+        System.exit(1);
+    }
+}
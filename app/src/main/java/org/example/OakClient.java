@@ -0,0 +1,64 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Submits a run to an {@link OakServer} and copies its output to this
+ * process. A {@code -} argument sends the source read from standard input.
+ */
+public class OakClient {
+    private final Path socket;
+
+    public OakClient(Path socket) {
+        this.socket = socket;
+    }
+
+    /** Returns the exit status of the remote run. */
+    public int run(String engine, List<String> oakFileNames) {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeUTF(engine);
+            out.writeInt(oakFileNames.size());
+            for (String oakFileName : oakFileNames) {
+                if (oakFileName.equals("-")) {
+                    byte[] source = System.in.readAllBytes();
+                    out.writeByte(OakServer.SOURCE);
+                    out.writeInt(source.length);
+                    out.write(source);
+                } else {
+                    // The server has its own working directory
+                    out.writeByte(OakServer.PATH);
+                    out.writeUTF(Path.of(oakFileName).toAbsolutePath().toString());
+                }
+            }
+            out.flush();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            while (true) {
+                byte stream = in.readByte();
+                if (stream == OakServer.EXIT) {
+                    System.out.flush();
+                    System.err.flush();
+                    return in.readInt();
+                }
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                PrintStream target = stream == OakServer.STDERR ? System.err : System.out;
+                target.write(data);
+            }
+        } catch (IOException e) {
+            System.err.println("No oak server on " + socket + " (" + e.getMessage() + "); start one with: serve");
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps one JVM warm and runs scripts sent over a Unix domain socket, so
+ * each run skips JVM startup and starts with already-compiled interpreter
+ * code. Requests are served one at a time because the engines print
+ * through {@link System#out}, which is redirected to the connection for the
+ * length of a run. A run stops with an error as soon as its client
+ * disconnects, so an abandoned script cannot hold up the clients behind it.
+ * <p>
+ * A request is the engine name ({@code writeUTF}), the number of inputs
+ * ({@code writeInt}) and for each either {@link #PATH} and an absolute
+ * path ({@code writeUTF}) or {@link #SOURCE}, a length and that many bytes
+ * of UTF-8 source. The reply is a sequence of {@link #STDOUT} and
+ * {@link #STDERR} frames (a length and the bytes) ended by {@link #EXIT}
+ * and the exit status. A request with more than {@link #MAX_INPUTS} inputs
+ * or a source longer than {@link #MAX_SOURCE_BYTES} is refused with status 1.
+ */
+public class OakServer {
+    static final byte PATH = 0;
+    static final byte SOURCE = 1;
+
+    static final byte EXIT = 0;
+    static final byte STDOUT = 1;
+    static final byte STDERR = 2;
+
+    static final int MAX_INPUTS = 1024;
+    static final int MAX_SOURCE_BYTES = 16 * 1024 * 1024;
+
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final Path socket;
+    // Submitted source is stored under its hash so repeat submissions hit the program cache.
+    // The directory is private to this user: a file found there is trusted as the client's program.
+    private final Path sourceDir = Path.of(System.getProperty("java.io.tmpdir"),
+            "oak-serve-" + System.getProperty("user.name"));
+    private Path checkedSourceDir;
+
+    public OakServer(Path socket) {
+        this.socket = socket;
+    }
+
+    static Path defaultSocket() {
+        String path = System.getProperty("oak.socket");
+        return path != null
+                ? Path.of(path)
+                : Path.of(System.getProperty("java.io.tmpdir"), "oak-" + System.getProperty("user.name") + ".sock");
+    }
+
+    public void serve() {
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            Files.deleteIfExists(socket);
+            server.bind(UnixDomainSocketAddress.of(socket));
+            if (POSIX) {
+                Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Files.deleteIfExists(socket);
+                } catch (IOException ignored) {
+                }
+            }));
+            System.out.println("Serving on " + socket);
+
+            while (true) {
+                try (SocketChannel client = server.accept()) {
+                    handle(client);
+                } catch (IOException | RuntimeException e) {
+                    // a broken request costs only its own connection
+                    System.err.println("Request failed: " + e);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Unable to listen on " + socket + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void handle(SocketChannel client) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)));
+
+        String engine = in.readUTF();
+        int count = in.readInt();
+        if (count < 0 || count > MAX_INPUTS) {
+            refuse(out, "Bad input count " + count + " (at most " + MAX_INPUTS + ")");
+            return;
+        }
+        List<String> oakFileNames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.readByte() == SOURCE) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_SOURCE_BYTES) {
+                    refuse(out, "Bad source length " + length + " (at most " + MAX_SOURCE_BYTES + " bytes)");
+                    return;
+                }
+                byte[] source = new byte[length];
+                in.readFully(source);
+                try {
+                    oakFileNames.add(store(source).toString());
+                } catch (IOException e) {
+                    refuse(out, "Cannot store submitted source: " + e.getMessage());
+                    return;
+                }
+            } else {
+                oakFileNames.add(in.readUTF());
+            }
+        }
+
+        // The client sends nothing after the request, so end of input means it has gone away
+        Thread runner = Thread.currentThread();
+        Object lock = new Object();
+        boolean[] running = {true};
+        Thread.ofVirtual().start(() -> {
+            try {
+                while (in.read() != -1) {
+                    // ignore
+                }
+            } catch (IOException ignored) {
+                // closed once the reply has been sent
+            }
+            synchronized (lock) {
+                if (running[0]) {
+                    runner.interrupt(); // the engines check for this on every loop iteration
+                }
+            }
+        });
+
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        PrintStream runOut = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, STDOUT)), false,
+                StandardCharsets.UTF_8);
+        PrintStream runErr = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, STDERR)), false,
+                StandardCharsets.UTF_8);
+        int status;
+        System.setOut(runOut);
+        System.setErr(runErr);
+        try {
+            status = App.run(engine, oakFileNames);
+        } catch (RuntimeException | StackOverflowError e) {
+            runErr.println(e);
+            status = 1;
+        } finally {
+            synchronized (lock) {
+                running[0] = false;
+            }
+            Thread.interrupted(); // don't let a late interrupt reach the next accept()
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+        runOut.flush();
+        runErr.flush();
+        out.writeByte(EXIT);
+        out.writeInt(status);
+        out.flush();
+    }
+
+    /** Replies with {@code message} on stderr and exit status 1 without running anything. */
+    private static void refuse(DataOutputStream out, String message) throws IOException {
+        byte[] bytes = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        new FrameOutputStream(out, STDERR).write(bytes, 0, bytes.length);
+        out.writeByte(EXIT);
+        out.writeInt(1);
+        out.flush();
+    }
+
+    private Path store(byte[] source) throws IOException {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source);
+            Path file = privateSourceDir().resolve(HexFormat.of().formatHex(digest) + ".oak");
+            if (!Files.exists(file, LinkOption.NOFOLLOW_LINKS)) {
+                Files.write(file, source);
+            }
+            return file;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates the source directory readable only by this user, or checks
+     * that an existing one is a real directory owned by this user with no
+     * access for anyone else. Refuses to use it otherwise, since another
+     * user could have planted programs in it.
+     */
+    private Path privateSourceDir() throws IOException {
+        if (checkedSourceDir != null) {
+            return checkedSourceDir;
+        }
+        if (!Files.exists(sourceDir, LinkOption.NOFOLLOW_LINKS)) {
+            if (POSIX) {
+                Files.createDirectory(sourceDir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            } else {
+                Files.createDirectory(sourceDir);
+            }
+        }
+        if (!Files.isDirectory(sourceDir, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException(sourceDir + " is not a directory");
+        }
+        String user = System.getProperty("user.name");
+        if (!Files.getOwner(sourceDir, LinkOption.NOFOLLOW_LINKS).getName().equals(user)) {
+            throw new IOException(sourceDir + " is not owned by " + user);
+        }
+        if (POSIX && !Files.getPosixFilePermissions(sourceDir, LinkOption.NOFOLLOW_LINKS).equals(OWNER_ONLY)) {
+            throw new IOException(sourceDir + " must be accessible only by its owner (mode 700)");
+        }
+        checkedSourceDir = sourceDir;
+        return sourceDir;
+    }
+
+    /** Writes everything it is given to the reply as frames of one kind. */
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte stream;
+
+        FrameOutputStream(DataOutputStream out, byte stream) {
+            this.out = out;
+            this.stream = stream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.writeByte(stream);
+            out.writeInt(len);
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
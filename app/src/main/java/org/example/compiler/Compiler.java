@@ -2,67 +2,152 @@ package org.example.compiler;
 
 import org.example.compiler.ast.ClassDeclaration;
 import org.example.compiler.ast.StatementNode;
+import org.example.compiler.bytecode.VirtualMachine;
+import org.example.compiler.cache.ProgramCache;
+import org.example.compiler.flat.FlatEncoder;
+import org.example.compiler.flat.FlatInterpreter;
+import org.example.compiler.flat.FlatTree;
 import org.example.compiler.interpreter.Interpreter;
+import org.example.compiler.interpreter.Program;
+import org.example.compiler.nodes.SpecializingInterpreter;
+import org.example.compiler.optimizer.ConstantFolder;
 import org.example.compiler.parser.Parser;
+import org.example.compiler.resolver.Resolver;
 import org.example.errors.ErrorHandler;
 import org.example.compiler.token.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
 
 public class Compiler {
-    private final String oakFileName;
+    private static final boolean FOLD_CONSTANTS = Boolean.parseBoolean(System.getProperty("oak.fold", "true"));
+    private static final boolean CACHE_PROGRAMS = Boolean.parseBoolean(System.getProperty("oak.cache", "true"));
+
+    /** A source file mapped into memory. */
+    private record Source(Path path, ByteBuffer code) {
+    }
+
+    /** The classes parsed from one source, or the error that stopped it. */
+    private record Unit(List<ClassDeclaration> classes, RuntimeException error) {
+    }
+
     private final String command;
-    private String oakCode;
+    private final String engine;
+    private final List<Source> sources = new ArrayList<>();
     private final ErrorHandler errorHandler = new ErrorHandler();
 
     public Compiler(String oakFileName, String command) {
+        this(oakFileName, command, "tree");
+    }
+
+    public Compiler(String oakFileName, String command, String engine) {
+        this(List.of(oakFileName), command, engine);
+    }
+
+    /**
+     * @param oakFileNames script files, or directories whose {@code .oak}
+     *                     files all belong to the program
+     * @param engine       "tree" for the AST-walking interpreter, "nodes" for the
+     *                     self-specializing node interpreter, "vm" for the bytecode VM,
+     *                     "flat" for the interpreter over the compact int-array encoding
+     */
+    public Compiler(List<String> oakFileNames, String command, String engine) {
         this.command = command;
-        this.oakFileName = oakFileName;
-        System.out.println("Working directory: " + System.getProperty("user.dir"));
-        File oakFile = new File(oakFileName);
+        this.engine = engine;
+
+        for (String oakFileName : oakFileNames) {
+            File oakFile = new File(oakFileName);
+            if (oakFile.isDirectory()) {
+                addDirectory(oakFile.toPath());
+            } else {
+                addFile(oakFile);
+            }
+        }
 
+        if (errorHandler.hasErrors()) {
+            errorHandler.printErrors();
+        }
+    }
+
+    private void addDirectory(Path dir) {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(p -> p.toString().endsWith(".oak") && Files.isRegularFile(p)).sorted().toList();
+        } catch (IOException e) {
+            errorHandler.addFileReadError("Unable to read directory: " + e.getMessage());
+            return;
+        }
+        if (files.isEmpty()) {
+            errorHandler.addFileReadError("No .oak files found in: " + dir);
+        }
+        for (Path file : files) {
+            addFile(file.toFile());
+        }
+    }
+
+    private void addFile(File oakFile) {
         if (oakFile.canRead()) {
             try {
-                oakCode = Files.readString(oakFile.toPath());
+                // Mapped rather than read: the lexer decodes pages as it reaches them
+                try (FileChannel channel = FileChannel.open(oakFile.toPath(), StandardOpenOption.READ)) {
+                    sources.add(new Source(oakFile.toPath(), channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+                }
             } catch (IOException e) {
                 errorHandler.addFileReadError("Unable to read file: " + e.getMessage());
             }
         } else {
-            errorHandler.addFileReadError("File does not exist or cannot be read: " + oakFileName);
-        }
-
-        if (errorHandler.hasErrors()) {
-            errorHandler.printErrors();
+            errorHandler.addFileReadError("File does not exist or cannot be read: " + oakFile);
         }
     }
 
     public boolean canCompile() {
-        return oakCode != null && !errorHandler.hasErrors();
+        return !sources.isEmpty() && !errorHandler.hasErrors();
     }
 
-    public void compile() {
+    /** Runs the program, printing any error; returns whether it ran to completion. */
+    public boolean compile() {
         if (canCompile()) {
-            // 1. Tokenize
-            Lexer lexer = new Lexer(oakCode);
-            List<Token> tokens = lexer.tokenize();
-            // print tokens for debugging
-            // print all tokens
-            // for (Token token : tokens) {
-            //     System.out.println(token);
-            // }
-
-            // 2. Parse to AST
-
             try {
-                Parser parser = new Parser(tokens);
-                ClassDeclaration classNode = parser.parseClass();
+                // 1-5. Load every source, in parallel when there are several
+                List<StatementNode> program = new ArrayList<>();
+                Set<String> classNames = new HashSet<>();
+                for (Unit unit : loadAll()) {
+                    if (unit.error() != null) {
+                        throw unit.error();
+                    }
+                    for (ClassDeclaration cls : unit.classes()) {
+                        if (!classNames.add(cls.name())) {
+                            throw new RuntimeException("Duplicate class: " + cls.name());
+                        }
+                        program.add(cls);
+                    }
+                }
 
-                // 3. Interpret the AST
-                Interpreter interpreter = new Interpreter();
-                interpreter.executeProgram(List.of(classNode));
+                // 6. Execute with the selected engine
+                switch (engine) {
+                    case "tree" -> new Interpreter().executeProgram(program);
+                    case "nodes" -> new SpecializingInterpreter(new Program(program)).executeProgram();
+                    case "vm" -> new VirtualMachine(new Program(program)).executeProgram();
+                    case "flat" -> {
+                        FlatTree tree = new FlatEncoder().encode(program);
+                        program.clear(); // the encoding replaces the trees, let them be collected
+                        new FlatInterpreter(tree).executeProgram();
+                    }
+                    default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+                }
+                return true;
             } catch (Exception e) {
                 if(e instanceof IndexOutOfBoundsException){
                     System.out.println("Empty file or no class found.");
@@ -70,10 +155,92 @@ public class Compiler {
                 }else{
                     System.err.println(e.getMessage());
                 }
-
+                return false;
             }
         } else {
             System.err.println("Cannot compile: file was not read successfully.");
+            return false;
+        }
+    }
+
+    /** Lexes and parses each source as its own ForkJoin task; results keep source order. */
+    private List<Unit> loadAll() {
+        if (sources.size() == 1) {
+            return List.of(loadUnit(sources.get(0)));
+        }
+        List<ForkJoinTask<Unit>> tasks = new ArrayList<>(sources.size());
+        for (Source source : sources) {
+            tasks.add(ForkJoinPool.commonPool().submit(() -> loadUnit(source)));
+        }
+        List<Unit> units = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<Unit> task : tasks) {
+            units.add(task.join());
+        }
+        return units;
+    }
+
+    private Unit loadUnit(Source source) {
+        try {
+            return new Unit(load(source), null);
+        } catch (RuntimeException e) {
+            // Carried back as a value so join() cannot rewrap it and change the message
+            if (sources.size() == 1) {
+                return new Unit(null, e);
+            }
+            String message = e instanceof IndexOutOfBoundsException ? "Empty file or no class found." : e.getMessage();
+            return new Unit(null, new RuntimeException(source.path() + ": " + message, e));
+        }
+    }
+
+    private List<ClassDeclaration> load(Source source) {
+        // 1. Reuse the trees cached by an earlier run of the same source (-Doak.cache=false to skip)
+        ProgramCache cache = CACHE_PROGRAMS
+                ? ProgramCache.forSource(source.path(), source.code(), FOLD_CONSTANTS)
+                : null;
+        List<ClassDeclaration> classes = cache != null ? cache.load() : null;
+        if (classes != null) {
+            return classes;
+        }
+
+        Lexer lexer = new Lexer(source.code(), new SymbolTable());
+        classes = analyze(lexer);
+
+        // Scripts with lexer warnings are not cached so the warnings show on every run
+        if (cache != null && !lexer.hasErrors()) {
+            cache.store(classes);
+        }
+        return classes;
+    }
+
+    /**
+     * Lexes, parses, resolves and folds a script held in memory, for hosts
+     * that embed the interpreter rather than run files.
+     */
+    public static List<ClassDeclaration> compileSource(String source) {
+        try {
+            return analyze(new Lexer(source));
+        } catch (IndexOutOfBoundsException e) {
+            throw new RuntimeException("Empty file or no class found.", e);
+        }
+    }
+
+    private static List<ClassDeclaration> analyze(Lexer lexer) {
+        // 2. Tokenize
+        TokenStream tokens = lexer.stream();
+
+        // 3. Parse to AST
+        Parser parser = new Parser(tokens);
+        List<ClassDeclaration> classes = parser.parseProgram();
+
+        for (ClassDeclaration classNode : classes) {
+            // 4. Resolve locals to frame slots
+            new Resolver().resolveClass(classNode);
+
+            // 5. Fold constants unless disabled with -Doak.fold=false
+            if (FOLD_CONSTANTS) {
+                new ConstantFolder().foldClass(classNode);
+            }
         }
+        return classes;
     }
-}
\ No newline at end of file
+}
@@ -1,102 +1,206 @@
 package org.example.compiler;
 
+import org.example.compiler.token.LexTables;
+import org.example.compiler.token.SymbolTable;
 import org.example.compiler.token.Token;
+import org.example.compiler.token.TokenStream;
 import org.example.compiler.token.TokenType;
-import org.example.compiler.token.Tokens;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+/**
+ * Scans source into a {@link TokenStream}: tokens are offsets into one
+ * char[] rather than Strings, and names go through a {@link SymbolTable}
+ * so repeated identifiers share a single interned String. Classification,
+ * keywords and operators come from the generated {@link LexTables}.
+ * <p>
+ * UTF-8 input (typically a mapped file) is decoded a chunk at a time as
+ * the scanner reaches it, and {@link #stream()} hands out tokens one
+ * {@link #nextToken()} at a time, so lexing keeps pace with the parser
+ * instead of running ahead of it.
+ */
 public class Lexer {
-    private final String code;
+    private static final int CHUNK = 64 * 1024;
+    private static final int WINDOW = 64;
+
+    private final char[] code;
+    private final SymbolTable symbols;
     private int pos = 0;
     private int line = 1;
 
-    private final List<Token> tokens = new ArrayList<>();
+    private final ByteBuffer input;
+    private final CharBuffer output;
+    private final CharsetDecoder decoder;
+    private final int inputEnd;
+    private int limit;
+    private boolean decoded;
+
+    private TokenStream tokens;
+    private boolean errors;
 
     public Lexer(String code) {
+        this(code.toCharArray(), new SymbolTable());
+    }
+
+    public Lexer(char[] code, SymbolTable symbols) {
         this.code = code;
+        this.symbols = symbols;
+        this.input = null;
+        this.output = null;
+        this.decoder = null;
+        this.inputEnd = 0;
+        this.limit = code.length;
     }
 
-    public List<Token> tokenize() {
-        while (pos < code.length()) {
+    /** Lexes UTF-8 bytes, decoding them only as far as scanning has got. */
+    public Lexer(ByteBuffer utf8, SymbolTable symbols) {
+        this.code = new char[utf8.remaining()]; // UTF-8 never decodes to more chars than bytes
+        this.symbols = symbols;
+        this.input = utf8.duplicate();
+        this.output = CharBuffer.wrap(code);
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.inputEnd = utf8.limit();
+        this.limit = 0;
+    }
+
+    /** Lexes the whole input up front, keeping every token. */
+    public TokenStream scan() {
+        if (tokens != null) {
+            return tokens;
+        }
+        tokens = new TokenStream(code, symbols);
+        while (nextToken()) {
+            // keep scanning
+        }
+        return tokens;
+    }
+
+    /** Returns a stream that lexes on demand and retains only a small window of tokens. */
+    public TokenStream stream() {
+        if (tokens != null) {
+            return tokens;
+        }
+        tokens = new TokenStream(code, symbols, WINDOW, this::nextToken);
+        return tokens;
+    }
+
+    /** Scans one token into the stream; returns false at end of input. */
+    public boolean nextToken() {
+        int before = tokens.size();
+        while (tokens.size() == before && more(pos)) {
             char current = peek();
 
-            if (Character.isWhitespace(current)) {
-                if (current == '\n')
+            switch (LexTables.classOf(current)) {
+                case LexTables.NEWLINE -> {
                     line++;
-                advance();
-            } else if (Character.isLetter(current) || current == '_') {
-                tokenizeIdentifierOrKeyword();
-            } else if (Character.isDigit(current)) {
-                tokenizeNumber();
-            } else if (current == '"' || current == '\'') {
-                tokenizeString();
-            } else if (current == '/' && peekNext() == '/') {
-                skipLineComment();
-            } else if (Tokens.isDelimiter(current)) {
-                tokens.add(new Token(TokenType.DELIMITER, String.valueOf(current), line));
-                advance();
-            } else if (isOperatorStart(current)) {
-                tokenizeOperator();
-            } else {
-                System.err.println("Unknown character at line " + line + ": '" + current + "'");
-                advance();
+                    advance();
+                }
+                case LexTables.SPACE -> advance();
+                case LexTables.LETTER -> tokenizeIdentifierOrKeyword();
+                case LexTables.DIGIT -> tokenizeNumber();
+                case LexTables.QUOTE -> tokenizeString();
+                case LexTables.DELIMITER -> {
+                    tokens.add(TokenType.DELIMITER, pos, 1, line, LexTables.delimiter(current));
+                    advance();
+                }
+                case LexTables.OPERATOR -> {
+                    if (current == '/' && peekNext() == '/') {
+                        skipLineComment();
+                    } else {
+                        tokenizeOperator();
+                    }
+                }
+                default -> {
+                    errors = true;
+                    System.err.println("Unknown character at line " + line + ": '" + current + "'");
+                    advance();
+                }
             }
         }
+        return tokens.size() > before;
+    }
 
-        return tokens;
+    private boolean more(int index) {
+        return index < limit || (decoder != null && fill(index));
+    }
+
+    private boolean fill(int index) {
+        while (index >= limit && !decoded) {
+            int end = Math.min(inputEnd, input.position() + CHUNK);
+            boolean last = end == inputEnd;
+            input.limit(end);
+            decoder.decode(input, output, last);
+            if (last) {
+                decoder.flush(output);
+                decoded = true;
+            }
+            limit = output.position();
+        }
+        return index < limit;
+    }
+
+    /** Whether scanning so far reported an unknown character. */
+    public boolean hasErrors() {
+        return errors;
+    }
+
+    /** Materializes the stream as {@link Token} objects, e.g. for debugging. */
+    public List<Token> tokenize() {
+        return scan().toTokens();
     }
 
     private void tokenizeIdentifierOrKeyword() {
-        StringBuilder sb = new StringBuilder();
-        while (pos < code.length() && (Character.isLetterOrDigit(peek()) || peek() == '_')) {
-            sb.append(peek());
+        int start = pos;
+        while (more(pos) && LexTables.isIdentifierPart(peek())) {
             advance();
         }
 
-        String word = sb.toString();
-        if (Tokens.isKeyword(word)) {
-            tokens.add(new Token(TokenType.KEYWORD, word, line));
+        int keyword = LexTables.keyword(code, start, pos - start);
+        if (keyword >= 0) {
+            tokens.add(TokenType.KEYWORD, start, pos - start, line, keyword);
         } else {
-            tokens.add(new Token(TokenType.IDENTIFIER, word, line));
+            tokens.add(TokenType.IDENTIFIER, start, pos - start, line, symbols.intern(code, start, pos - start));
         }
     }
 
     private void tokenizeNumber() {
-        StringBuilder sb = new StringBuilder();
-        while (pos < code.length() && Character.isDigit(peek())) {
-            sb.append(peek());
+        int start = pos;
+        while (more(pos) && LexTables.classOf(peek()) == LexTables.DIGIT) {
             advance();
         }
-        if (pos < code.length() && peek() == '.' && pos + 1 < code.length()
-                && Character.isDigit(code.charAt(pos + 1))) {
-            sb.append(peek()); 
+        if (more(pos) && peek() == '.' && more(pos + 1)
+                && LexTables.classOf(code[pos + 1]) == LexTables.DIGIT) {
             advance();
-            while (pos < code.length() && Character.isDigit(peek())) {
-                sb.append(peek());
+            while (more(pos) && LexTables.classOf(peek()) == LexTables.DIGIT) {
                 advance();
             }
         }
 
-        tokens.add(new Token(TokenType.NUMBER, sb.toString(), line));
+        tokens.add(TokenType.NUMBER, start, pos - start, line, -1);
     }
 
     private void tokenizeString() {
         advance(); // Skip opening quote
-        StringBuilder sb = new StringBuilder();
-        while (pos < code.length() && peek() != '"') {
+        int start = pos;
+        while (more(pos) && peek() != '"') {
             if (peek() == '\n')
                 line++;
-            sb.append(peek());
             advance();
         }
+        int end = pos;
         advance(); // Skip closing quote
-        tokens.add(new Token(TokenType.STRING, sb.toString(), line));
+        tokens.add(TokenType.STRING, start, end - start, line, -1);
     }
 
     private void skipLineComment() {
-        while (pos < code.length() && peek() != '\n') {
+        while (more(pos) && peek() != '\n') {
             advance();
         }
         line++;
@@ -104,36 +208,29 @@ public class Lexer {
     }
 
     private void tokenizeOperator() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(peek());
-        advance();
-
-        if (pos < code.length()) {
-            sb.append(peek());
-            if (Tokens.isOperator(sb.toString())) {
-                advance();
-                tokens.add(new Token(TokenType.OPERATOR, sb.toString(), line));
-                return;
-            }
-            sb.setLength(1);
+        int start = pos;
+        more(start + LexTables.MAX_OPERATOR - 1);
+        int match = LexTables.operator(code, start, Math.min(limit, start + LexTables.MAX_OPERATOR));
+        if (match == 0) {
+            // An operator character that is not an operator on its own
+            advance();
+            tokens.add(TokenType.OPERATOR, start, 1, line, symbols.intern(code, start, 1));
+            return;
         }
-
-        tokens.add(new Token(TokenType.OPERATOR, sb.toString(), line));
+        int length = match & 0xFF;
+        pos += length;
+        tokens.add(TokenType.OPERATOR, start, length, line, match >>> 8);
     }
 
     private char peek() {
-        return code.charAt(pos);
+        return code[pos];
     }
 
     private char peekNext() {
-        return pos + 1 < code.length() ? code.charAt(pos + 1) : '\0';
+        return more(pos + 1) ? code[pos + 1] : '\0';
     }
 
     private void advance() {
         pos++;
     }
-
-    private boolean isOperatorStart(char c) {
-        return "+-*/%=!<>&|:".indexOf(c) != -1;
-    }
 }
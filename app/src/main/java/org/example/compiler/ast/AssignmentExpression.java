@@ -2,11 +2,13 @@ package org.example.compiler.ast;
 
 public class AssignmentExpression implements ExpressionNode {
     private final String variableName;
-    private final String operator; // "+", "-", "*", "/", "%" etc.
+    private final Operator operator;
     private final ExpressionNode right;
     private final boolean isCompound;
+    private int slot = -1;
+    private boolean mayBeUnassigned;
 
-    public AssignmentExpression(String variableName, String operator, ExpressionNode right, boolean isCompound) {
+    public AssignmentExpression(String variableName, Operator operator, ExpressionNode right, boolean isCompound) {
         this.variableName = variableName;
         this.operator = operator;
         this.right = right;
@@ -17,7 +19,7 @@ public class AssignmentExpression implements ExpressionNode {
         return variableName;
     }
 
-    public String operator() {
+    public Operator operator() {
         return operator;
     }
 
@@ -28,5 +30,21 @@ public class AssignmentExpression implements ExpressionNode {
     public boolean isCompound() {
         return isCompound;
     }
-}
 
+    public int slot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /** Set by the resolver when this may run before the local's first write. */
+    public boolean mayBeUnassigned() {
+        return mayBeUnassigned;
+    }
+
+    public void setMayBeUnassigned(boolean mayBeUnassigned) {
+        this.mayBeUnassigned = mayBeUnassigned;
+    }
+}
@@ -2,10 +2,10 @@ package org.example.compiler.ast;
 
 public class BinaryExpression implements ExpressionNode {
     public final ExpressionNode left;
-    public final String operator;
+    public final Operator operator;
     public final ExpressionNode right;
 
-    public BinaryExpression(ExpressionNode left, String operator, ExpressionNode right) {
+    public BinaryExpression(ExpressionNode left, Operator operator, ExpressionNode right) {
         this.left = left;
         this.operator = operator;
         this.right = right;
@@ -17,7 +17,7 @@ public class BinaryExpression implements ExpressionNode {
     public ExpressionNode right(){
         return this.right;
     }
-    public String operator(){
+    public Operator operator(){
         return this.operator;
     }
 }
@@ -2,9 +2,11 @@ package org.example.compiler.ast;
 
 import java.util.List;
 
-public class ClassDeclaration implements StatementNode {
+public final class ClassDeclaration implements StatementNode {
     private final String name;
     private final List<StatementNode> body;
+    // Built eagerly: caches compare shapes by identity, so executions on other threads must see this one
+    private final Shape shape = Shape.root(this);
 
     public ClassDeclaration(String name, List<StatementNode> body) {
         this.name = name;
@@ -18,4 +20,9 @@ public class ClassDeclaration implements StatementNode {
     public List<StatementNode> body() {
         return body;
     }
+
+    /** The empty shape every new instance of this class starts from. */
+    public Shape shape() {
+        return shape;
+    }
 }
@@ -0,0 +1,22 @@
+package org.example.compiler.ast;
+
+import java.util.List;
+
+/**
+ * A {@code map(...)}, {@code set(...)} or {@code tuple(...)} literal, or a
+ * {@code range(...)} call, which is parsed the same way. The elements of a
+ * map literal alternate key, value, key, value...
+ */
+public class CollectionLiteral implements ExpressionNode {
+    public enum Kind {
+        MAP, SET, TUPLE, RANGE
+    }
+
+    public final Kind kind;
+    public final List<ExpressionNode> elements;
+
+    public CollectionLiteral(Kind kind, List<ExpressionNode> elements) {
+        this.kind = kind;
+        this.elements = elements;
+    }
+}
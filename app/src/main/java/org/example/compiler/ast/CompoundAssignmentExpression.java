@@ -2,12 +2,31 @@ package org.example.compiler.ast;
 
 public class CompoundAssignmentExpression implements ExpressionNode {
     public final String variableName;
-    public final String operator; // e.g., "+="
+    public final Operator operator; // the arithmetic part, e.g. PLUS for "+="
     public final ExpressionNode value;
+    private int slot = -1;
+    private boolean mayBeUnassigned;
 
-    public CompoundAssignmentExpression(String variableName, String operator, ExpressionNode value) {
+    public CompoundAssignmentExpression(String variableName, Operator operator, ExpressionNode value) {
         this.variableName = variableName;
         this.operator = operator;
         this.value = value;
     }
+
+    public int slot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /** Set by the resolver when this may run before the local's first write. */
+    public boolean mayBeUnassigned() {
+        return mayBeUnassigned;
+    }
+
+    public void setMayBeUnassigned(boolean mayBeUnassigned) {
+        this.mayBeUnassigned = mayBeUnassigned;
+    }
 }
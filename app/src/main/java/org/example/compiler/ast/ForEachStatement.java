@@ -6,6 +6,7 @@ public class ForEachStatement implements StatementNode {
     private final String variableName;
     private final ExpressionNode iterable;
     private final List<StatementNode> body;
+    private int slot = -1;
 
     public ForEachStatement(String variableName, ExpressionNode iterable, List<StatementNode> body) {
         this.variableName = variableName;
@@ -24,4 +25,12 @@ public class ForEachStatement implements StatementNode {
     public List<StatementNode> getBody() {
         return body;
     }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
 }
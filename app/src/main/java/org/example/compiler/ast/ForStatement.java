@@ -13,6 +13,7 @@ public class ForStatement implements StatementNode {
     private final String varName;
     private final ExpressionNode iterable; // e.g. list, array, string
     private final boolean isForEach;
+    private int slot = -1; // loop variable slot for the foreach form
 
     // Constructor for classic for-loop
     public ForStatement(StatementNode init, ExpressionNode condition, ExpressionNode increment, List<StatementNode> body) {
@@ -63,4 +64,12 @@ public class ForStatement implements StatementNode {
     public ExpressionNode getIterable() {
         return iterable;
     }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
 }
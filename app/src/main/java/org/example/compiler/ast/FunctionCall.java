@@ -5,6 +5,7 @@ import java.util.List;
 public class FunctionCall implements ExpressionNode {
     private final String functionName;
     private final List<ExpressionNode> arguments;
+    private final InlineCache cache = new InlineCache();
 
     public FunctionCall(String functionName, List<ExpressionNode> arguments) {
         this.functionName = functionName;
@@ -13,4 +14,5 @@ public class FunctionCall implements ExpressionNode {
     
     public String functionName() { return functionName; }
     public List<ExpressionNode> arguments() { return arguments; }
+    public InlineCache cache() { return cache; }
 }
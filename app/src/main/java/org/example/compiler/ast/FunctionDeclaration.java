@@ -6,6 +6,10 @@ public class FunctionDeclaration implements StatementNode {
     private final String name;
     private final List<String> parameters;           // New
     private final List<StatementNode> body;
+    // Filled in by the resolver: parameters occupy slots 0..n-1, other locals follow
+    private String[] localNames = new String[0];
+    // Also set by the resolver: some read may find a local not yet written
+    private boolean readsUnassigned;
 
     public FunctionDeclaration(String name, List<String> parameters, List<StatementNode> body) {
         this.name = name;
@@ -16,4 +20,10 @@ public class FunctionDeclaration implements StatementNode {
     public String name() { return name; }
     public List<String> parameters() { return parameters; }
     public List<StatementNode> body() { return body; }
+
+    public int frameSize() { return localNames.length; }
+    public String[] localNames() { return localNames; }
+    public void setLocalNames(String[] localNames) { this.localNames = localNames; }
+    public boolean readsUnassigned() { return readsUnassigned; }
+    public void setReadsUnassigned(boolean readsUnassigned) { this.readsUnassigned = readsUnassigned; }
 }
@@ -2,10 +2,12 @@ package org.example.compiler.ast;
 
 public class IncrementExpression implements ExpressionNode {
     private final String variableName;
-    private final String operator; // "++" or "--"
+    private final Operator operator; // INCREMENT or DECREMENT
     private final boolean isPrefix;
+    private int slot = -1;
+    private boolean mayBeUnassigned;
 
-    public IncrementExpression(String variableName, String operator, boolean isPrefix) {
+    public IncrementExpression(String variableName, Operator operator, boolean isPrefix) {
         this.variableName = variableName;
         this.operator = operator;
         this.isPrefix = isPrefix;
@@ -15,11 +17,28 @@ public class IncrementExpression implements ExpressionNode {
         return variableName;
     }
 
-    public String operator() {
+    public Operator operator() {
         return operator;
     }
 
     public boolean isPrefix() {
         return isPrefix;
     }
+
+    public int slot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /** Set by the resolver when this may run before the local's first write. */
+    public boolean mayBeUnassigned() {
+        return mayBeUnassigned;
+    }
+
+    public void setMayBeUnassigned(boolean mayBeUnassigned) {
+        this.mayBeUnassigned = mayBeUnassigned;
+    }
 }
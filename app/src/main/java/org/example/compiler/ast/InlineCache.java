@@ -0,0 +1,56 @@
+package org.example.compiler.ast;
+
+import java.util.Arrays;
+
+/**
+ * Per-call-site cache mapping a receiver class to the method it resolved to.
+ * Holds one entry while the site is monomorphic and up to {@link #MAX_ENTRIES}
+ * while polymorphic; past that the site is megamorphic and stops caching.
+ * <p>
+ * Sites live in the shared tree, so concurrent executions of one program
+ * use the same caches: entries are immutable and the array holding them is
+ * replaced rather than changed, which lets lookups run without a lock.
+ */
+public final class InlineCache {
+    public static final int MAX_ENTRIES = 4;
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private record Entry(ClassDeclaration key, FunctionDeclaration target) {
+    }
+
+    private volatile Entry[] entries = EMPTY;
+
+    public FunctionDeclaration lookup(ClassDeclaration receiver) {
+        for (Entry entry : entries) {
+            if (entry.key == receiver) {
+                return entry.target;
+            }
+        }
+        return null;
+    }
+
+    public void record(ClassDeclaration receiver, FunctionDeclaration target) {
+        if (isMegamorphic()) {
+            return; // a megamorphic site misses on every call, so don't take the lock each time
+        }
+        synchronized (this) {
+            Entry[] current = entries;
+            if (current.length >= MAX_ENTRIES) {
+                return;
+            }
+            for (Entry entry : current) {
+                if (entry.key == receiver) {
+                    return; // another execution recorded it first
+                }
+            }
+            Entry[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = new Entry(receiver, target);
+            entries = grown;
+        }
+    }
+
+    public boolean isMegamorphic() {
+        return entries.length >= MAX_ENTRIES;
+    }
+}
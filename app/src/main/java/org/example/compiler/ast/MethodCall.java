@@ -5,6 +5,7 @@ public class MethodCall implements ExpressionNode {
     public final ExpressionNode target;
     public final String methodName;
     public final List<ExpressionNode> arguments;
+    public final InlineCache cache = new InlineCache();
 
     public MethodCall(ExpressionNode target, String methodName, List<ExpressionNode> arguments) {
         this.target = target;
@@ -1,32 +1,63 @@
 package org.example.compiler.ast;
 
+import java.util.Arrays;
 
-
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * An oak object: its class, its current {@link Shape} and one slot per field
+ * the shape names.
+ */
 public class ObjectInstance {
+    private static final Object[] NO_SLOTS = new Object[0];
+
     private final ClassDeclaration classDecl;
-    private final Map<String, Object> fields = new HashMap<>();
+    private Shape shape;
+    private Object[] slots;
 
     public ObjectInstance(ClassDeclaration classDecl) {
         this.classDecl = classDecl;
-        
+        this.shape = classDecl.shape();
+        int size = shape.expectedSize();
+        this.slots = size == 0 ? NO_SLOTS : new Object[size];
     }
 
     public Object getField(String name) {
-        if (!fields.containsKey(name)) {
+        int slot = shape.slot(name);
+        if (slot < 0) {
             throw new RuntimeException("Field '" + name + "' not found in object of class " + classDecl.name());
         }
-        return fields.get(name);
+        return slots[slot];
     }
 
     public void setField(String name, Object value) {
-        fields.put(name, value);
+        int slot = shape.slot(name);
+        if (slot < 0) {
+            slot = shape.size();
+            transition(shape.with(name));
+        }
+        slots[slot] = value;
     }
 
     public ClassDeclaration getClassDecl() {
         return classDecl;
     }
 
+    public Shape shape() {
+        return shape;
+    }
+
+    public Object getSlot(int slot) {
+        return slots[slot];
+    }
+
+    public void setSlot(int slot, Object value) {
+        slots[slot] = value;
+    }
+
+    /** Moves to {@code next}, a shape reached from the current one by adding fields. */
+    public void transition(Shape next) {
+        if (slots.length < next.size()) {
+            slots = Arrays.copyOf(slots, next.expectedSize());
+        }
+        shape = next;
+    }
 }
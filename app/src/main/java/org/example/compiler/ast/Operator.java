@@ -0,0 +1,47 @@
+package org.example.compiler.ast;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every operator symbol the parser accepts, resolved once at parse time so
+ * the engines never switch on strings.
+ */
+public enum Operator {
+    PLUS("+"), MINUS("-"), STAR("*"), SLASH("/"), FLOOR_SLASH("//"), PERCENT("%"), POWER("**"),
+    AMP("&"), PIPE("|"), CARET("^"), TILDE("~"), SHL("<<"), SHR(">>"), USHR(">>>"),
+    EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">="),
+    AND("&&"), OR("||"), NOT("!"),
+    ASSIGN("="), INCREMENT("++"), DECREMENT("--");
+
+    private static final Map<String, Operator> BY_SYMBOL = new HashMap<>();
+
+    static {
+        for (Operator op : values()) {
+            BY_SYMBOL.put(op.symbol, op);
+        }
+    }
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public static Operator fromSymbol(String symbol) {
+        Operator op = BY_SYMBOL.get(symbol);
+        if (op == null) {
+            throw new IllegalArgumentException("Unknown operator: " + symbol);
+        }
+        return op;
+    }
+
+    /** Maps a compound assignment such as {@code +=} to its operator. */
+    public static Operator fromCompound(String symbol) {
+        return fromSymbol(symbol.substring(0, symbol.length() - 1));
+    }
+}
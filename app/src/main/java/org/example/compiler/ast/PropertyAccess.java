@@ -7,6 +7,7 @@ import org.example.compiler.ast.ExpressionNode;
 public class PropertyAccess implements ExpressionNode {
     public final ExpressionNode target;
     public final String property;
+    public final PropertyCache cache = new PropertyCache();
 
     public PropertyAccess(ExpressionNode target, String property) {
         this.target = target;
@@ -0,0 +1,25 @@
+package org.example.compiler.ast;
+
+/**
+ * {@code target.property = value}, or a compound form such as
+ * {@code target.property += value} when {@link #operator} is not ASSIGN.
+ */
+public class PropertyAssignment implements ExpressionNode {
+    public final ExpressionNode target;
+    public final String property;
+    public final Operator operator; // ASSIGN, or the arithmetic part, e.g. PLUS for "+="
+    public final ExpressionNode value;
+    public final PropertyCache readCache = new PropertyCache();
+    public final PropertyCache writeCache = new PropertyCache();
+
+    public PropertyAssignment(ExpressionNode target, String property, Operator operator, ExpressionNode value) {
+        this.target = target;
+        this.property = property;
+        this.operator = operator;
+        this.value = value;
+    }
+
+    public boolean isCompound() {
+        return operator != Operator.ASSIGN;
+    }
+}
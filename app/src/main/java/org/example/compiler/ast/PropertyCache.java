@@ -0,0 +1,78 @@
+package org.example.compiler.ast;
+
+import java.util.Arrays;
+
+/**
+ * Per-site cache for field reads or writes, keyed on the receiver's
+ * {@link Shape}. A hit turns the access into an array load or store; a
+ * write that adds a field also caches the shape it moves the object to.
+ * Like {@link InlineCache} it keeps up to {@link #MAX_ENTRIES} shapes and
+ * is safe to share between executions.
+ */
+public final class PropertyCache {
+    public static final int MAX_ENTRIES = 4;
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private record Entry(Shape from, Shape to, int slot) {
+    }
+
+    private volatile Entry[] entries = EMPTY;
+
+    public Object read(ObjectInstance instance, String name) {
+        Shape shape = instance.shape();
+        for (Entry entry : entries) {
+            if (entry.from == shape) {
+                return instance.getSlot(entry.slot);
+            }
+        }
+        int slot = shape.slot(name);
+        if (slot < 0) {
+            return instance.getField(name); // reports the missing field
+        }
+        record(shape, shape, slot);
+        return instance.getSlot(slot);
+    }
+
+    public void write(ObjectInstance instance, String name, Object value) {
+        Shape shape = instance.shape();
+        for (Entry entry : entries) {
+            if (entry.from == shape) {
+                if (entry.to != shape) {
+                    instance.transition(entry.to);
+                }
+                instance.setSlot(entry.slot, value);
+                return;
+            }
+        }
+        int slot = shape.slot(name);
+        Shape next = shape;
+        if (slot < 0) {
+            slot = shape.size();
+            next = shape.with(name);
+            instance.transition(next);
+        }
+        record(shape, next, slot);
+        instance.setSlot(slot, value);
+    }
+
+    private void record(Shape from, Shape to, int slot) {
+        if (entries.length >= MAX_ENTRIES) {
+            return; // megamorphic: every access misses, so don't take the lock each time
+        }
+        synchronized (this) {
+            Entry[] current = entries;
+            if (current.length >= MAX_ENTRIES) {
+                return;
+            }
+            for (Entry entry : current) {
+                if (entry.from == from) {
+                    return;
+                }
+            }
+            Entry[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = new Entry(from, to, slot);
+            entries = grown;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package org.example.compiler.ast;
 
 public class Return extends RuntimeException {
-    private final Object value;
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object value; // only ever thrown within one call, never serialized
 
     public Return(Object value) {
         super(null, null, false, false); // disables stack trace for performance
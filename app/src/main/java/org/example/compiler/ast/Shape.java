@@ -0,0 +1,68 @@
+package org.example.compiler.ast;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hidden class of an {@link ObjectInstance}: the field names it has, in slot
+ * order. Every class starts from one empty root shape and adding a field
+ * moves an object along a shared transition, so objects built the same way
+ * end up with the same shape and property sites can cache slot indices by
+ * shape. Shapes never change once created.
+ */
+public final class Shape {
+    private final ClassDeclaration classDecl;
+    private final Shape root;
+    private final String[] names;
+    private final Map<String, Shape> transitions = new ConcurrentHashMap<>();
+    // Largest shape reached from this root, so new objects can size their slots up front
+    private int expectedSize;
+
+    private Shape(ClassDeclaration classDecl, Shape root, String[] names) {
+        this.classDecl = classDecl;
+        this.root = root == null ? this : root;
+        this.names = names;
+    }
+
+    static Shape root(ClassDeclaration classDecl) {
+        return new Shape(classDecl, null, new String[0]);
+    }
+
+    public ClassDeclaration classDecl() {
+        return classDecl;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /** Slot of the field {@code name}, or -1 if objects of this shape lack it. */
+    public int slot(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** The shape reached by adding {@code name}, which must not be present yet; its slot is {@link #size()}. */
+    public Shape with(String name) {
+        Shape next = transitions.get(name);
+        if (next == null) {
+            String[] grown = Arrays.copyOf(names, names.length + 1);
+            grown[names.length] = name;
+            next = transitions.computeIfAbsent(name, n -> new Shape(classDecl, root, grown));
+            if (root.expectedSize < grown.length) {
+                root.expectedSize = grown.length; // racy, only a sizing hint
+            }
+        }
+        return next;
+    }
+
+    /** Number of slots to give a new object so it rarely has to grow. */
+    int expectedSize() {
+        return Math.max(root.expectedSize, names.length);
+    }
+}
@@ -1,14 +1,14 @@
 package org.example.compiler.ast;
 
 public class UnaryExpression implements ExpressionNode {
-    public final String operator;
+    public final Operator operator;
     public final ExpressionNode operand;
 
-    public UnaryExpression(String operator, ExpressionNode operand) {
+    public UnaryExpression(Operator operator, ExpressionNode operand) {
         this.operator = operator;
         this.operand = operand;
     }
-    public String operator() {
+    public Operator operator() {
         return this.operator;
     }
     public ExpressionNode operand() {
@@ -16,6 +16,6 @@ public class UnaryExpression implements ExpressionNode {
     }
     @Override
     public String toString() {
-        return operator + operand.toString();
+        return operator.symbol() + operand.toString();
     }
 }
@@ -3,6 +3,7 @@ package org.example.compiler.ast;
 public class VarDeclaration implements StatementNode {
     private final String name;
     private final ExpressionNode value;
+    private int slot = -1;
 
     public VarDeclaration(String name, ExpressionNode value) {
         this.name = name;
@@ -16,4 +17,12 @@ public class VarDeclaration implements StatementNode {
     public ExpressionNode value() {
         return value;
     }
+
+    public int slot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
 }
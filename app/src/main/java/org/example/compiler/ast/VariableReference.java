@@ -2,6 +2,8 @@ package org.example.compiler.ast;
 
 public class VariableReference implements ExpressionNode {
     public final String name;
+    private int slot = -1; // assigned by the resolver, -1 when the name is not a local
+    private boolean mayBeUnassigned;
 
     public VariableReference(String name) {
         this.name = name;
@@ -9,4 +11,17 @@ public class VariableReference implements ExpressionNode {
     public String name(){
         return this.name;
     }
+    public int slot() {
+        return slot;
+    }
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+    /** Set by the resolver when this read may run before the local's first write. */
+    public boolean mayBeUnassigned() {
+        return mayBeUnassigned;
+    }
+    public void setMayBeUnassigned(boolean mayBeUnassigned) {
+        this.mayBeUnassigned = mayBeUnassigned;
+    }
 }
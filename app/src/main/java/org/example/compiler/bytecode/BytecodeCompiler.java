@@ -0,0 +1,429 @@
+package org.example.compiler.bytecode;
+
+import org.example.compiler.ast.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.example.compiler.bytecode.Opcode.*;
+
+/**
+ * Lowers one resolved method into register bytecode. Locals keep the slots the
+ * resolver gave them (registers 0..frameSize-1) and temporaries are allocated
+ * stack-wise above them, so call arguments always land in the topmost
+ * registers and become the callee's parameters without copying.
+ */
+public class BytecodeCompiler {
+    private int[] code = new int[64];
+    private int length;
+    private final List<Object> constants = new ArrayList<>();
+    private final Map<Object, Integer> constantIndex = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+    private final Deque<Loop> loops = new ArrayDeque<>();
+    private int nextRegister;
+    private int maxRegister;
+    private int cacheCount;
+    private int propertyCacheCount;
+
+    private static final class Loop {
+        final List<Integer> breaks = new ArrayList<>();
+        final List<Integer> continues = new ArrayList<>();
+    }
+
+    public CompiledFunction compile(FunctionDeclaration func) {
+        nextRegister = func.frameSize();
+        maxRegister = nextRegister;
+        compileBlock(func.body());
+        emit(RETNULL);
+        return new CompiledFunction(func, Arrays.copyOf(code, length), constants.toArray(),
+                names.toArray(new String[0]), maxRegister, cacheCount, propertyCacheCount);
+    }
+
+    // ---- Statements ----
+
+    private void compileBlock(List<StatementNode> statements) {
+        for (StatementNode stmt : statements) {
+            compileStatement(stmt);
+        }
+    }
+
+    private void compileStatement(StatementNode stmt) {
+        if (stmt instanceof VarDeclaration varDecl) {
+            compileInto(varDecl.value(), varDecl.slot());
+        } else if (stmt instanceof PrintStatement printStmt) {
+            int mark = nextRegister;
+            emit(PRINT, compileToAny(printStmt.expression()));
+            nextRegister = mark;
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            int mark = nextRegister;
+            compileInto(exprStmt.expression(), allocate());
+            nextRegister = mark;
+        } else if (stmt instanceof ReturnStatement ret) {
+            if (ret.value() == null) {
+                emit(RETNULL);
+            } else {
+                int mark = nextRegister;
+                emit(RET, compileToAny(ret.value()));
+                nextRegister = mark;
+            }
+        } else if (stmt instanceof IfStatement ifStmt) {
+            compileIf(ifStmt);
+        } else if (stmt instanceof WhileStatement whileStmt) {
+            int start = length;
+            Loop loop = new Loop();
+            int exit = compileCondition(whileStmt.getCondition());
+            compileLoopBody(whileStmt.getBody(), loop);
+            emit(JMP, start);
+            patchLoop(loop, start, length);
+            patch(exit, length);
+        } else if (stmt instanceof ForStatement forStmt) {
+            if (forStmt.isForEach()) {
+                compileForEach(forStmt.getSlot(), forStmt.getIterable(), forStmt.getBody());
+            } else {
+                compileFor(forStmt);
+            }
+        } else if (stmt instanceof ForEachStatement forEachStmt) {
+            compileForEach(forEachStmt.getSlot(), forEachStmt.getIterable(), forEachStmt.getBody());
+        } else if (stmt instanceof BreakStatement) {
+            currentLoop("break").breaks.add(emitJump(JMP));
+        } else if (stmt instanceof ContinueStatement) {
+            currentLoop("continue").continues.add(emitJump(JMP));
+        } else {
+            throw new RuntimeException("Unsupported statement: " + stmt.getClass().getSimpleName());
+        }
+    }
+
+    private void compileIf(IfStatement ifStmt) {
+        List<Integer> toEnd = new ArrayList<>();
+        int next = compileStrictCondition(ifStmt.getCondition(), "Condition must evaluate to a boolean");
+        compileBlock(ifStmt.getThenBranch());
+        toEnd.add(emitJump(JMP));
+        patch(next, length);
+
+        if (ifStmt.getElseIfBranches() != null) {
+            for (ElseIfBranch elseIf : ifStmt.getElseIfBranches()) {
+                next = compileStrictCondition(elseIf.getCondition(), "Else-if condition must evaluate to a boolean");
+                compileBlock(elseIf.getBody());
+                toEnd.add(emitJump(JMP));
+                patch(next, length);
+            }
+        }
+        if (ifStmt.getElseBranch() != null) {
+            compileBlock(ifStmt.getElseBranch());
+        }
+        for (int jump : toEnd) {
+            patch(jump, length);
+        }
+    }
+
+    private void compileFor(ForStatement forStmt) {
+        if (forStmt.getInit() != null) {
+            compileStatement(forStmt.getInit());
+        }
+        int start = length;
+        int exit = forStmt.getCondition() == null ? -1 : compileCondition(forStmt.getCondition());
+        Loop loop = new Loop();
+        compileLoopBody(forStmt.getBody(), loop);
+        int increment = length;
+        if (forStmt.getIncrement() != null) {
+            int mark = nextRegister;
+            compileInto(forStmt.getIncrement(), allocate());
+            nextRegister = mark;
+        }
+        emit(JMP, start);
+        patchLoop(loop, increment, length);
+        if (exit >= 0) {
+            patch(exit, length);
+        }
+    }
+
+    private void compileForEach(int slot, ExpressionNode iterable, List<StatementNode> body) {
+        int mark = nextRegister;
+        int iterator = allocate();
+        compileInto(iterable, iterator);
+        emit(ITER, iterator, iterator);
+        int start = length;
+        int exit = length + 3;
+        emit(NEXT, iterator, slot, -1);
+        Loop loop = new Loop();
+        compileLoopBody(body, loop);
+        emit(JMP, start);
+        patchLoop(loop, start, length);
+        patch(exit, length);
+        nextRegister = mark;
+    }
+
+    private void compileLoopBody(List<StatementNode> body, Loop loop) {
+        loops.push(loop);
+        compileBlock(body);
+        loops.pop();
+    }
+
+    private Loop currentLoop(String keyword) {
+        if (loops.isEmpty()) {
+            throw new RuntimeException("'" + keyword + "' outside of a loop");
+        }
+        return loops.peek();
+    }
+
+    private void patchLoop(Loop loop, int continueTarget, int breakTarget) {
+        for (int jump : loop.continues) {
+            patch(jump, continueTarget);
+        }
+        for (int jump : loop.breaks) {
+            patch(jump, breakTarget);
+        }
+    }
+
+    /** Emits a truthiness test; returns the operand to patch with the exit. */
+    private int compileCondition(ExpressionNode condition) {
+        int mark = nextRegister;
+        int reg = compileToAny(condition);
+        nextRegister = mark;
+        emit(JMPF, reg, -1);
+        return length - 1;
+    }
+
+    /** Like {@link #compileCondition} but the value must be a boolean. */
+    private int compileStrictCondition(ExpressionNode condition, String message) {
+        int mark = nextRegister;
+        int reg = compileToAny(condition);
+        nextRegister = mark;
+        emit(JMPFB, reg, -1, name(message));
+        return length - 2;
+    }
+
+    // ---- Expressions ----
+
+    /**
+     * Returns a register holding the value of {@code expr}: the local's own
+     * register for a plain variable read, otherwise a fresh temporary.
+     */
+    private int compileToAny(ExpressionNode expr) {
+        if (expr instanceof VariableReference varRef && varRef.slot() >= 0) {
+            checkAssigned(varRef.mayBeUnassigned(), varRef.slot(), varRef.name());
+            return varRef.slot();
+        }
+        int reg = allocate();
+        compileInto(expr, reg);
+        return reg;
+    }
+
+    private void compileInto(ExpressionNode expr, int dst) {
+        int mark = nextRegister;
+        if (expr instanceof BooleanLiteral bool) {
+            emit(LOADK, dst, constant(bool.value));
+        } else if (expr instanceof NumberLiteral number) {
+            emit(LOADK, dst, constant(number.value));
+        } else if (expr instanceof StringLiteral string) {
+            emit(LOADK, dst, constant(string.value));
+        } else if (expr instanceof VariableReference varRef) {
+            if (varRef.slot() < 0) {
+                emit(FAIL, name("Undefined variable: " + varRef.name()));
+            } else {
+                checkAssigned(varRef.mayBeUnassigned(), varRef.slot(), varRef.name());
+                if (varRef.slot() != dst) {
+                    emit(MOVE, dst, varRef.slot());
+                }
+            }
+        } else if (expr instanceof Identifier ident) {
+            emit(FAIL, name("Undefined variable: " + ident.name()));
+        } else if (expr instanceof BinaryExpression binExpr) {
+            // A local read on the left must be copied if the right side can overwrite it
+            int left = writesLocals(binExpr.right) ? copyToTemp(binExpr.left) : compileToAny(binExpr.left);
+            int right = compileToAny(binExpr.right);
+            int opcode = binaryOpcode(binExpr.operator);
+            if (opcode == BINOP) {
+                emit(BINOP, dst, left, right, binExpr.operator.ordinal());
+            } else {
+                emit(opcode, dst, left, right);
+            }
+        } else if (expr instanceof UnaryExpression unary) {
+            emit(UNOP, dst, compileToAny(unary.operand), unary.operator.ordinal());
+        } else if (expr instanceof IncrementExpression inc) {
+            if (inc.slot() < 0) {
+                emit(FAIL, name("Undefined variable: " + inc.variableName()));
+            } else {
+                checkAssigned(inc.mayBeUnassigned(), inc.slot(), inc.variableName());
+                emit(INC, dst, inc.slot(), inc.operator() == Operator.INCREMENT ? 1 : -1, inc.isPrefix() ? 1 : 0);
+            }
+        } else if (expr instanceof AssignmentExpression assign) {
+            if (assign.slot() < 0) {
+                emit(FAIL, name("Variable '" + assign.name() + "' is not declared"));
+            } else if (assign.isCompound()) {
+                checkAssigned(assign.mayBeUnassigned(), assign.slot(), assign.name());
+                emit(COMPOUND, dst, assign.slot(), compileToAny(assign.right()), assign.operator().ordinal());
+            } else {
+                compileInto(assign.right(), assign.slot());
+                if (dst != assign.slot()) {
+                    emit(MOVE, dst, assign.slot());
+                }
+            }
+        } else if (expr instanceof CompoundAssignmentExpression compoundAssign) {
+            if (compoundAssign.slot() < 0) {
+                emit(FAIL, name("Variable '" + compoundAssign.variableName + "' is not declared"));
+            } else {
+                checkAssigned(compoundAssign.mayBeUnassigned(), compoundAssign.slot(), compoundAssign.variableName);
+                int value = compileToAny(compoundAssign.value);
+                emit(COMPOUND, dst, compoundAssign.slot(), value, compoundAssign.operator.ordinal());
+            }
+        } else if (expr instanceof FunctionCall funcCall) {
+            int argStart = compileArguments(funcCall.arguments());
+            emit(CALL, dst, name(funcCall.functionName()), argStart, funcCall.arguments().size(), cacheCount++);
+        } else if (expr instanceof MethodCall methodCall) {
+            int receiver = copyToTemp(methodCall.target);
+            int argStart = compileArguments(methodCall.arguments);
+            emit(INVOKE, dst, receiver, name(methodCall.methodName), argStart, methodCall.arguments.size(),
+                    cacheCount++);
+        } else if (expr instanceof NewObjectExpression newExpr) {
+            int argStart = compileArguments(newExpr.getArguments());
+            emit(NEW, dst, name(newExpr.getClassName()), argStart, newExpr.getArguments().size());
+        } else if (expr instanceof ListLiteral listLiteral) {
+            int start = compileArguments(listLiteral.elements);
+            emit(NEWLIST, dst, start, listLiteral.elements.size());
+        } else if (expr instanceof CollectionLiteral collection) {
+            int start = compileArguments(collection.elements);
+            emit(NEWCOLL, dst, start, collection.elements.size(), collection.kind.ordinal());
+        } else if (expr instanceof ThisExpression) {
+            emit(THIS, dst);
+        } else if (expr instanceof IndexExpression indexExpr) {
+            int target = copyToTemp(indexExpr.getTarget());
+            emit(INDEX, dst, target, compileToAny(indexExpr.getIndex()));
+        } else if (expr instanceof PropertyAccess propAccess) {
+            emit(GETPROP, dst, compileToAny(propAccess.target), name(propAccess.property), propertyCacheCount++);
+        } else if (expr instanceof PropertyAssignment assign) {
+            int target = writesLocals(assign.value) ? copyToTemp(assign.target) : compileToAny(assign.target);
+            int value = compileToAny(assign.value);
+            emit(SETPROP, dst, target, name(assign.property), value, assign.operator.ordinal(), propertyCacheCount);
+            propertyCacheCount += 2;
+        } else if (expr instanceof TernaryExpression ternary) {
+            int otherwise = compileStrictCondition(ternary.condition, "Ternary condition must be a boolean");
+            compileInto(ternary.trueExpr, dst);
+            int end = emitJump(JMP);
+            patch(otherwise, length);
+            compileInto(ternary.falseExpr, dst);
+            patch(end, length);
+        } else {
+            throw new RuntimeException("Unsupported expression: " + expr.getClass().getSimpleName());
+        }
+        nextRegister = mark;
+    }
+
+    /** Evaluates expressions into consecutive fresh registers; returns the first. */
+    private int compileArguments(List<ExpressionNode> arguments) {
+        int start = nextRegister;
+        for (ExpressionNode arg : arguments) {
+            compileInto(arg, allocate());
+        }
+        return start;
+    }
+
+    private int copyToTemp(ExpressionNode expr) {
+        int reg = allocate();
+        compileInto(expr, reg);
+        return reg;
+    }
+
+    private static int binaryOpcode(Operator operator) {
+        return switch (operator) {
+            case PLUS -> ADD;
+            case MINUS -> SUB;
+            case STAR -> MUL;
+            case SLASH -> DIV;
+            case PERCENT -> MOD;
+            case LT -> Opcode.LT;
+            case LE -> Opcode.LE;
+            case GT -> Opcode.GT;
+            case GE -> Opcode.GE;
+            case EQ -> Opcode.EQ;
+            case NE -> Opcode.NE;
+            default -> BINOP;
+        };
+    }
+
+    private static boolean writesLocals(ExpressionNode expr) {
+        if (expr instanceof AssignmentExpression || expr instanceof CompoundAssignmentExpression
+                || expr instanceof IncrementExpression) {
+            return true;
+        } else if (expr instanceof BinaryExpression binExpr) {
+            return writesLocals(binExpr.left) || writesLocals(binExpr.right);
+        } else if (expr instanceof UnaryExpression unary) {
+            return writesLocals(unary.operand);
+        } else if (expr instanceof TernaryExpression ternary) {
+            return writesLocals(ternary.condition) || writesLocals(ternary.trueExpr)
+                    || writesLocals(ternary.falseExpr);
+        } else if (expr instanceof FunctionCall funcCall) {
+            return funcCall.arguments().stream().anyMatch(BytecodeCompiler::writesLocals);
+        } else if (expr instanceof MethodCall methodCall) {
+            return writesLocals(methodCall.target)
+                    || methodCall.arguments.stream().anyMatch(BytecodeCompiler::writesLocals);
+        } else if (expr instanceof NewObjectExpression newExpr) {
+            return newExpr.getArguments().stream().anyMatch(BytecodeCompiler::writesLocals);
+        } else if (expr instanceof ListLiteral listLiteral) {
+            return listLiteral.elements.stream().anyMatch(BytecodeCompiler::writesLocals);
+        } else if (expr instanceof CollectionLiteral collection) {
+            return collection.elements.stream().anyMatch(BytecodeCompiler::writesLocals);
+        } else if (expr instanceof IndexExpression indexExpr) {
+            return writesLocals(indexExpr.getTarget()) || writesLocals(indexExpr.getIndex());
+        } else if (expr instanceof PropertyAccess propAccess) {
+            return writesLocals(propAccess.target);
+        } else if (expr instanceof PropertyAssignment assign) {
+            return writesLocals(assign.target) || writesLocals(assign.value);
+        }
+        return false;
+    }
+
+    // ---- Emission helpers ----
+
+    private int allocate() {
+        int reg = nextRegister++;
+        if (nextRegister > maxRegister) {
+            maxRegister = nextRegister;
+        }
+        return reg;
+    }
+
+    private int constant(Object value) {
+        return constantIndex.computeIfAbsent(value, v -> {
+            constants.add(v);
+            return constants.size() - 1;
+        });
+    }
+
+    private int name(String value) {
+        return nameIndex.computeIfAbsent(value, v -> {
+            names.add(v);
+            return names.size() - 1;
+        });
+    }
+
+    private void checkAssigned(boolean mayBeUnassigned, int slot, String variable) {
+        if (mayBeUnassigned) {
+            emit(CHECK, slot, name(variable));
+        }
+    }
+
+    private void emit(int... words) {
+        if (length + words.length > code.length) {
+            code = Arrays.copyOf(code, Math.max(code.length * 2, length + words.length));
+        }
+        System.arraycopy(words, 0, code, length, words.length);
+        length += words.length;
+    }
+
+    /** Emits a jump with an unknown target; returns the operand to patch. */
+    private int emitJump(int opcode) {
+        emit(opcode, -1);
+        return length - 1;
+    }
+
+    private void patch(int operand, int target) {
+        code[operand] = target;
+    }
+}
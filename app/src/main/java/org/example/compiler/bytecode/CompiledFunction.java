@@ -0,0 +1,50 @@
+package org.example.compiler.bytecode;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.ast.PropertyCache;
+
+/**
+ * Bytecode for one method: the instruction stream, its constant pool and
+ * name table, one inline-cache slot per call instruction and one property
+ * cache per field read (two per field write: the old value and the store).
+ */
+public final class CompiledFunction {
+    final FunctionDeclaration declaration;
+    final int[] code;
+    final Object[] constants;
+    final String[] names;
+    final int paramCount;
+    final int registerCount;
+    final ClassDeclaration[] cacheKeys;
+    final CompiledFunction[] cacheTargets;
+    final PropertyCache[] propertyCaches;
+
+    CompiledFunction(FunctionDeclaration declaration, int[] code, Object[] constants, String[] names,
+            int registerCount, int cacheCount, int propertyCacheCount) {
+        this.declaration = declaration;
+        this.code = code;
+        this.constants = constants;
+        this.names = names;
+        this.paramCount = declaration.parameters().size();
+        this.registerCount = registerCount;
+        this.cacheKeys = new ClassDeclaration[cacheCount];
+        this.cacheTargets = new CompiledFunction[cacheCount];
+        this.propertyCaches = new PropertyCache[propertyCacheCount];
+        for (int i = 0; i < propertyCacheCount; i++) {
+            propertyCaches[i] = new PropertyCache();
+        }
+    }
+
+    public String name() {
+        return declaration.name();
+    }
+
+    public int[] code() {
+        return code;
+    }
+
+    public int registerCount() {
+        return registerCount;
+    }
+}
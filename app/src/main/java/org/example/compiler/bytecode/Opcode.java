@@ -0,0 +1,48 @@
+package org.example.compiler.bytecode;
+
+/**
+ * Instruction set of the register VM. Every instruction is its opcode followed
+ * by a fixed number of int operands; register operands are relative to the
+ * current call's base. Jump targets are absolute code offsets.
+ */
+public final class Opcode {
+    private Opcode() {
+    }
+
+    public static final int LOADK = 0;      // dst, constant
+    public static final int MOVE = 1;       // dst, src
+    public static final int ADD = 2;        // dst, a, b
+    public static final int SUB = 3;        // dst, a, b
+    public static final int MUL = 4;        // dst, a, b
+    public static final int DIV = 5;        // dst, a, b
+    public static final int MOD = 6;        // dst, a, b
+    public static final int LT = 7;         // dst, a, b
+    public static final int LE = 8;         // dst, a, b
+    public static final int GT = 9;         // dst, a, b
+    public static final int GE = 10;        // dst, a, b
+    public static final int EQ = 11;        // dst, a, b
+    public static final int NE = 12;        // dst, a, b
+    public static final int BINOP = 13;     // dst, a, b, operator ordinal
+    public static final int UNOP = 14;      // dst, a, operator ordinal
+    public static final int INC = 15;       // dst, slot, delta, prefix
+    public static final int COMPOUND = 16;  // dst, slot, value, operator ordinal
+    public static final int JMP = 17;       // target
+    public static final int JMPF = 18;      // cond, target (jumps when not truthy)
+    public static final int JMPFB = 19;     // cond, target, message (cond must be a boolean)
+    public static final int PRINT = 20;     // src
+    public static final int RET = 21;       // src
+    public static final int RETNULL = 22;   //
+    public static final int CALL = 23;      // dst, method name, argStart, argc, cache
+    public static final int INVOKE = 24;    // dst, receiver, method name, argStart, argc, cache
+    public static final int NEW = 25;       // dst, class name, argStart, argc
+    public static final int NEWLIST = 26;   // dst, start, count
+    public static final int INDEX = 27;     // dst, target, index
+    public static final int GETPROP = 28;   // dst, target, property name, property cache
+    public static final int THIS = 29;      // dst
+    public static final int ITER = 30;      // dst, iterable
+    public static final int NEXT = 31;      // iterator, slot, exit target
+    public static final int FAIL = 32;      // message
+    public static final int SETPROP = 33;   // dst, target, property name, value, operator ordinal, property cache
+    public static final int NEWCOLL = 34;   // dst, start, count, collection kind ordinal
+    public static final int CHECK = 35;     // slot, variable name (fails while the slot is unassigned)
+}
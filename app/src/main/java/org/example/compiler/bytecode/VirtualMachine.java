@@ -0,0 +1,373 @@
+package org.example.compiler.bytecode;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.CollectionLiteral;
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.ast.ObjectInstance;
+import org.example.compiler.ast.Operator;
+import org.example.compiler.interpreter.Builtins;
+import org.example.compiler.interpreter.MethodCaller;
+import org.example.compiler.interpreter.MethodTable;
+import org.example.compiler.interpreter.OakList;
+import org.example.compiler.interpreter.Operators;
+import org.example.compiler.interpreter.Program;
+import org.example.compiler.interpreter.Utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.example.compiler.ast.Operator.MINUS;
+import static org.example.compiler.ast.Operator.PERCENT;
+import static org.example.compiler.ast.Operator.PLUS;
+import static org.example.compiler.ast.Operator.SLASH;
+import static org.example.compiler.ast.Operator.STAR;
+import static org.example.compiler.bytecode.Opcode.*;
+
+/**
+ * Register machine for {@link BytecodeCompiler} output. All calls share one
+ * register stack; a callee's window starts at the caller's first argument
+ * register, so parameters are passed in place.
+ */
+public class VirtualMachine implements MethodCaller {
+    private static final int INITIAL_STACK = 1024;
+    private static final Operator[] OPERATORS = Operator.values();
+    private static final CollectionLiteral.Kind[] COLLECTION_KINDS = CollectionLiteral.Kind.values();
+
+    private final Program program;
+    private final Map<FunctionDeclaration, CompiledFunction> compiled = new IdentityHashMap<>();
+    private Object[] stack = new Object[INITIAL_STACK];
+    // One past the registers of the innermost running function
+    private int top;
+
+    public VirtualMachine(Program program) {
+        this.program = program;
+    }
+
+    public void executeProgram() {
+        ClassDeclaration mainClass = program.findMainClass();
+        call(compiled(program.findMethod(mainClass.name(), "main")), 0, 0, mainClass, null);
+    }
+
+    private CompiledFunction compiled(FunctionDeclaration func) {
+        CompiledFunction fn = compiled.get(func);
+        if (fn == null) {
+            fn = new BytecodeCompiler().compile(func);
+            compiled.put(func, fn);
+        }
+        return fn;
+    }
+
+    private MethodTable methodTable(String className) {
+        MethodTable table = program.methodTable(className);
+        if (table == null) {
+            throw new RuntimeException("Class not found: " + className);
+        }
+        return table;
+    }
+
+    private CompiledFunction lookup(CompiledFunction caller, int cache, ClassDeclaration receiver, String name) {
+        if (caller.cacheKeys[cache] == receiver) {
+            return caller.cacheTargets[cache];
+        }
+        FunctionDeclaration func = methodTable(receiver.name()).lookup(name);
+        if (func == null) {
+            throw new RuntimeException("Method " + name + " not found in class " + receiver.name());
+        }
+        CompiledFunction target = compiled(func);
+        caller.cacheKeys[cache] = receiver;
+        caller.cacheTargets[cache] = target;
+        return target;
+    }
+
+    private Object call(CompiledFunction fn, int base, int argc, ClassDeclaration cls, ObjectInstance self) {
+        if (argc != fn.paramCount) {
+            throw new RuntimeException(
+                    "Function " + fn.name() + " expects " + fn.paramCount + " arguments but got " + argc);
+        }
+        int callerTop = top;
+        top = base + fn.registerCount;
+        if (top > stack.length) {
+            stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top));
+        }
+        Arrays.fill(stack, base + argc, top, fn.declaration.readsUnassigned() ? Utility.UNASSIGNED : null);
+        Object result = run(fn, base, cls, self);
+        // Drop the callee's registers (its arguments are the caller's spent temps) so the
+        // shared stack doesn't keep their objects alive; left raised if run throws
+        Arrays.fill(stack, base, top, null);
+        top = callerTop;
+        return result;
+    }
+
+    @Override
+    public Object callMethod(ClassDeclaration cls, ObjectInstance self, String name, Object[] args) {
+        FunctionDeclaration func = methodTable(cls.name()).lookup(name);
+        if (func == null) {
+            throw new RuntimeException("Method " + name + " not found in class " + cls.name());
+        }
+        int base = top;
+        if (base + args.length > stack.length) {
+            stack = Arrays.copyOf(stack, Math.max(stack.length * 2, base + args.length));
+        }
+        System.arraycopy(args, 0, stack, base, args.length);
+        return call(compiled(func), base, args.length, cls, self);
+    }
+
+    private Object run(CompiledFunction fn, int base, ClassDeclaration cls, ObjectInstance self) {
+        final int[] code = fn.code;
+        final Object[] k = fn.constants;
+        final String[] names = fn.names;
+        Object[] r = stack;
+        int pc = 0;
+
+        while (true) {
+            switch (code[pc]) {
+                case LOADK -> {
+                    r[base + code[pc + 1]] = k[code[pc + 2]];
+                    pc += 3;
+                }
+                case MOVE -> {
+                    r[base + code[pc + 1]] = r[base + code[pc + 2]];
+                    pc += 3;
+                }
+                case ADD -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y
+                            ? (Object) (x + y) : Operators.binary(PLUS, a, b);
+                    pc += 4;
+                }
+                case SUB -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y
+                            ? (Object) (x - y) : Operators.binary(MINUS, a, b);
+                    pc += 4;
+                }
+                case MUL -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y
+                            ? (Object) (x * y) : Operators.binary(STAR, a, b);
+                    pc += 4;
+                }
+                case DIV -> {
+                    r[base + code[pc + 1]] = Operators.binary(SLASH, r[base + code[pc + 2]], r[base + code[pc + 3]]);
+                    pc += 4;
+                }
+                case MOD -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y && y != 0
+                            ? (Object) (x % y) : Operators.binary(PERCENT, a, b);
+                    pc += 4;
+                }
+                case LT -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y
+                            ? (Object) (x < y) : Operators.binary(Operator.LT, a, b);
+                    pc += 4;
+                }
+                case LE -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y
+                            ? (Object) (x <= y) : Operators.binary(Operator.LE, a, b);
+                    pc += 4;
+                }
+                case GT -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y
+                            ? (Object) (x > y) : Operators.binary(Operator.GT, a, b);
+                    pc += 4;
+                }
+                case GE -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y
+                            ? (Object) (x >= y) : Operators.binary(Operator.GE, a, b);
+                    pc += 4;
+                }
+                case EQ -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y
+                            ? (Object) (x.intValue() == y.intValue()) : Operators.binary(Operator.EQ, a, b);
+                    pc += 4;
+                }
+                case NE -> {
+                    Object a = r[base + code[pc + 2]];
+                    Object b = r[base + code[pc + 3]];
+                    r[base + code[pc + 1]] = a instanceof Integer x && b instanceof Integer y
+                            ? (Object) (x.intValue() != y.intValue()) : Operators.binary(Operator.NE, a, b);
+                    pc += 4;
+                }
+                case BINOP -> {
+                    r[base + code[pc + 1]] = Operators.binary(OPERATORS[code[pc + 4]],
+                            r[base + code[pc + 2]], r[base + code[pc + 3]]);
+                    pc += 5;
+                }
+                case UNOP -> {
+                    r[base + code[pc + 1]] = Operators.unary(OPERATORS[code[pc + 3]], r[base + code[pc + 2]]);
+                    pc += 4;
+                }
+                case INC -> {
+                    int slot = base + code[pc + 2];
+                    if (!(r[slot] instanceof Integer value)) {
+                        throw new RuntimeException("Can only increment/decrement integers");
+                    }
+                    int newVal = value + code[pc + 3];
+                    r[slot] = newVal;
+                    r[base + code[pc + 1]] = code[pc + 4] != 0 ? r[slot] : value;
+                    pc += 5;
+                }
+                case COMPOUND -> {
+                    int slot = base + code[pc + 2];
+                    Object result = Operators.compound(OPERATORS[code[pc + 4]], r[slot], r[base + code[pc + 3]]);
+                    r[slot] = result;
+                    r[base + code[pc + 1]] = result;
+                    pc += 5;
+                }
+                case JMP -> {
+                    int target = code[pc + 1];
+                    if (target < pc) { // a loop's back edge
+                        Utility.checkInterrupted();
+                    }
+                    pc = target;
+                }
+                case JMPF -> pc = Utility.isTruthy(r[base + code[pc + 1]]) ? pc + 3 : code[pc + 2];
+                case JMPFB -> {
+                    if (!(r[base + code[pc + 1]] instanceof Boolean cond)) {
+                        throw new RuntimeException(names[code[pc + 3]]);
+                    }
+                    pc = cond ? pc + 4 : code[pc + 2];
+                }
+                case PRINT -> {
+                    System.out.println(Utility.valueToString(r[base + code[pc + 1]]));
+                    pc += 2;
+                }
+                case RET -> {
+                    return r[base + code[pc + 1]];
+                }
+                case RETNULL -> {
+                    return null;
+                }
+                case CALL -> {
+                    CompiledFunction target = lookup(fn, code[pc + 5], cls, names[code[pc + 2]]);
+                    Object result = call(target, base + code[pc + 3], code[pc + 4], cls, self);
+                    r = stack; // the call may have grown the stack
+                    r[base + code[pc + 1]] = result;
+                    pc += 6;
+                }
+                case INVOKE -> {
+                    Object receiver = r[base + code[pc + 2]];
+                    int argStart = base + code[pc + 4];
+                    int argc = code[pc + 5];
+                    Object result;
+                    if (receiver instanceof ObjectInstance instance) {
+                        ClassDeclaration receiverClass = instance.getClassDecl();
+                        CompiledFunction target = lookup(fn, code[pc + 6], receiverClass, names[code[pc + 3]]);
+                        result = call(target, argStart, argc, receiverClass, instance);
+                        r = stack;
+                    } else {
+                        List<Object> args = new ArrayList<>(argc);
+                        for (int i = 0; i < argc; i++) {
+                            args.add(r[argStart + i]);
+                        }
+                        result = Builtins.invoke(receiver, names[code[pc + 3]], args, this, cls, self);
+                        r = stack; // pipeline stages call back into the VM
+                    }
+                    r[base + code[pc + 1]] = result;
+                    pc += 7;
+                }
+                case NEW -> {
+                    MethodTable table = methodTable(names[code[pc + 2]]);
+                    ObjectInstance instance = new ObjectInstance(table.classDecl());
+                    FunctionDeclaration constructor = table.constructor();
+                    if (constructor != null) {
+                        if (constructor.parameters().size() != code[pc + 4]) {
+                            throw new RuntimeException("Constructor argument count mismatch");
+                        }
+                        call(compiled(constructor), base + code[pc + 3], code[pc + 4], table.classDecl(), instance);
+                        r = stack;
+                    }
+                    r[base + code[pc + 1]] = instance;
+                    pc += 5;
+                }
+                case NEWLIST -> {
+                    int start = base + code[pc + 2];
+                    int count = code[pc + 3];
+                    OakList list = new OakList(count);
+                    for (int i = 0; i < count; i++) {
+                        list.add(r[start + i]);
+                    }
+                    r[base + code[pc + 1]] = list;
+                    pc += 4;
+                }
+                case NEWCOLL -> {
+                    int start = base + code[pc + 2];
+                    Object[] elements = Arrays.copyOfRange(r, start, start + code[pc + 3]);
+                    r[base + code[pc + 1]] = Builtins.collection(COLLECTION_KINDS[code[pc + 4]], elements);
+                    pc += 5;
+                }
+                case INDEX -> {
+                    r[base + code[pc + 1]] = Builtins.index(r[base + code[pc + 2]], r[base + code[pc + 3]]);
+                    pc += 4;
+                }
+                case GETPROP -> {
+                    r[base + code[pc + 1]] = Builtins.property(r[base + code[pc + 2]], names[code[pc + 3]],
+                            fn.propertyCaches[code[pc + 4]]);
+                    pc += 5;
+                }
+                case SETPROP -> {
+                    int cache = code[pc + 6];
+                    r[base + code[pc + 1]] = Builtins.setProperty(r[base + code[pc + 2]], names[code[pc + 3]],
+                            OPERATORS[code[pc + 5]], r[base + code[pc + 4]],
+                            fn.propertyCaches[cache], fn.propertyCaches[cache + 1]);
+                    pc += 7;
+                }
+                case THIS -> {
+                    r[base + code[pc + 1]] = self;
+                    pc += 2;
+                }
+                case ITER -> {
+                    r[base + code[pc + 1]] = iterator(r[base + code[pc + 2]]);
+                    pc += 3;
+                }
+                case NEXT -> {
+                    Iterator<?> it = (Iterator<?>) r[base + code[pc + 1]];
+                    boolean more = it.hasNext();
+                    Object element = more ? it.next() : null;
+                    r = stack; // a pipeline's stages may have grown the stack
+                    if (more) {
+                        r[base + code[pc + 2]] = element;
+                        pc += 4;
+                    } else {
+                        pc = code[pc + 3];
+                    }
+                }
+                case FAIL -> throw new RuntimeException(names[code[pc + 1]]);
+                case CHECK -> {
+                    Utility.checkAssigned(r[base + code[pc + 1]], names[code[pc + 2]]);
+                    pc += 3;
+                }
+                default -> throw new IllegalStateException("Bad opcode " + code[pc] + " at " + pc + " in " + fn.name());
+            }
+        }
+    }
+
+    private static Iterator<?> iterator(Object iterable) {
+        Iterable<?> items = Builtins.iterable(iterable);
+        if (items == null) {
+            throw new RuntimeException(
+                    "For-each loop requires an iterable, got: " + iterable.getClass().getSimpleName());
+        }
+        return items.iterator();
+    }
+}
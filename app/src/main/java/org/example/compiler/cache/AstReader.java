@@ -0,0 +1,278 @@
+package org.example.compiler.cache;
+
+import org.example.compiler.ast.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.example.compiler.cache.AstWriter.*;
+
+/**
+ * Rebuilds a class tree written by {@link AstWriter}. The stream must be
+ * over data already in memory: every length and count is checked against
+ * {@link DataInputStream#available()} before anything is allocated for it,
+ * so a damaged file fails with an {@link IOException} instead of running
+ * out of memory.
+ */
+final class AstReader {
+    private static final Operator[] OPERATORS = Operator.values();
+    private static final CollectionLiteral.Kind[] COLLECTION_KINDS = CollectionLiteral.Kind.values();
+
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+
+    AstReader(DataInputStream in) {
+        this.in = in;
+    }
+
+    StatementNode readStatement() throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case CLASS:
+                return new ClassDeclaration(readString(), readStatements());
+            case FUNCTION: {
+                String name = readString();
+                List<String> parameters = new ArrayList<>();
+                int count = readCount(Integer.BYTES);
+                for (int i = 0; i < count; i++) {
+                    parameters.add(readString());
+                }
+                String[] locals = new String[readCount(Integer.BYTES)];
+                for (int i = 0; i < locals.length; i++) {
+                    locals[i] = readString();
+                }
+                boolean readsUnassigned = in.readBoolean();
+                FunctionDeclaration func = new FunctionDeclaration(name, parameters, readStatements());
+                func.setLocalNames(locals);
+                func.setReadsUnassigned(readsUnassigned);
+                return func;
+            }
+            case VAR: {
+                String name = readString();
+                int slot = in.readInt();
+                VarDeclaration varDecl = new VarDeclaration(name, readExpression());
+                varDecl.setSlot(slot);
+                return varDecl;
+            }
+            case PRINT:
+                return new PrintStatement(readExpression());
+            case EXPRESSION_STATEMENT:
+                return new ExpressionStatement(readExpression());
+            case RETURN:
+                return new ReturnStatement(readExpression());
+            case IF: {
+                ExpressionNode condition = readExpression();
+                List<StatementNode> thenBranch = readStatements();
+                List<ElseIfBranch> elseIfs = null;
+                int count = readCount(1);
+                if (count >= 0) {
+                    elseIfs = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        elseIfs.add(new ElseIfBranch(readExpression(), readStatements()));
+                    }
+                }
+                return new IfStatement(condition, thenBranch, elseIfs, readStatements());
+            }
+            case WHILE:
+                return new WhileStatement(readExpression(), readStatements());
+            case FOR_IN: {
+                String name = readString();
+                int slot = in.readInt();
+                ForStatement forStmt = new ForStatement(name, readExpression(), readStatements());
+                forStmt.setSlot(slot);
+                return forStmt;
+            }
+            case FOR:
+                return new ForStatement(readStatement(), readExpression(), readExpression(), readStatements());
+            case FOR_EACH: {
+                String name = readString();
+                int slot = in.readInt();
+                ForEachStatement forEach = new ForEachStatement(name, readExpression(), readStatements());
+                forEach.setSlot(slot);
+                return forEach;
+            }
+            case BREAK:
+                return new BreakStatement();
+            case CONTINUE:
+                return new ContinueStatement();
+            default:
+                throw new IOException("Unknown statement tag " + tag);
+        }
+    }
+
+    ExpressionNode readExpression() throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case INT:
+                return new NumberLiteral(in.readInt());
+            case DOUBLE:
+                return new NumberLiteral(in.readDouble());
+            case STRING:
+                return new StringLiteral(readString());
+            case BOOLEAN:
+                return new BooleanLiteral(in.readBoolean());
+            case LITERAL:
+                return new Literal(readConstant());
+            case VARIABLE: {
+                VariableReference ref = new VariableReference(readString());
+                ref.setSlot(in.readInt());
+                ref.setMayBeUnassigned(in.readBoolean());
+                return ref;
+            }
+            case ASSIGN: {
+                String name = readString();
+                Operator operator = readOperator();
+                boolean isCompound = in.readBoolean();
+                int slot = in.readInt();
+                boolean mayBeUnassigned = in.readBoolean();
+                AssignmentExpression assign = new AssignmentExpression(name, operator, readExpression(), isCompound);
+                assign.setSlot(slot);
+                assign.setMayBeUnassigned(mayBeUnassigned);
+                return assign;
+            }
+            case COMPOUND_ASSIGN: {
+                String name = readString();
+                Operator operator = readOperator();
+                int slot = in.readInt();
+                boolean mayBeUnassigned = in.readBoolean();
+                CompoundAssignmentExpression compound = new CompoundAssignmentExpression(name, operator, readExpression());
+                compound.setSlot(slot);
+                compound.setMayBeUnassigned(mayBeUnassigned);
+                return compound;
+            }
+            case INCREMENT: {
+                IncrementExpression inc = new IncrementExpression(readString(), readOperator(), in.readBoolean());
+                inc.setSlot(in.readInt());
+                inc.setMayBeUnassigned(in.readBoolean());
+                return inc;
+            }
+            case BINARY: {
+                Operator operator = readOperator();
+                ExpressionNode left = readExpression();
+                return new BinaryExpression(left, operator, readExpression());
+            }
+            case UNARY: {
+                Operator operator = readOperator();
+                return new UnaryExpression(operator, readExpression());
+            }
+            case TERNARY:
+                return new TernaryExpression(readExpression(), readExpression(), readExpression());
+            case CALL:
+                return new FunctionCall(readString(), readExpressions());
+            case METHOD_CALL:
+                return new MethodCall(readExpression(), readString(), readExpressions());
+            case LIST:
+                return new ListLiteral(readExpressions());
+            case COLLECTION:
+                return new CollectionLiteral(readCollectionKind(), readExpressions());
+            case INDEX:
+                return new IndexExpression(readExpression(), readExpression());
+            case PROPERTY:
+                return new PropertyAccess(readExpression(), readString());
+            case PROPERTY_ASSIGN: {
+                ExpressionNode target = readExpression();
+                String property = readString();
+                Operator operator = readOperator();
+                return new PropertyAssignment(target, property, operator, readExpression());
+            }
+            case NEW:
+                return new NewObjectExpression(readString(), readExpressions());
+            case THIS:
+                return new ThisExpression();
+            case IDENTIFIER:
+                return new Identifier(readString());
+            default:
+                throw new IOException("Unknown expression tag " + tag);
+        }
+    }
+
+    private Object readConstant() throws IOException {
+        int tag = in.readUnsignedByte();
+        return switch (tag) {
+            case NULL -> null;
+            case INT -> in.readInt();
+            case DOUBLE -> in.readDouble();
+            case STRING -> readString();
+            case BOOLEAN -> in.readBoolean();
+            default -> throw new IOException("Unknown constant tag " + tag);
+        };
+    }
+
+    private CollectionLiteral.Kind readCollectionKind() throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= COLLECTION_KINDS.length) {
+            throw new IOException("Unknown collection kind " + ordinal);
+        }
+        return COLLECTION_KINDS[ordinal];
+    }
+
+    /**
+     * Reads a length or count whose items take at least {@code minBytes}
+     * each, rejecting one the rest of the data cannot hold. Negative counts
+     * are passed through; list readers use them for null.
+     */
+    private int readCount(int minBytes) throws IOException {
+        int count = in.readInt();
+        if (count > in.available() / minBytes) {
+            throw new IOException("Bad count " + count);
+        }
+        return count;
+    }
+
+    private Operator readOperator() throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= OPERATORS.length) {
+            throw new IOException("Unknown operator " + ordinal);
+        }
+        return OPERATORS[ordinal];
+    }
+
+    private List<StatementNode> readStatements() throws IOException {
+        int count = readCount(1);
+        if (count < 0) {
+            return null;
+        }
+        List<StatementNode> statements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            statements.add(readStatement());
+        }
+        return statements;
+    }
+
+    private List<ExpressionNode> readExpressions() throws IOException {
+        int count = readCount(1);
+        if (count < 0) {
+            return null;
+        }
+        List<ExpressionNode> expressions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expressions.add(readExpression());
+        }
+        return expressions;
+    }
+
+    private String readString() throws IOException {
+        int index = in.readInt();
+        if (index == -2) {
+            return null;
+        }
+        if (index == -1) {
+            byte[] bytes = new byte[readCount(1)];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+        if (index < 0 || index >= strings.size()) {
+            throw new IOException("Bad string index " + index);
+        }
+        return strings.get(index);
+    }
+}
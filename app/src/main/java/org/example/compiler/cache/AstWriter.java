@@ -0,0 +1,303 @@
+package org.example.compiler.cache;
+
+import org.example.compiler.ast.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a resolved class tree in the {@code .oakc} format: one tag byte
+ * per node followed by its fields, with every string written once and
+ * referred to by index afterwards. Slots and frame layouts filled in by
+ * the resolver are written too, so a loaded tree can run as is.
+ */
+final class AstWriter {
+    // Statements
+    static final int CLASS = 1;
+    static final int FUNCTION = 2;
+    static final int VAR = 3;
+    static final int PRINT = 4;
+    static final int EXPRESSION_STATEMENT = 5;
+    static final int RETURN = 6;
+    static final int IF = 7;
+    static final int WHILE = 8;
+    static final int FOR = 9;
+    static final int FOR_IN = 10;
+    static final int FOR_EACH = 11;
+    static final int BREAK = 12;
+    static final int CONTINUE = 13;
+
+    // Expressions
+    static final int INT = 32;
+    static final int DOUBLE = 33;
+    static final int STRING = 34;
+    static final int BOOLEAN = 35;
+    static final int VARIABLE = 36;
+    static final int ASSIGN = 37;
+    static final int COMPOUND_ASSIGN = 38;
+    static final int INCREMENT = 39;
+    static final int BINARY = 40;
+    static final int UNARY = 41;
+    static final int TERNARY = 42;
+    static final int CALL = 43;
+    static final int METHOD_CALL = 44;
+    static final int LIST = 45;
+    static final int INDEX = 46;
+    static final int PROPERTY = 47;
+    static final int NEW = 48;
+    static final int THIS = 49;
+    static final int IDENTIFIER = 50;
+    static final int LITERAL = 51;
+    static final int PROPERTY_ASSIGN = 52;
+    static final int COLLECTION = 53;
+
+    static final int NULL = 0;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    AstWriter(DataOutputStream out) {
+        this.out = out;
+    }
+
+    void writeStatement(StatementNode stmt) throws IOException {
+        if (stmt == null) {
+            out.writeByte(NULL);
+        } else if (stmt instanceof ClassDeclaration cls) {
+            out.writeByte(CLASS);
+            writeString(cls.name());
+            writeStatements(cls.body());
+        } else if (stmt instanceof FunctionDeclaration func) {
+            out.writeByte(FUNCTION);
+            writeString(func.name());
+            out.writeInt(func.parameters().size());
+            for (String param : func.parameters()) {
+                writeString(param);
+            }
+            out.writeInt(func.localNames().length);
+            for (String local : func.localNames()) {
+                writeString(local);
+            }
+            out.writeBoolean(func.readsUnassigned());
+            writeStatements(func.body());
+        } else if (stmt instanceof VarDeclaration varDecl) {
+            out.writeByte(VAR);
+            writeString(varDecl.name());
+            out.writeInt(varDecl.slot());
+            writeExpression(varDecl.value());
+        } else if (stmt instanceof PrintStatement printStmt) {
+            out.writeByte(PRINT);
+            writeExpression(printStmt.expression());
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            out.writeByte(EXPRESSION_STATEMENT);
+            writeExpression(exprStmt.expression());
+        } else if (stmt instanceof ReturnStatement ret) {
+            out.writeByte(RETURN);
+            writeExpression(ret.value());
+        } else if (stmt instanceof IfStatement ifStmt) {
+            out.writeByte(IF);
+            writeExpression(ifStmt.getCondition());
+            writeStatements(ifStmt.getThenBranch());
+            List<ElseIfBranch> elseIfs = ifStmt.getElseIfBranches();
+            out.writeInt(elseIfs == null ? -1 : elseIfs.size());
+            if (elseIfs != null) {
+                for (ElseIfBranch elseIf : elseIfs) {
+                    writeExpression(elseIf.getCondition());
+                    writeStatements(elseIf.getBody());
+                }
+            }
+            writeStatements(ifStmt.getElseBranch());
+        } else if (stmt instanceof WhileStatement whileStmt) {
+            out.writeByte(WHILE);
+            writeExpression(whileStmt.getCondition());
+            writeStatements(whileStmt.getBody());
+        } else if (stmt instanceof ForStatement forStmt && forStmt.isForEach()) {
+            out.writeByte(FOR_IN);
+            writeString(forStmt.getVarName());
+            out.writeInt(forStmt.getSlot());
+            writeExpression(forStmt.getIterable());
+            writeStatements(forStmt.getBody());
+        } else if (stmt instanceof ForStatement forStmt) {
+            out.writeByte(FOR);
+            writeStatement(forStmt.getInit());
+            writeExpression(forStmt.getCondition());
+            writeExpression(forStmt.getIncrement());
+            writeStatements(forStmt.getBody());
+        } else if (stmt instanceof ForEachStatement forEach) {
+            out.writeByte(FOR_EACH);
+            writeString(forEach.getVariableName());
+            out.writeInt(forEach.getSlot());
+            writeExpression(forEach.getIterable());
+            writeStatements(forEach.getBody());
+        } else if (stmt instanceof BreakStatement) {
+            out.writeByte(BREAK);
+        } else if (stmt instanceof ContinueStatement) {
+            out.writeByte(CONTINUE);
+        } else {
+            throw new IOException("Cannot cache statement: " + stmt.getClass().getSimpleName());
+        }
+    }
+
+    void writeExpression(ExpressionNode expr) throws IOException {
+        if (expr == null) {
+            out.writeByte(NULL);
+        } else if (expr instanceof NumberLiteral num) {
+            writeConstant(num.value);
+        } else if (expr instanceof StringLiteral str) {
+            out.writeByte(STRING);
+            writeString(str.value);
+        } else if (expr instanceof BooleanLiteral bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool.value);
+        } else if (expr instanceof Literal literal) {
+            out.writeByte(LITERAL);
+            if (literal.value == null) {
+                out.writeByte(NULL);
+            } else if (literal.value instanceof Number number) {
+                writeConstant(number);
+            } else if (literal.value instanceof String str) {
+                out.writeByte(STRING);
+                writeString(str);
+            } else if (literal.value instanceof Boolean bool) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(bool);
+            } else {
+                throw new IOException("Cannot cache literal: " + literal.value.getClass().getSimpleName());
+            }
+        } else if (expr instanceof VariableReference ref) {
+            out.writeByte(VARIABLE);
+            writeString(ref.name());
+            out.writeInt(ref.slot());
+            out.writeBoolean(ref.mayBeUnassigned());
+        } else if (expr instanceof AssignmentExpression assign) {
+            out.writeByte(ASSIGN);
+            writeString(assign.name());
+            out.writeByte(assign.operator().ordinal());
+            out.writeBoolean(assign.isCompound());
+            out.writeInt(assign.slot());
+            out.writeBoolean(assign.mayBeUnassigned());
+            writeExpression(assign.right());
+        } else if (expr instanceof CompoundAssignmentExpression compound) {
+            out.writeByte(COMPOUND_ASSIGN);
+            writeString(compound.variableName);
+            out.writeByte(compound.operator.ordinal());
+            out.writeInt(compound.slot());
+            out.writeBoolean(compound.mayBeUnassigned());
+            writeExpression(compound.value);
+        } else if (expr instanceof IncrementExpression inc) {
+            out.writeByte(INCREMENT);
+            writeString(inc.variableName());
+            out.writeByte(inc.operator().ordinal());
+            out.writeBoolean(inc.isPrefix());
+            out.writeInt(inc.slot());
+            out.writeBoolean(inc.mayBeUnassigned());
+        } else if (expr instanceof BinaryExpression binary) {
+            out.writeByte(BINARY);
+            out.writeByte(binary.operator.ordinal());
+            writeExpression(binary.left);
+            writeExpression(binary.right);
+        } else if (expr instanceof UnaryExpression unary) {
+            out.writeByte(UNARY);
+            out.writeByte(unary.operator.ordinal());
+            writeExpression(unary.operand);
+        } else if (expr instanceof TernaryExpression ternary) {
+            out.writeByte(TERNARY);
+            writeExpression(ternary.condition);
+            writeExpression(ternary.trueExpr);
+            writeExpression(ternary.falseExpr);
+        } else if (expr instanceof FunctionCall call) {
+            out.writeByte(CALL);
+            writeString(call.functionName());
+            writeExpressions(call.arguments());
+        } else if (expr instanceof MethodCall call) {
+            out.writeByte(METHOD_CALL);
+            writeExpression(call.target);
+            writeString(call.methodName);
+            writeExpressions(call.arguments);
+        } else if (expr instanceof ListLiteral list) {
+            out.writeByte(LIST);
+            writeExpressions(list.elements);
+        } else if (expr instanceof CollectionLiteral collection) {
+            out.writeByte(COLLECTION);
+            out.writeByte(collection.kind.ordinal());
+            writeExpressions(collection.elements);
+        } else if (expr instanceof IndexExpression index) {
+            out.writeByte(INDEX);
+            writeExpression(index.getTarget());
+            writeExpression(index.getIndex());
+        } else if (expr instanceof PropertyAccess access) {
+            out.writeByte(PROPERTY);
+            writeExpression(access.target);
+            writeString(access.property);
+        } else if (expr instanceof PropertyAssignment assign) {
+            out.writeByte(PROPERTY_ASSIGN);
+            writeExpression(assign.target);
+            writeString(assign.property);
+            out.writeByte(assign.operator.ordinal());
+            writeExpression(assign.value);
+        } else if (expr instanceof NewObjectExpression newExpr) {
+            out.writeByte(NEW);
+            writeString(newExpr.getClassName());
+            writeExpressions(newExpr.getArguments());
+        } else if (expr instanceof ThisExpression) {
+            out.writeByte(THIS);
+        } else if (expr instanceof Identifier ident) {
+            out.writeByte(IDENTIFIER);
+            writeString(ident.name());
+        } else {
+            throw new IOException("Cannot cache expression: " + expr.getClass().getSimpleName());
+        }
+    }
+
+    private void writeConstant(Number number) throws IOException {
+        if (number instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if (number instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else {
+            throw new IOException("Cannot cache number: " + number.getClass().getSimpleName());
+        }
+    }
+
+    private void writeStatements(List<StatementNode> statements) throws IOException {
+        out.writeInt(statements == null ? -1 : statements.size());
+        if (statements != null) {
+            for (StatementNode stmt : statements) {
+                writeStatement(stmt);
+            }
+        }
+    }
+
+    private void writeExpressions(List<ExpressionNode> expressions) throws IOException {
+        out.writeInt(expressions == null ? -1 : expressions.size());
+        if (expressions != null) {
+            for (ExpressionNode expr : expressions) {
+                writeExpression(expr);
+            }
+        }
+    }
+
+    /** First use writes the text; later uses write its index. */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-2);
+            return;
+        }
+        Integer index = strings.get(value);
+        if (index != null) {
+            out.writeInt(index);
+            return;
+        }
+        strings.put(value, strings.size());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(-1);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.compiler.cache;
+
+import org.example.compiler.ast.ClassDeclaration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the resolved (and possibly folded) classes of a script in a
+ * {@code .oakc} file so the next run can skip lexing and parsing. The file
+ * sits next to the script, or in {@code -Doak.cache.dir} when set, and
+ * starts with the format version and a SHA-256 of the source, and ends
+ * with a CRC-32 of the tree in between; any mismatch or damage is treated
+ * as a miss.
+ */
+public final class ProgramCache {
+    private static final int MAGIC = 0x4F414B43; // "OAKC"
+    private static final int FORMAT_VERSION = 8; // bump whenever the AST, Operator or AstWriter changes
+    private static final String CACHE_DIR = System.getProperty("oak.cache.dir");
+
+    private final Path file;
+    private final byte[] key;
+
+    private ProgramCache(Path file, byte[] key) {
+        this.file = file;
+        this.key = key;
+    }
+
+    /**
+     * @param source the script's path
+     * @param code   the script's bytes
+     * @param folded whether the cached tree went through constant folding
+     */
+    public static ProgramCache forSource(Path source, ByteBuffer code, boolean folded) {
+        byte[] key;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(code.duplicate());
+            digest.update((byte) (folded ? 1 : 0));
+            key = digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        Path file = CACHE_DIR != null
+                ? Path.of(CACHE_DIR, HexFormat.of().formatHex(key) + ".oakc")
+                : source.resolveSibling(source.getFileName() + "c");
+        return new ProgramCache(file, key);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /** Returns the cached classes, or null if there are none for this source. */
+    public List<ClassDeclaration> load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            byte[] data = Files.readAllBytes(file);
+            int header = 2 * Integer.BYTES + key.length;
+            if (data.length < header + 2 * Integer.BYTES) {
+                return null;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, data.length - Integer.BYTES));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            byte[] stored = new byte[key.length];
+            in.readFully(stored);
+            if (!Arrays.equals(stored, key)) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, header, data.length - Integer.BYTES - header);
+            if ((int) crc.getValue() != ByteBuffer.wrap(data, data.length - Integer.BYTES, Integer.BYTES).getInt()) {
+                return null;
+            }
+            AstReader reader = new AstReader(in);
+            int count = in.readInt();
+            List<ClassDeclaration> classes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                if (!(reader.readStatement() instanceof ClassDeclaration cls)) {
+                    return null;
+                }
+                classes.add(cls);
+            }
+            return classes;
+        } catch (IOException | RuntimeException | StackOverflowError e) {
+            return null; // unreadable or corrupt: recompile
+        }
+    }
+
+    /** Writes the classes; failures only mean the next run parses again. */
+    public void store(List<ClassDeclaration> classes) {
+        Path temp = null;
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            ByteArrayOutputStream tree = new ByteArrayOutputStream();
+            DataOutputStream treeOut = new DataOutputStream(tree);
+            AstWriter writer = new AstWriter(treeOut);
+            treeOut.writeInt(classes.size());
+            for (ClassDeclaration cls : classes) {
+                writer.writeStatement(cls);
+            }
+            byte[] treeBytes = tree.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(treeBytes);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(treeBytes.length + 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.write(key);
+            out.write(treeBytes);
+            out.writeInt((int) crc.getValue());
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+        } catch (IOException | RuntimeException e) {
+            // not cacheable here (read-only directory, unsupported node); run uncached
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
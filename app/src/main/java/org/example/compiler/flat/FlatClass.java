@@ -0,0 +1,22 @@
+package org.example.compiler.flat;
+
+import org.example.compiler.ast.ClassDeclaration;
+
+import java.util.Map;
+
+/**
+ * A class of a {@link FlatTree}. The declaration is an empty stand-in that
+ * only names the class for {@link org.example.compiler.ast.ObjectInstance}s,
+ * so the parsed bodies can be dropped once the program is encoded.
+ */
+final class FlatClass {
+    final ClassDeclaration declaration;
+    final Map<String, FlatFunction> methods;
+    final FlatFunction constructor;
+
+    FlatClass(ClassDeclaration declaration, Map<String, FlatFunction> methods) {
+        this.declaration = declaration;
+        this.methods = methods;
+        this.constructor = methods.get(declaration.name());
+    }
+}
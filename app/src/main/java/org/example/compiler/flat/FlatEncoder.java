@@ -0,0 +1,340 @@
+package org.example.compiler.flat;
+
+import org.example.compiler.ast.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.example.compiler.flat.FlatTree.*;
+
+/**
+ * Encodes resolved class declarations into a {@link FlatTree}. Each node is
+ * opened before its children are encoded and closed after them, which
+ * records the span of its subtree.
+ */
+public class FlatEncoder {
+    private byte[] kind = new byte[256];
+    private int[] operand = new int[256];
+    private int[] size = new int[256];
+    private int nodes;
+    private final List<Object> constants = new ArrayList<>();
+    private final Map<Object, Integer> constantIndex = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+    private final List<String> siteNames = new ArrayList<>();
+    private final List<String> propertyNames = new ArrayList<>();
+    private int loopDepth;
+
+    public FlatTree encode(List<StatementNode> programBody) {
+        Map<String, FlatClass> classes = new LinkedHashMap<>();
+        for (StatementNode stmt : programBody) {
+            if (stmt instanceof ClassDeclaration cls) {
+                Map<String, FlatFunction> methods = new HashMap<>();
+                for (StatementNode member : cls.body()) {
+                    // first declaration wins, as in MethodTable
+                    if (member instanceof FunctionDeclaration func && !methods.containsKey(func.name())) {
+                        int body = nodes;
+                        encodeBlock(func.body());
+                        methods.put(func.name(),
+                                new FlatFunction(func.name(), func.parameters().size(), func.frameSize(), body,
+                                        func.readsUnassigned()));
+                    }
+                }
+                ClassDeclaration declaration = new ClassDeclaration(cls.name(), List.of());
+                classes.put(cls.name(), new FlatClass(declaration, Map.copyOf(methods)));
+            }
+        }
+        return new FlatTree(Arrays.copyOf(kind, nodes), Arrays.copyOf(operand, nodes), Arrays.copyOf(size, nodes),
+                constants.toArray(), names.toArray(new String[0]), classes, siteNames.toArray(new String[0]),
+                propertyNames.toArray(new String[0]));
+    }
+
+    // ---- Statements ----
+
+    private void encodeBlock(List<StatementNode> statements) {
+        int node = open(BLOCK, 0);
+        for (StatementNode stmt : statements) {
+            encodeStatement(stmt);
+        }
+        close(node);
+    }
+
+    private void encodeLoopBody(List<StatementNode> body) {
+        loopDepth++;
+        encodeBlock(body);
+        loopDepth--;
+    }
+
+    private void encodeStatement(StatementNode stmt) {
+        if (stmt instanceof VarDeclaration varDecl) {
+            int node = open(STORE, varDecl.slot());
+            encodeExpression(varDecl.value());
+            close(node);
+        } else if (stmt instanceof PrintStatement printStmt) {
+            int node = open(PRINT, 0);
+            encodeExpression(printStmt.expression());
+            close(node);
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            encodeExpression(exprStmt.expression());
+        } else if (stmt instanceof ReturnStatement ret) {
+            int node = open(RETURN, 0);
+            if (ret.value() != null) {
+                encodeExpression(ret.value());
+            }
+            close(node);
+        } else if (stmt instanceof IfStatement ifStmt) {
+            int node = open(IF, 0);
+            encodeExpression(ifStmt.getCondition());
+            encodeBlock(ifStmt.getThenBranch());
+            if (ifStmt.getElseIfBranches() != null) {
+                for (ElseIfBranch elseIf : ifStmt.getElseIfBranches()) {
+                    encodeExpression(elseIf.getCondition());
+                    encodeBlock(elseIf.getBody());
+                }
+            }
+            if (ifStmt.getElseBranch() != null) {
+                encodeBlock(ifStmt.getElseBranch());
+            }
+            close(node);
+        } else if (stmt instanceof WhileStatement whileStmt) {
+            int node = open(WHILE, 0);
+            encodeExpression(whileStmt.getCondition());
+            encodeLoopBody(whileStmt.getBody());
+            close(node);
+        } else if (stmt instanceof ForStatement forStmt) {
+            if (forStmt.isForEach()) {
+                encodeForEach(forStmt.getSlot(), forStmt.getIterable(), forStmt.getBody());
+                return;
+            }
+            int node = open(FOR, 0);
+            if (forStmt.getInit() == null) {
+                leaf(EMPTY, 0);
+            } else {
+                encodeStatement(forStmt.getInit());
+            }
+            encodeOptional(forStmt.getCondition());
+            encodeOptional(forStmt.getIncrement());
+            encodeLoopBody(forStmt.getBody());
+            close(node);
+        } else if (stmt instanceof ForEachStatement forEachStmt) {
+            encodeForEach(forEachStmt.getSlot(), forEachStmt.getIterable(), forEachStmt.getBody());
+        } else if (stmt instanceof BreakStatement) {
+            if (loopDepth > 0) {
+                leaf(BREAK, 0);
+            } else {
+                fail("'break' outside of a loop");
+            }
+        } else if (stmt instanceof ContinueStatement) {
+            if (loopDepth > 0) {
+                leaf(CONTINUE, 0);
+            } else {
+                fail("'continue' outside of a loop");
+            }
+        } else {
+            throw new RuntimeException("Unsupported statement: " + stmt.getClass().getSimpleName());
+        }
+    }
+
+    private void encodeForEach(int slot, ExpressionNode iterable, List<StatementNode> body) {
+        int node = open(FOREACH, slot);
+        encodeExpression(iterable);
+        encodeLoopBody(body);
+        close(node);
+    }
+
+    // ---- Expressions ----
+
+    private void encodeExpression(ExpressionNode expr) {
+        if (expr instanceof BooleanLiteral bool) {
+            leaf(CONST, constant(bool.value));
+        } else if (expr instanceof NumberLiteral number) {
+            leaf(CONST, constant(number.value));
+        } else if (expr instanceof StringLiteral string) {
+            leaf(CONST, constant(string.value));
+        } else if (expr instanceof VariableReference varRef) {
+            if (varRef.slot() < 0) {
+                fail("Undefined variable: " + varRef.name());
+            } else {
+                int check = openCheck(varRef.mayBeUnassigned(), varRef.slot(), varRef.name());
+                leaf(LOCAL, varRef.slot());
+                closeCheck(check);
+            }
+        } else if (expr instanceof Identifier ident) {
+            fail("Undefined variable: " + ident.name());
+        } else if (expr instanceof BinaryExpression binExpr) {
+            int node = open(BINARY, binExpr.operator.ordinal());
+            encodeExpression(binExpr.left);
+            encodeExpression(binExpr.right);
+            close(node);
+        } else if (expr instanceof UnaryExpression unary) {
+            int node = open(UNARY, unary.operator.ordinal());
+            encodeExpression(unary.operand);
+            close(node);
+        } else if (expr instanceof IncrementExpression inc) {
+            if (inc.slot() < 0) {
+                fail("Undefined variable: " + inc.variableName());
+            } else {
+                int check = openCheck(inc.mayBeUnassigned(), inc.slot(), inc.variableName());
+                int decrement = inc.operator() == Operator.INCREMENT ? 0 : 1;
+                leaf(INC, inc.slot() << 2 | decrement << 1 | (inc.isPrefix() ? 1 : 0));
+                closeCheck(check);
+            }
+        } else if (expr instanceof AssignmentExpression assign) {
+            if (assign.slot() < 0) {
+                fail("Variable '" + assign.name() + "' is not declared");
+            } else {
+                int check = openCheck(assign.mayBeUnassigned(), assign.slot(), assign.name());
+                int node = assign.isCompound()
+                        ? open(COMPOUND, assign.slot() << 8 | assign.operator().ordinal())
+                        : open(STORE, assign.slot());
+                encodeExpression(assign.right());
+                close(node);
+                closeCheck(check);
+            }
+        } else if (expr instanceof CompoundAssignmentExpression compoundAssign) {
+            if (compoundAssign.slot() < 0) {
+                fail("Variable '" + compoundAssign.variableName + "' is not declared");
+            } else {
+                int check = openCheck(compoundAssign.mayBeUnassigned(), compoundAssign.slot(),
+                        compoundAssign.variableName);
+                int node = open(COMPOUND, compoundAssign.slot() << 8 | compoundAssign.operator.ordinal());
+                encodeExpression(compoundAssign.value);
+                close(node);
+                closeCheck(check);
+            }
+        } else if (expr instanceof FunctionCall funcCall) {
+            int node = open(CALL, site(funcCall.functionName()));
+            encodeExpressions(funcCall.arguments());
+            close(node);
+        } else if (expr instanceof MethodCall methodCall) {
+            int node = open(INVOKE, site(methodCall.methodName));
+            encodeExpression(methodCall.target);
+            encodeExpressions(methodCall.arguments);
+            close(node);
+        } else if (expr instanceof NewObjectExpression newExpr) {
+            int node = open(NEW, name(newExpr.getClassName()));
+            encodeExpressions(newExpr.getArguments());
+            close(node);
+        } else if (expr instanceof ListLiteral listLiteral) {
+            int node = open(LIST, 0);
+            encodeExpressions(listLiteral.elements);
+            close(node);
+        } else if (expr instanceof CollectionLiteral collection) {
+            int node = open(COLLECTION, collection.kind.ordinal());
+            encodeExpressions(collection.elements);
+            close(node);
+        } else if (expr instanceof ThisExpression) {
+            leaf(THIS, 0);
+        } else if (expr instanceof IndexExpression indexExpr) {
+            int node = open(INDEX, 0);
+            encodeExpression(indexExpr.getTarget());
+            encodeExpression(indexExpr.getIndex());
+            close(node);
+        } else if (expr instanceof PropertyAccess propAccess) {
+            int node = open(PROPERTY, propertySite(propAccess.property));
+            encodeExpression(propAccess.target);
+            close(node);
+        } else if (expr instanceof PropertyAssignment assign) {
+            int site = propertySite(assign.property);
+            propertySite(assign.property);
+            int node = open(SET_PROPERTY, site << 8 | assign.operator.ordinal());
+            encodeExpression(assign.target);
+            encodeExpression(assign.value);
+            close(node);
+        } else if (expr instanceof TernaryExpression ternary) {
+            int node = open(TERNARY, 0);
+            encodeExpression(ternary.condition);
+            encodeExpression(ternary.trueExpr);
+            encodeExpression(ternary.falseExpr);
+            close(node);
+        } else {
+            throw new RuntimeException("Unsupported expression: " + expr.getClass().getSimpleName());
+        }
+    }
+
+    private void encodeExpressions(List<ExpressionNode> expressions) {
+        if (expressions != null) {
+            for (ExpressionNode expr : expressions) {
+                encodeExpression(expr);
+            }
+        }
+    }
+
+    private void encodeOptional(ExpressionNode expr) {
+        if (expr == null) {
+            leaf(EMPTY, 0);
+        } else {
+            encodeExpression(expr);
+        }
+    }
+
+    // ---- Column helpers ----
+
+    private void fail(String message) {
+        leaf(FAIL, name(message));
+    }
+
+    /** Opens a CHECK around the access that follows, or returns -1 when the slot is known to be assigned. */
+    private int openCheck(boolean mayBeUnassigned, int slot, String variable) {
+        if (!mayBeUnassigned) {
+            return -1;
+        }
+        int node = open(CHECK, name("Undefined variable: " + variable));
+        leaf(LOCAL, slot);
+        return node;
+    }
+
+    private void closeCheck(int node) {
+        if (node >= 0) {
+            close(node);
+        }
+    }
+
+    private void leaf(byte nodeKind, int nodeOperand) {
+        close(open(nodeKind, nodeOperand));
+    }
+
+    private int open(byte nodeKind, int nodeOperand) {
+        if (nodes == kind.length) {
+            int capacity = nodes * 2;
+            kind = Arrays.copyOf(kind, capacity);
+            operand = Arrays.copyOf(operand, capacity);
+            size = Arrays.copyOf(size, capacity);
+        }
+        kind[nodes] = nodeKind;
+        operand[nodes] = nodeOperand;
+        return nodes++;
+    }
+
+    private void close(int node) {
+        size[node] = nodes - node;
+    }
+
+    private int constant(Object value) {
+        return constantIndex.computeIfAbsent(value, v -> {
+            constants.add(v);
+            return constants.size() - 1;
+        });
+    }
+
+    private int name(String value) {
+        return nameIndex.computeIfAbsent(value, v -> {
+            names.add(v);
+            return names.size() - 1;
+        });
+    }
+
+    private int site(String methodName) {
+        siteNames.add(methodName);
+        return siteNames.size() - 1;
+    }
+
+    private int propertySite(String property) {
+        propertyNames.add(property);
+        return propertyNames.size() - 1;
+    }
+}
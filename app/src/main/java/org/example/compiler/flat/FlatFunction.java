@@ -0,0 +1,18 @@
+package org.example.compiler.flat;
+
+/** One method of a {@link FlatTree}: its signature and the index of its body block. */
+final class FlatFunction {
+    final String name;
+    final int paramCount;
+    final int frameSize;
+    final int body;
+    final boolean readsUnassigned;
+
+    FlatFunction(String name, int paramCount, int frameSize, int body, boolean readsUnassigned) {
+        this.name = name;
+        this.paramCount = paramCount;
+        this.frameSize = frameSize;
+        this.body = body;
+        this.readsUnassigned = readsUnassigned;
+    }
+}
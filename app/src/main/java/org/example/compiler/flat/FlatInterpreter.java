@@ -0,0 +1,377 @@
+package org.example.compiler.flat;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.CollectionLiteral;
+import org.example.compiler.ast.ObjectInstance;
+import org.example.compiler.ast.Operator;
+import org.example.compiler.interpreter.Builtins;
+import org.example.compiler.interpreter.MethodCaller;
+import org.example.compiler.interpreter.OakList;
+import org.example.compiler.interpreter.Operators;
+import org.example.compiler.interpreter.Utility;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.example.compiler.flat.FlatTree.*;
+
+/**
+ * Walks a {@link FlatTree} directly: each node is a switch on its kind
+ * column, and children are reached by skipping over their siblings' spans.
+ * Statements report how they completed, as in the tree interpreter.
+ */
+public class FlatInterpreter implements MethodCaller {
+    private static final Operator[] OPERATORS = Operator.values();
+    private static final CollectionLiteral.Kind[] COLLECTION_KINDS = CollectionLiteral.Kind.values();
+
+    private static final int NORMAL = 0;
+    private static final int BREAK_LOOP = 1;
+    private static final int CONTINUE_LOOP = 2;
+    private static final int RETURNED = 3;
+
+    private final FlatTree tree;
+    private final byte[] kind;
+    private final int[] operand;
+    private final int[] size;
+
+    /** Locals and receiver of one method activation. */
+    private static final class Frame {
+        final Object[] locals;
+        final ClassDeclaration cls;
+        final ObjectInstance self;
+        Object result;
+
+        Frame(Object[] locals, ClassDeclaration cls, ObjectInstance self) {
+            this.locals = locals;
+            this.cls = cls;
+            this.self = self;
+        }
+    }
+
+    public FlatInterpreter(FlatTree tree) {
+        this.tree = tree;
+        this.kind = tree.kind;
+        this.operand = tree.operand;
+        this.size = tree.size;
+    }
+
+    public void executeProgram() {
+        for (FlatClass cls : tree.classes.values()) {
+            FlatFunction main = cls.methods.get("main");
+            if (main != null) {
+                call(main, new Object[0], cls.declaration, null);
+                return;
+            }
+        }
+        throw new RuntimeException("No main method found in any class");
+    }
+
+    private Object call(FlatFunction fn, Object[] args, ClassDeclaration cls, ObjectInstance self) {
+        if (args.length != fn.paramCount) {
+            throw new RuntimeException(
+                    "Function " + fn.name + " expects " + fn.paramCount + " arguments but got " + args.length);
+        }
+        Object[] locals = fn.frameSize > args.length ? Arrays.copyOf(args, fn.frameSize) : args;
+        if (fn.readsUnassigned) {
+            Arrays.fill(locals, args.length, fn.frameSize, Utility.UNASSIGNED);
+        }
+        Frame frame = new Frame(locals, cls, self);
+        return execute(fn.body, frame) == RETURNED ? frame.result : null;
+    }
+
+    @Override
+    public Object callMethod(ClassDeclaration cls, ObjectInstance self, String name, Object[] args) {
+        FlatFunction fn = classNamed(cls.name()).methods.get(name);
+        if (fn == null) {
+            throw new RuntimeException("Method " + name + " not found in class " + cls.name());
+        }
+        return call(fn, args, cls, self);
+    }
+
+    private FlatClass classNamed(String name) {
+        FlatClass cls = tree.classes.get(name);
+        if (cls == null) {
+            throw new RuntimeException("Class not found: " + name);
+        }
+        return cls;
+    }
+
+    private FlatFunction lookup(int site, ClassDeclaration receiver) {
+        if (tree.siteKeys[site] == receiver) {
+            return tree.siteTargets[site];
+        }
+        String name = tree.siteNames[site];
+        FlatFunction fn = classNamed(receiver.name()).methods.get(name);
+        if (fn == null) {
+            throw new RuntimeException("Method " + name + " not found in class " + receiver.name());
+        }
+        tree.siteKeys[site] = receiver;
+        tree.siteTargets[site] = fn;
+        return fn;
+    }
+
+    // ---- Statements ----
+
+    private int execute(int node, Frame frame) {
+        switch (kind[node]) {
+            case BLOCK -> {
+                for (int child = node + 1, end = node + size[node]; child < end; child += size[child]) {
+                    int status = execute(child, frame);
+                    if (status != NORMAL) {
+                        return status;
+                    }
+                }
+                return NORMAL;
+            }
+            case PRINT -> {
+                System.out.println(Utility.valueToString(evaluate(node + 1, frame)));
+                return NORMAL;
+            }
+            case RETURN -> {
+                frame.result = size[node] == 1 ? null : evaluate(node + 1, frame);
+                return RETURNED;
+            }
+            case IF -> {
+                int end = node + size[node];
+                int child = node + 1;
+                for (boolean elseIf = false; child < end; elseIf = true) {
+                    int block = child + size[child];
+                    if (block == end) {
+                        break; // only the else block is left
+                    }
+                    if (!(evaluate(child, frame) instanceof Boolean cond)) {
+                        throw new RuntimeException(elseIf
+                                ? "Else-if condition must evaluate to a boolean"
+                                : "Condition must evaluate to a boolean");
+                    }
+                    if (cond) {
+                        return execute(block, frame);
+                    }
+                    child = block + size[block];
+                }
+                return child < end ? execute(child, frame) : NORMAL;
+            }
+            case WHILE -> {
+                int condition = node + 1;
+                int body = condition + size[condition];
+                while (Utility.isTruthy(evaluate(condition, frame))) {
+                    Utility.checkInterrupted();
+                    int status = execute(body, frame);
+                    if (status == BREAK_LOOP) {
+                        break;
+                    } else if (status == RETURNED) {
+                        return RETURNED;
+                    }
+                }
+                return NORMAL;
+            }
+            case FOR -> {
+                int init = node + 1;
+                int condition = init + size[init];
+                int increment = condition + size[condition];
+                int body = increment + size[increment];
+                execute(init, frame);
+                while (kind[condition] == EMPTY || Utility.isTruthy(evaluate(condition, frame))) {
+                    Utility.checkInterrupted();
+                    int status = execute(body, frame);
+                    if (status == BREAK_LOOP) {
+                        break;
+                    } else if (status == RETURNED) {
+                        return RETURNED;
+                    }
+                    evaluate(increment, frame);
+                }
+                return NORMAL;
+            }
+            case FOREACH -> {
+                int iterable = node + 1;
+                int body = iterable + size[iterable];
+                Iterator<?> it = iterator(evaluate(iterable, frame));
+                while (it.hasNext()) {
+    Utility.checkInterrupted();
+                    frame.locals[operand[node]] = it.next();
+                    int status = execute(body, frame);
+                    if (status == BREAK_LOOP) {
+                        break;
+                    } else if (status == RETURNED) {
+                        return RETURNED;
+                    }
+                }
+                return NORMAL;
+            }
+            case BREAK -> {
+                return BREAK_LOOP;
+            }
+            case CONTINUE -> {
+                return CONTINUE_LOOP;
+            }
+            default -> {
+                evaluate(node, frame);
+                return NORMAL;
+            }
+        }
+    }
+
+    // ---- Expressions ----
+
+    private Object evaluate(int node, Frame frame) {
+        switch (kind[node]) {
+            case CONST -> {
+                return tree.constants[operand[node]];
+            }
+            case LOCAL -> {
+                return frame.locals[operand[node]];
+            }
+            case STORE -> {
+                Object value = evaluate(node + 1, frame);
+                frame.locals[operand[node]] = value;
+                return value;
+            }
+            case COMPOUND -> {
+                Object value = evaluate(node + 1, frame);
+                int slot = operand[node] >>> 8;
+                Object result = Operators.compound(OPERATORS[operand[node] & 0xFF], frame.locals[slot], value);
+                frame.locals[slot] = result;
+                return result;
+            }
+            case INC -> {
+                int slot = operand[node] >>> 2;
+                if (!(frame.locals[slot] instanceof Integer value)) {
+                    throw new RuntimeException("Can only increment/decrement integers");
+                }
+                int newVal = (operand[node] & 2) != 0 ? value - 1 : value + 1;
+                frame.locals[slot] = newVal;
+                return (operand[node] & 1) != 0 ? (Object) newVal : value;
+            }
+            case BINARY -> {
+                int right = node + 1 + size[node + 1];
+                Object a = evaluate(node + 1, frame);
+                Object b = evaluate(right, frame);
+                Operator op = OPERATORS[operand[node]];
+                if (a instanceof Integer x && b instanceof Integer y) {
+                    switch (op) {
+                        case PLUS -> {
+                            return x + y;
+                        }
+                        case MINUS -> {
+                            return x - y;
+                        }
+                        case STAR -> {
+                            return x * y;
+                        }
+                        case LT -> {
+                            return x < y;
+                        }
+                        case LE -> {
+                            return x <= y;
+                        }
+                        case GT -> {
+                            return x > y;
+                        }
+                        case GE -> {
+                            return x >= y;
+                        }
+                        default -> {
+                        }
+                    }
+                }
+                return Operators.binary(op, a, b);
+            }
+            case UNARY -> {
+                return Operators.unary(OPERATORS[operand[node]], evaluate(node + 1, frame));
+            }
+            case CALL -> {
+                Object[] args = evaluateAll(node + 1, node + size[node], frame);
+                return call(lookup(operand[node], frame.cls), args, frame.cls, frame.self);
+            }
+            case INVOKE -> {
+                Object receiver = evaluate(node + 1, frame);
+                Object[] args = evaluateAll(node + 1 + size[node + 1], node + size[node], frame);
+                if (receiver instanceof ObjectInstance instance) {
+                    ClassDeclaration cls = instance.getClassDecl();
+                    return call(lookup(operand[node], cls), args, cls, instance);
+                }
+                return Builtins.invoke(receiver, tree.siteNames[operand[node]], Arrays.asList(args), this, frame.cls,
+                        frame.self);
+            }
+            case NEW -> {
+                FlatClass cls = classNamed(tree.names[operand[node]]);
+                Object[] args = evaluateAll(node + 1, node + size[node], frame);
+                ObjectInstance instance = new ObjectInstance(cls.declaration);
+                if (cls.constructor != null) {
+                    if (cls.constructor.paramCount != args.length) {
+                        throw new RuntimeException("Constructor argument count mismatch");
+                    }
+                    call(cls.constructor, args, cls.declaration, instance);
+                }
+                return instance;
+            }
+            case LIST -> {
+                return OakList.of(evaluateAll(node + 1, node + size[node], frame));
+            }
+            case COLLECTION -> {
+                Object[] elements = evaluateAll(node + 1, node + size[node], frame);
+                return Builtins.collection(COLLECTION_KINDS[operand[node]], elements);
+            }
+            case INDEX -> {
+                Object target = evaluate(node + 1, frame);
+                return Builtins.index(target, evaluate(node + 1 + size[node + 1], frame));
+            }
+            case PROPERTY -> {
+                int site = operand[node];
+                return Builtins.property(evaluate(node + 1, frame), tree.propertyNames[site],
+                        tree.propertyCaches[site]);
+            }
+            case SET_PROPERTY -> {
+                int site = operand[node] >>> 8;
+                Object target = evaluate(node + 1, frame);
+                Object value = evaluate(node + 1 + size[node + 1], frame);
+                return Builtins.setProperty(target, tree.propertyNames[site], OPERATORS[operand[node] & 0xFF], value,
+                        tree.propertyCaches[site], tree.propertyCaches[site + 1]);
+            }
+            case THIS -> {
+                return frame.self;
+            }
+            case TERNARY -> {
+                int whenTrue = node + 1 + size[node + 1];
+                if (!(evaluate(node + 1, frame) instanceof Boolean cond)) {
+                    throw new RuntimeException("Ternary condition must be a boolean");
+                }
+                return evaluate(cond ? whenTrue : whenTrue + size[whenTrue], frame);
+            }
+            case EMPTY -> {
+                return null;
+            }
+            case FAIL -> throw new RuntimeException(tree.names[operand[node]]);
+            case CHECK -> {
+                if (frame.locals[operand[node + 1]] == Utility.UNASSIGNED) {
+                    throw new RuntimeException(tree.names[operand[node]]);
+                }
+                return evaluate(node + 2, frame);
+            }
+            default -> throw new IllegalStateException("Bad node kind " + kind[node] + " at " + node);
+        }
+    }
+
+    /** Evaluates the sibling nodes starting at {@code from} and ending before {@code end}. */
+    private Object[] evaluateAll(int from, int end, Frame frame) {
+        int n = 0;
+        for (int child = from; child < end; child += size[child]) {
+            n++;
+        }
+        Object[] values = new Object[n];
+        for (int i = 0, child = from; i < n; i++, child += size[child]) {
+            values[i] = evaluate(child, frame);
+        }
+        return values;
+    }
+
+    private static Iterator<?> iterator(Object iterable) {
+        Iterable<?> items = Builtins.iterable(iterable);
+        if (items == null) {
+            throw new RuntimeException(
+                    "For-each loop requires an iterable, got: " + iterable.getClass().getSimpleName());
+        }
+        return items.iterator();
+    }
+}
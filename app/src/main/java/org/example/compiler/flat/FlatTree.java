@@ -0,0 +1,90 @@
+package org.example.compiler.flat;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.PropertyCache;
+
+import java.util.Map;
+
+/**
+ * A whole program flattened into parallel columns, in pre-order. Node
+ * {@code n} has kind {@code kind[n]}, an {@code operand[n]} whose meaning
+ * depends on the kind, and spans {@code size[n]} nodes including itself,
+ * so its first child is {@code n + 1} and each next sibling starts where
+ * the previous one's span ends. Literals live in {@code constants},
+ * identifiers and error messages in {@code names}, call sites in the
+ * {@code site*} tables and field accesses in the {@code property*} tables.
+ */
+public final class FlatTree {
+    // Statements; an expression used as a statement is stored as itself
+    static final byte BLOCK = 0;     // children: statements
+    static final byte PRINT = 1;     // child: value
+    static final byte RETURN = 2;    // child: value, or none
+    static final byte IF = 3;        // children: condition, block, condition, block, ..., [else block]
+    static final byte WHILE = 4;     // children: condition, body
+    static final byte FOR = 5;       // children: init, condition, increment, body (EMPTY when left out)
+    static final byte FOREACH = 6;   // operand: slot; children: iterable, body
+    static final byte BREAK = 7;
+    static final byte CONTINUE = 8;
+    static final byte EMPTY = 9;
+
+    // Expressions
+    static final byte CONST = 10;    // operand: constant
+    static final byte LOCAL = 11;    // operand: slot
+    static final byte STORE = 12;    // operand: slot; child: value
+    static final byte COMPOUND = 13; // operand: slot << 8 | operator; child: value
+    static final byte INC = 14;      // operand: slot << 2 | decrement << 1 | prefix
+    static final byte BINARY = 15;   // operand: operator; children: left, right
+    static final byte UNARY = 16;    // operand: operator; child: operand
+    static final byte CALL = 17;     // operand: site; children: arguments
+    static final byte INVOKE = 18;   // operand: site; children: target, arguments
+    static final byte NEW = 19;      // operand: class name; children: arguments
+    static final byte LIST = 20;     // children: elements
+    static final byte INDEX = 21;    // children: target, index
+    static final byte PROPERTY = 22; // operand: property site; child: target
+    static final byte THIS = 23;
+    static final byte TERNARY = 24;  // children: condition, true value, false value
+    static final byte FAIL = 25;     // operand: message name
+    static final byte SET_PROPERTY = 26; // operand: property site << 8 | operator; children: target, value
+    static final byte COLLECTION = 27; // operand: collection kind; children: elements (map: key, value, ...)
+    static final byte CHECK = 28;    // operand: message name; children: LOCAL of the checked slot, access
+
+    final byte[] kind;
+    final int[] operand;
+    final int[] size;
+    final Object[] constants;
+    final String[] names;
+
+    /** Classes in declaration order. */
+    final Map<String, FlatClass> classes;
+
+    // Per call site: the method name and a one-entry inline cache
+    final String[] siteNames;
+    final ClassDeclaration[] siteKeys;
+    final FlatFunction[] siteTargets;
+
+    // Per property site: the field name and its cache; a write takes two sites
+    final String[] propertyNames;
+    final PropertyCache[] propertyCaches;
+
+    FlatTree(byte[] kind, int[] operand, int[] size, Object[] constants, String[] names,
+            Map<String, FlatClass> classes, String[] siteNames, String[] propertyNames) {
+        this.kind = kind;
+        this.operand = operand;
+        this.size = size;
+        this.constants = constants;
+        this.names = names;
+        this.classes = classes;
+        this.siteNames = siteNames;
+        this.siteKeys = new ClassDeclaration[siteNames.length];
+        this.siteTargets = new FlatFunction[siteNames.length];
+        this.propertyNames = propertyNames;
+        this.propertyCaches = new PropertyCache[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            propertyCaches[i] = new PropertyCache();
+        }
+    }
+
+    public int nodeCount() {
+        return kind.length;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.compiler.interpreter;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.ObjectInstance;
+
+/**
+ * A method named by a pipeline stage, bound to the class and {@code this}
+ * of the code that named it, so {@code xs.map("square")} calls the caller's
+ * own {@code square}.
+ */
+record BoundMethod(MethodCaller caller, ClassDeclaration cls, ObjectInstance self, String name) {
+    Object call(Object... args) {
+        return caller.callMethod(cls, self, name, args);
+    }
+}
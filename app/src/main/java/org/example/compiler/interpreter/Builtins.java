@@ -0,0 +1,405 @@
+package org.example.compiler.interpreter;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.CollectionLiteral;
+import org.example.compiler.ast.ObjectInstance;
+import org.example.compiler.ast.Operator;
+import org.example.compiler.ast.PropertyCache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Built-in behaviour of oak values (list and string methods, indexing and
+ * properties), shared by every execution engine.
+ */
+public final class Builtins {
+    private Builtins() {
+    }
+
+    public static Object index(Object target, Object indexObj) {
+        target = Rope.flat(target);
+        if (target instanceof OakMap map) {
+            return lookup(map, indexObj);
+        }
+        if (!(indexObj instanceof Integer index)) {
+            throw new RuntimeException("Index must be an integer");
+        }
+
+        if (target instanceof List<?> list) {
+            if (index < 0 || index >= list.size()) {
+                throw new RuntimeException("Index out of bounds: " + index);
+            }
+            return list.get(index);
+
+        } else if (target instanceof String str) {
+            if (index < 0 || index >= str.length()) {
+                throw new RuntimeException("Index out of bounds: " + index);
+            }
+            return String.valueOf(str.charAt(index));
+
+        } else if (target instanceof OakTuple tuple) {
+            if (index < 0 || index >= tuple.size()) {
+                throw new RuntimeException("Index out of bounds: " + index);
+            }
+            return tuple.get(index);
+
+        } else if (target instanceof OakRange range) {
+            return range.get(index);
+
+        } else {
+            throw new RuntimeException(
+                    "Indexing requires a list or string, got: " + target.getClass().getSimpleName());
+        }
+    }
+
+    public static Object property(Object target, String property) {
+        target = Rope.flat(target);
+        if (target instanceof ObjectInstance instance) {
+            return instance.getField(property);
+        }
+
+        if (property.equals("length")) {
+            if (target instanceof List<?> list) {
+                return list.size();
+            } else if (target instanceof Map<?, ?> map) {
+                return map.size();
+            } else if (target instanceof Set<?> set) {
+                return set.size();
+            } else if (target instanceof OakTuple tuple) {
+                return tuple.size();
+            } else if (target instanceof OakRange range) {
+                return range.size();
+            }
+        }
+
+        throw new RuntimeException(
+                "Property '" + property + "' not supported on " + target.getClass().getSimpleName());
+    }
+
+    /** Like {@link #property(Object, String)}, reading object fields through the site's cache. */
+    public static Object property(Object target, String property, PropertyCache cache) {
+        if (target instanceof ObjectInstance instance) {
+            return cache.read(instance, property);
+        }
+        return property(target, property);
+    }
+
+    /**
+     * Stores {@code value} (combined with the old value first for a compound
+     * operator) into an object field and returns the stored value.
+     */
+    public static Object setProperty(Object target, String property, Operator operator, Object value,
+            PropertyCache readCache, PropertyCache writeCache) {
+        if (!(target instanceof ObjectInstance instance)) {
+            throw new RuntimeException("Cannot set property '" + property + "' on "
+                    + (target == null ? "null" : Rope.flat(target).getClass().getSimpleName()));
+        }
+        if (operator != Operator.ASSIGN) {
+            value = Operators.compound(operator, readCache.read(instance, property), value);
+        }
+        writeCache.write(instance, property, value);
+        return value;
+    }
+
+    /**
+     * Calls built-in method {@code method} on {@code target}. Pipeline stages
+     * name oak methods, which are called through {@code caller} on the
+     * calling code's class {@code cls} and {@code this} object {@code self}.
+     */
+    public static Object invoke(Object target, String method, List<Object> args, MethodCaller caller,
+            ClassDeclaration cls, ObjectInstance self) {
+        target = Rope.flat(target);
+        // Lists made by oak code are OakLists; embedders may pass an ArrayList
+        if (target instanceof OakList || target instanceof ArrayList<?>) {
+            @SuppressWarnings("unchecked")
+            List<Object> mutableList = (List<Object>) target;
+
+            return switch (method) {
+                case "append" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("append expects 1 argument");
+                    mutableList.add(args.get(0));
+                    yield null;
+                }
+                case "pop" -> {
+                    if (!args.isEmpty())
+                        throw new RuntimeException("pop takes no arguments");
+                    if (mutableList.isEmpty())
+                        throw new RuntimeException("Cannot pop from empty list");
+                    yield mutableList.remove(mutableList.size() - 1);
+                }
+                case "remove" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("remove expects 1 argument");
+                    if (!(args.get(0) instanceof Integer index))
+                        throw new RuntimeException("remove expects integer index");
+                    if (index < 0 || index >= mutableList.size())
+                        throw new RuntimeException("Index out of bounds");
+                    yield mutableList.remove((int) index);
+                }
+                case "insert" -> {
+                    if (args.size() != 2)
+                        throw new RuntimeException("insert expects 2 arguments: index and value");
+                    if (!(args.get(0) instanceof Integer index))
+                        throw new RuntimeException("insert expects integer index");
+                    if (index < 0 || index > mutableList.size())
+                        throw new RuntimeException("Index out of bounds");
+                    mutableList.add(index, args.get(1));
+                    yield null;
+                }
+                case "clear" -> {
+                    mutableList.clear();
+                    yield null;
+                }
+                case "indexOf" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("indexOf expects 1 argument");
+                    int index = mutableList.indexOf(args.get(0));
+                    if (index == -1)
+                        throw new RuntimeException("Element not found in list");
+                    yield index;
+                }
+                case "contains" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("contains expects 1 argument");
+                    yield mutableList.contains(args.get(0));
+                }
+                case "reverse" -> {
+                    if (!args.isEmpty())
+                        throw new RuntimeException("reverse takes no arguments");
+                    if (mutableList instanceof OakList oakList) {
+                        oakList.reverse();
+                    } else {
+                        java.util.Collections.reverse(mutableList);
+                    }
+                    yield null;
+                }
+                case "sort" -> {
+                    if (!args.isEmpty())
+                        throw new RuntimeException("sort takes no arguments");
+                    mutableList.sort(null); // natural order sort
+                    yield null;
+                }
+
+                case "map", "filter", "take", "reduce" ->
+                    sequence(mutableList, "list", method, args, caller, cls, self);
+
+                default -> throw new RuntimeException("Unknown list method: " + method);
+            };
+        } else if (target instanceof OakRange range) {
+            return sequence(range, "range", method, args, caller, cls, self);
+        } else if (target instanceof Pipeline pipeline) {
+            return sequence(pipeline, "pipeline", method, args, caller, cls, self);
+        } else if (target instanceof OakMap map) {
+            return switch (method) {
+                case "get" -> {
+                    if (args.size() == 1)
+                        yield lookup(map, args.get(0));
+                    if (args.size() != 2)
+                        throw new RuntimeException("get expects a key and an optional default");
+                    yield map.containsKey(args.get(0)) ? map.get(args.get(0)) : args.get(1);
+                }
+                case "put" -> {
+                    if (args.size() != 2)
+                        throw new RuntimeException("put expects 2 arguments: key and value");
+                    map.put(args.get(0), args.get(1));
+                    yield null;
+                }
+                case "contains", "containsKey" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException(method + " expects 1 argument");
+                    yield map.containsKey(args.get(0));
+                }
+                case "remove" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("remove expects 1 argument");
+                    Object value = lookup(map, args.get(0));
+                    map.remove(args.get(0));
+                    yield value;
+                }
+                case "keys" -> {
+                    if (!args.isEmpty())
+                        throw new RuntimeException("keys takes no arguments");
+                    yield map.keyList();
+                }
+                case "values" -> {
+                    if (!args.isEmpty())
+                        throw new RuntimeException("values takes no arguments");
+                    yield map.valueList();
+                }
+                case "clear" -> {
+                    map.clear();
+                    yield null;
+                }
+                default -> throw new RuntimeException("Unknown map method: " + method);
+            };
+        } else if (target instanceof OakSet set) {
+            return switch (method) {
+                case "add" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("add expects 1 argument");
+                    set.add(args.get(0));
+                    yield null;
+                }
+                case "contains" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("contains expects 1 argument");
+                    yield set.contains(args.get(0));
+                }
+                case "remove" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("remove expects 1 argument");
+                    if (!set.remove(args.get(0)))
+                        throw new RuntimeException("Element not found in set");
+                    yield null;
+                }
+                case "clear" -> {
+                    set.clear();
+                    yield null;
+                }
+                default -> throw new RuntimeException("Unknown set method: " + method);
+            };
+        } else if (target instanceof OakTuple tuple) {
+            return switch (method) {
+                case "indexOf" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("indexOf expects 1 argument");
+                    int index = tuple.indexOf(args.get(0));
+                    if (index == -1)
+                        throw new RuntimeException("Element not found in tuple");
+                    yield index;
+                }
+                case "contains" -> {
+                    if (args.size() != 1)
+                        throw new RuntimeException("contains expects 1 argument");
+                    yield tuple.indexOf(args.get(0)) >= 0;
+                }
+                default -> throw new RuntimeException("Unknown tuple method: " + method);
+            };
+        } else if (target instanceof String str) {
+            return switch (method) {
+                case "length" -> {
+                    if (!args.isEmpty())
+                        throw new RuntimeException("length() takes no arguments");
+                    yield str.length();
+                }
+                case "toUpperCase" -> {
+                    if (!args.isEmpty())
+                        throw new RuntimeException("toUpperCase() takes no arguments");
+                    yield str.toUpperCase();
+                }
+                case "toLowerCase" -> {
+                    if (!args.isEmpty())
+                        throw new RuntimeException("toLowerCase() takes no arguments");
+                    yield str.toLowerCase();
+                }
+                case "substring" -> {
+                    if (args.size() == 1 && args.get(0) instanceof Integer start) {
+                        yield str.substring(start);
+                    } else if (args.size() == 2 && args.get(0) instanceof Integer start
+                            && args.get(1) instanceof Integer end) {
+                        yield str.substring(start, end);
+                    } else {
+                        throw new RuntimeException("substring expects 1 or 2 integer arguments");
+                    }
+                }
+                case "contains" -> {
+                    if (args.size() != 1 || !Rope.isString(args.get(0)))
+                        throw new RuntimeException("contains expects 1 string argument");
+                    yield str.contains((CharSequence) args.get(0));
+                }
+                default -> throw new RuntimeException("Unknown string method: " + method);
+            };
+        }
+
+        throw new RuntimeException("Method '" + method + "' not supported on " + target.getClass().getSimpleName());
+    }
+
+    /**
+     * The lazy sequence methods shared by lists, ranges and pipelines:
+     * {@code map}, {@code filter} and {@code take} add a stage to a
+     * {@link Pipeline}, while {@code reduce} and {@code toList} run it.
+     */
+    private static Object sequence(Iterable<?> source, String kind, String method, List<Object> args,
+            MethodCaller caller, ClassDeclaration cls, ObjectInstance self) {
+        Pipeline pipeline = Pipeline.over(source);
+        return switch (method) {
+            case "map" -> pipeline.map(stage(method, args, caller, cls, self));
+            case "filter" -> pipeline.filter(stage(method, args, caller, cls, self));
+            case "take" -> {
+                if (args.size() != 1 || !(args.get(0) instanceof Integer count))
+                    throw new RuntimeException("take expects 1 integer argument");
+                yield pipeline.take(count);
+            }
+            case "reduce" -> {
+                if (args.isEmpty() || args.size() > 2)
+                    throw new RuntimeException("reduce expects a method name and an optional initial value");
+                BoundMethod function = stage(method, args.subList(0, 1), caller, cls, self);
+                yield pipeline.reduce(function, args.size() == 2 ? args.get(1) : null, args.size() == 2);
+            }
+            case "toList" -> {
+                if (!args.isEmpty())
+                    throw new RuntimeException("toList takes no arguments");
+                yield pipeline.toList();
+            }
+            default -> throw new RuntimeException("Unknown " + kind + " method: " + method);
+        };
+    }
+
+    private static BoundMethod stage(String method, List<Object> args, MethodCaller caller, ClassDeclaration cls,
+            ObjectInstance self) {
+        if (args.size() != 1 || !Rope.isString(args.get(0)))
+            throw new RuntimeException(method + " expects 1 method name argument");
+        if (caller == null || cls == null)
+            throw new RuntimeException(method + " can only be called from inside a class method");
+        return new BoundMethod(caller, cls, self, args.get(0).toString());
+    }
+
+    /** Builds the value of a {@code map(...)}, {@code set(...)}, {@code tuple(...)} or {@code range(...)} expression. */
+    public static Object collection(CollectionLiteral.Kind kind, Object[] elements) {
+        return switch (kind) {
+            case MAP -> OakMap.of(elements);
+            case SET -> OakSet.of(elements);
+            case TUPLE -> new OakTuple(elements);
+            case RANGE -> OakRange.of(elements);
+        };
+    }
+
+    /**
+     * What a for-each loop walks for {@code value}: a map's keys, the
+     * characters of a string, or the elements of a list, set, tuple, range
+     * or pipeline. Returns null for anything else.
+     */
+    public static Iterable<?> iterable(Object value) {
+        if (Rope.flat(value) instanceof String str) {
+            return () -> new Iterator<Object>() {
+                int index = 0;
+
+                public boolean hasNext() {
+                    return index < str.length();
+                }
+
+                public Object next() {
+                    return str.charAt(index++);
+                }
+            };
+        } else if (value instanceof OakMap map) {
+            return map::keyIterator;
+        } else if (value instanceof Iterable<?> elements) {
+            return elements;
+        }
+        return null;
+    }
+
+    private static Object lookup(OakMap map, Object key) {
+        Object value = map.get(key);
+        if (value == null && !map.containsKey(key)) {
+            throw new RuntimeException("Key not found: " + Utility.valueToString(key));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.compiler.interpreter;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.ObjectInstance;
+
+/**
+ * Activation record for one oak method call. Frames are recycled through a
+ * {@link FramePool}, so nothing here may be retained after the call returns.
+ */
+public final class Frame {
+    /**
+     * Slot tags for unboxed numbers: a slot holding one of these keeps its
+     * value in {@link #prims}, as an int or as raw double bits.
+     */
+    static final Object INT = new Object();
+    static final Object DOUBLE = new Object();
+
+    Object[] slots;
+    long[] prims;
+    int size;
+    Frame caller;
+    Object returnValue;
+    ObjectInstance thisObject;
+    ClassDeclaration classDecl;
+
+    Frame(int capacity) {
+        this.slots = new Object[capacity];
+        this.prims = new long[capacity];
+    }
+
+    public Object get(int slot) {
+        Object value = slots[slot];
+        if (value == INT) {
+            return (int) prims[slot];
+        } else if (value == DOUBLE) {
+            return Double.longBitsToDouble(prims[slot]);
+        }
+        return value;
+    }
+
+    public void set(int slot, Object value) {
+        slots[slot] = value;
+    }
+
+    public Object returnValue() {
+        return returnValue;
+    }
+
+    public void setReturnValue(Object returnValue) {
+        this.returnValue = returnValue;
+    }
+
+    public ObjectInstance thisObject() {
+        return thisObject;
+    }
+
+    public ClassDeclaration classDecl() {
+        return classDecl;
+    }
+
+    public Frame caller() {
+        return caller;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.compiler.interpreter;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.ast.ObjectInstance;
+
+import java.util.Arrays;
+
+/**
+ * Free list of recycled frames. Calls take a frame on entry and hand it
+ * back on exit, so steady-state calls (including recursion that stays within
+ * the deepest depth seen so far) allocate nothing. Frames are created on
+ * first use, keeping a pool cheap enough to make one per execution.
+ */
+public final class FramePool {
+    private static final int INITIAL_FRAMES = 32;
+    private static final int INITIAL_SLOTS = 8;
+
+    private Frame[] free = new Frame[INITIAL_FRAMES];
+    private int count;
+
+    /** A frame for a call to {@code func}, with locals that may be read unwritten marked unassigned. */
+    public Frame acquire(FunctionDeclaration func, Frame caller, ClassDeclaration classDecl, ObjectInstance thisObject) {
+        int size = func.frameSize();
+        Frame frame = count > 0 ? free[--count] : new Frame(Math.max(size, INITIAL_SLOTS));
+        if (frame.slots.length < size) {
+            frame.slots = new Object[size];
+            frame.prims = new long[size];
+        }
+        if (func.readsUnassigned()) {
+            Arrays.fill(frame.slots, 0, size, Utility.UNASSIGNED);
+        }
+        frame.size = size;
+        frame.caller = caller;
+        frame.classDecl = classDecl;
+        frame.thisObject = thisObject;
+        return frame;
+    }
+
+    public void release(Frame frame) {
+        Arrays.fill(frame.slots, 0, frame.size, null);
+        frame.caller = null;
+        frame.returnValue = null;
+        frame.thisObject = null;
+        if (count == free.length) {
+            free = Arrays.copyOf(free, count * 2);
+        }
+        free[count++] = frame;
+    }
+}
@@ -0,0 +1,258 @@
+package org.example.compiler.interpreter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Open-addressing hash table behind {@link OakMap} and {@link OakSet}. A
+ * sparse power-of-two {@code index} holds entry numbers and is probed
+ * linearly; the entries themselves are dense columns in insertion order:
+ * each key's cached hash, the key, and for maps the value. While every key
+ * is an {@link Integer} the keys are kept unboxed in {@code intKeys}.
+ * <p>
+ * A removed entry keeps its place in the columns (so iteration order is
+ * stable) and its index slot becomes a tombstone; both are dropped the next
+ * time the table is rebuilt.
+ */
+final class HashTable {
+    private static final int FREE = -1;
+    private static final int TOMBSTONE = -2;
+    private static final int MIN_INDEX = 8;
+
+    private final boolean withValues;
+    private int[] index;
+    private int[] hashes;
+    private int[] intKeys;
+    private Object[] keys;
+    private Object[] values;
+    // Removed entries, one bit each; allocated on the first removal
+    private long[] removed;
+    // Entries appended so far, including removed ones
+    private int used;
+    private int size;
+
+    HashTable(boolean withValues) {
+        this.withValues = withValues;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Entry number of {@code key}, or -1. */
+    int find(Object key) {
+        key = Rope.flat(key);
+        if (size == 0) {
+            return -1;
+        }
+        if (intKeys != null) {
+            return key instanceof Integer n ? findInt(n) : -1;
+        }
+        int hash = hash(key);
+        int mask = index.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == FREE) {
+                return -1;
+            }
+            if (entry >= 0 && hashes[entry] == hash && Objects.equals(keys[entry], key)) {
+                return entry;
+            }
+        }
+    }
+
+    private int findInt(int key) {
+        int hash = mix(key);
+        int mask = index.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == FREE) {
+                return -1;
+            }
+            if (entry >= 0 && intKeys[entry] == key) {
+                return entry;
+            }
+        }
+    }
+
+    boolean contains(Object key) {
+        return find(key) >= 0;
+    }
+
+    /** Adds {@code key} or replaces its value; returns false if the key was already present. */
+    boolean put(Object key, Object value) {
+        key = Rope.flat(key);
+        int entry = find(key);
+        if (entry >= 0) {
+            if (withValues) {
+                values[entry] = value;
+            }
+            return false;
+        }
+        int hash = hash(key);
+        if (index == null) {
+            allocate(MIN_INDEX, key instanceof Integer);
+        } else if (used == hashes.length) {
+            rebuild();
+        }
+        if (intKeys != null && !(key instanceof Integer)) {
+            generalize();
+        }
+        entry = used++;
+        hashes[entry] = hash;
+        if (intKeys != null) {
+            intKeys[entry] = (Integer) key;
+        } else {
+            keys[entry] = key;
+        }
+        if (withValues) {
+            values[entry] = value;
+        }
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        while (index[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry;
+        size++;
+        return true;
+    }
+
+    /** Removes {@code key}; returns its entry number (still readable until the next put) or -1. */
+    int remove(Object key) {
+        int entry = find(key);
+        if (entry < 0) {
+            return -1;
+        }
+        int mask = index.length - 1;
+        int slot = hashes[entry] & mask;
+        while (index[slot] != entry) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = TOMBSTONE;
+        if (removed == null) {
+            removed = new long[(hashes.length + 63) >>> 6];
+        }
+        removed[entry >>> 6] |= 1L << entry;
+        size--;
+        return entry;
+    }
+
+    void clear() {
+        index = null;
+        hashes = null;
+        intKeys = null;
+        keys = null;
+        values = null;
+        removed = null;
+        used = 0;
+        size = 0;
+    }
+
+    // ---- Entry access, for iteration in insertion order ----
+
+    /** One past the last entry number; entries below it may be removed. */
+    int entryLimit() {
+        return used;
+    }
+
+    boolean isLive(int entry) {
+        return removed == null || (removed[entry >>> 6] & 1L << entry) == 0;
+    }
+
+    Object key(int entry) {
+        return intKeys != null ? (Object) intKeys[entry] : keys[entry];
+    }
+
+    Object value(int entry) {
+        return values[entry];
+    }
+
+    void setValue(int entry, Object value) {
+        values[entry] = value;
+    }
+
+    // ---- Layout ----
+
+    private void allocate(int indexLength, boolean intMode) {
+        index = new int[indexLength];
+        Arrays.fill(index, FREE);
+        int usable = indexLength * 2 / 3;
+        hashes = new int[usable];
+        if (intMode) {
+            intKeys = new int[usable];
+        } else {
+            keys = new Object[usable];
+        }
+        if (withValues) {
+            values = new Object[usable];
+        }
+    }
+
+    /** Compacts out removed entries and grows so at least half the usable entries are free. */
+    private void rebuild() {
+        int[] oldHashes = hashes;
+        int[] oldIntKeys = intKeys;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsed = used;
+
+        int indexLength = MIN_INDEX;
+        while (indexLength * 2 / 3 < size * 2 + 1) {
+            indexLength <<= 1;
+        }
+        long[] oldRemoved = removed;
+        removed = null;
+        allocate(indexLength, oldIntKeys != null);
+        int mask = indexLength - 1;
+        int entry = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            if (oldRemoved != null && (oldRemoved[i >>> 6] & 1L << i) != 0) {
+                continue;
+            }
+            hashes[entry] = oldHashes[i];
+            if (oldIntKeys != null) {
+                intKeys[entry] = oldIntKeys[i];
+            } else {
+                keys[entry] = oldKeys[i];
+            }
+            if (withValues) {
+                values[entry] = oldValues[i];
+            }
+            int slot = oldHashes[i] & mask;
+            while (index[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = entry++;
+        }
+        used = entry;
+    }
+
+    /** Boxes the int keys once a key of another type arrives. */
+    private void generalize() {
+        keys = new Object[hashes.length];
+        for (int i = 0; i < used; i++) {
+            keys[i] = intKeys[i];
+        }
+        intKeys = null;
+    }
+
+    // ---- Hashing ----
+
+    static int hash(Object key) {
+        if (key instanceof List || key instanceof Map || key instanceof Set) {
+            throw new RuntimeException("Unhashable key: " + Utility.valueToString(key)
+                    + " (use a tuple for compound keys)");
+        }
+        return mix(key == null ? 0 : key.hashCode());
+    }
+
+    /** Spreads sequential ints and low-entropy hash codes across the table. */
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
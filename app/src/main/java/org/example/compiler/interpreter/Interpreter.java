@@ -1,183 +1,226 @@
 package org.example.compiler.interpreter;
 
 import org.example.compiler.ast.*;
+import org.example.compiler.jit.CompiledMethod;
 
+import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
-public class Interpreter {
-    private static class ContinueException extends RuntimeException {
+public class Interpreter implements MethodCaller {
+    // statement completion codes, as in the node engine's StmtNode
+    private static final int NORMAL = 0;
+    private static final int BREAK = 1;
+    private static final int CONTINUE = 2;
+    private static final int RETURN = 3;
+
+    private Program program;
+    private final FramePool framePool = new FramePool();
+    // where print writes; null for System.out
+    private final PrintWriter out;
+    // unboxed result of the last evaluate() that returned Frame.INT or Frame.DOUBLE
+    private long prim;
+
+    public Interpreter() {
+        this.out = null;
     }
 
-    private static class BreakException extends RuntimeException {
+    /**
+     * An execution context for a shared program. Contexts are cheap and
+     * must not be used by more than one thread at a time.
+     */
+    public Interpreter(Program program) {
+        this(program, null);
     }
 
-    private final Map<String, ClassDeclaration> classes = new HashMap<>();
-    private Map<String, Object> locals;
+    /** Like {@link #Interpreter(Program)}, with {@code print} writing to {@code out}. */
+    public Interpreter(Program program, PrintWriter out) {
+        this.program = program;
+        this.out = out;
+    }
 
     public void executeProgram(List<StatementNode> programBody) {
-        for (StatementNode stmt : programBody) {
-            if (stmt instanceof ClassDeclaration cls) {
-                classes.put(cls.name(), cls);
-            }
-        }
+        load(programBody);
         runMain();
     }
 
-    private String valueToString(Object val) {
-        if (val instanceof List<?> list) {
-            return list.stream()
-                    .map(this::valueToString)
-                    .collect(Collectors.joining(", ", "[", "]"));
-        }
-        return String.valueOf(val); // handles primitives, strings, null
+    /**
+     * Registers the program's classes without running anything.
+     */
+    public void load(List<StatementNode> programBody) {
+        program = new Program(programBody);
+    }
+
+    /**
+     * Returns the first class that declares a {@code main} method.
+     */
+    public ClassDeclaration findMainClass() {
+        return program.findMainClass();
     }
 
     private void runMain() {
-        for (ClassDeclaration cls : classes.values()) {
-            for (StatementNode member : cls.body()) {
-                if (member instanceof FunctionDeclaration func && func.name().equals("main")) {
-                    Object result = callMethod(cls.name(), "main");
-                    return;
-                }
-            }
-        }
-        throw new RuntimeException("No main method found in any class");
+        callMethod(findMainClass().name(), "main");
     }
 
     public Object callMethod(String className, String methodName, List<Object> args) {
-        ClassDeclaration cls = classes.get(className);
-        if (cls == null) {
-            throw new RuntimeException("Class not found: " + className);
-        }
+        FunctionDeclaration func = findMethod(className, methodName);
+        checkArity(func, args.size());
 
-        for (StatementNode member : cls.body()) {
-            if (member instanceof FunctionDeclaration func && func.name().equals(methodName)) {
-                return executeFunction(func, className, args);
-            }
+        Frame callee = framePool.acquire(func, null, program.findClassDeclaration(className), null);
+        for (int i = 0; i < args.size(); i++) {
+            callee.slots[i] = args.get(i);
         }
-        throw new RuntimeException("Method " + methodName + " not found in class " + className);
+        return executeFunction(func, callee);
     }
 
     public Object callMethod(String className, String methodName) {
         return callMethod(className, methodName, new ArrayList<>());
     }
 
-    private Object executeFunction(FunctionDeclaration func, String currentClassName, List<Object> args) {
-        locals = new HashMap<>();
+    @Override
+    public Object callMethod(ClassDeclaration cls, ObjectInstance self, String name, Object[] args) {
+        FunctionDeclaration func = findMethod(cls.name(), name);
+        checkArity(func, args.length);
 
-        List<String> paramNames = func.parameters();
-        if (args.size() != paramNames.size()) {
-            throw new RuntimeException(
-                    "Function " + func.name() + " expects " + paramNames.size() + " arguments but got " + args.size());
+        Frame callee = framePool.acquire(func, null, cls, self);
+        System.arraycopy(args, 0, callee.slots, 0, args.length);
+        return executeFunction(func, callee);
+    }
+
+    public FunctionDeclaration findMethod(String className, String methodName) {
+        return program.findMethod(className, methodName);
+    }
+
+    /**
+     * Resolves a call through the site's inline cache, falling back to the
+     * receiver's method table on a miss.
+     */
+    private FunctionDeclaration resolveCall(InlineCache cache, ClassDeclaration receiver, String methodName) {
+        FunctionDeclaration func = cache.lookup(receiver);
+        if (func == null) {
+            func = findMethod(receiver.name(), methodName);
+            cache.record(receiver, func);
         }
+        return func;
+    }
 
-        for (int i = 0; i < paramNames.size(); i++) {
-            locals.put(paramNames.get(i), args.get(i));
+    private void checkArity(FunctionDeclaration func, int argCount) {
+        int paramCount = func.parameters().size();
+        if (argCount != paramCount) {
+            throw new RuntimeException(
+                    "Function " + func.name() + " expects " + paramCount + " arguments but got " + argCount);
         }
+    }
+
+    /**
+     * Evaluates call arguments straight into the slots of a pooled callee
+     * frame, so a call allocates neither an argument list nor a frame.
+     */
+    private Object invokeFunction(FunctionDeclaration func, List<ExpressionNode> arguments, Frame caller,
+            ClassDeclaration classDecl, ObjectInstance thisObject) {
+        int argCount = arguments == null ? 0 : arguments.size();
+        checkArity(func, argCount);
 
+        Frame callee = framePool.acquire(func, caller, classDecl, thisObject);
         try {
-            for (StatementNode stmt : func.body()) {
-                executeStatement(stmt, currentClassName);
+            for (int i = 0; i < argCount; i++) {
+                callee.slots[i] = evaluateExpression(arguments.get(i), caller);
             }
-        } catch (ReturnException r) {
-            return r.getValue();
+        } catch (RuntimeException e) {
+            framePool.release(callee);
+            throw e;
         }
 
-        return null;
+        CompiledMethod compiled = program.jit().profile(func, classDecl);
+        // compiled code prints to System.out, so it only runs when that is where print goes
+        if (compiled != null && (out == null || !compiled.prints()) && compiled.accepts(callee.slots)) {
+            try {
+                return compiled.invoke(callee.slots);
+            } finally {
+                framePool.release(callee);
+            }
+        }
+        return executeFunction(func, callee);
     }
 
-    private void executeForLoop(ForStatement forStmt, String currentClassName) {
+    private Object executeFunction(FunctionDeclaration func, Frame frame) {
+        try {
+            return executeBlock(func.body(), frame) == RETURN ? frame.returnValue : null;
+        } finally {
+            framePool.release(frame);
+        }
+    }
+
+    private int executeForLoop(ForStatement forStmt, Frame frame) {
         if (forStmt.getInit() != null) {
-            executeStatement(forStmt.getInit(), currentClassName);
+            executeStatement(forStmt.getInit(), frame);
         }
 
-        loop: while (Utility.isTruthy(evaluateExpression(forStmt.getCondition(), currentClassName))) {
-            try {
-                for (StatementNode stmt : forStmt.getBody()) {
-                    try {
-                        executeStatement(stmt, currentClassName);
-                    } catch (ContinueException ce) {
-                        // skip rest of loop body, continue next iteration
-                        break;
-                    } catch (BreakException be) {
-                        // exit the loop entirely
-                        break loop;
-                    }
-                }
-            } catch (BreakException be) {
+        while (Utility.isTruthy(evaluateExpression(forStmt.getCondition(), frame))) {
+            Utility.checkInterrupted();
+            int status = executeBlock(forStmt.getBody(), frame);
+            if (status == BREAK) {
                 break;
+            } else if (status == RETURN) {
+                return RETURN;
             }
 
             if (forStmt.getIncrement() != null) {
-                evaluateExpression(forStmt.getIncrement(), currentClassName);
+                evaluate(forStmt.getIncrement(), frame);
             }
         }
+        return NORMAL;
     }
 
-    private Object executeStatement(StatementNode stmt, String currentClassName) {
+    /**
+     * Executes one statement and reports how it completed: {@link #NORMAL},
+     * {@link #BREAK}, {@link #CONTINUE} or {@link #RETURN}. A returned value
+     * is left in the frame.
+     */
+    private int executeStatement(StatementNode stmt, Frame frame) {
         if (stmt instanceof VarDeclaration varDecl) {
-            Object value = evaluateExpression(varDecl.value(), currentClassName);
-            locals.put(varDecl.name(), value);
-            return null;
+            store(frame, varDecl.slot(), evaluate(varDecl.value(), frame));
+            return NORMAL;
         } else if (stmt instanceof PrintStatement printStmt) {
-            Object val = evaluateExpression(printStmt.expression(), currentClassName);
-            System.out.println(valueToString(val));
-            return null;
-        } else if (stmt instanceof ExpressionStatement exprStmt) {
-            if (exprStmt.expression() instanceof FunctionCall funcCall) {
-                callMethod(currentClassName, funcCall.functionName());
+            String text = Utility.valueToString(evaluateExpression(printStmt.expression(), frame));
+            if (out == null) {
+                System.out.println(text);
             } else {
-                evaluateExpression(exprStmt.expression(), currentClassName);
+                out.println(text);
             }
-            return null;
+            return NORMAL;
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            evaluate(exprStmt.expression(), frame);
+            return NORMAL;
 
         } else if (stmt instanceof ReturnStatement ret) {
             Object value = null;
             if (ret.value() != null) {
-                value = evaluateExpression(ret.value(), currentClassName);
+                value = evaluateExpression(ret.value(), frame);
             }
-            throw new ReturnException(value);
+            frame.returnValue = value;
+            return RETURN;
         } else if (stmt instanceof IfStatement ifStatement) {
-            executeIfStatement(ifStatement, currentClassName);
-            return null;
+            return executeIfStatement(ifStatement, frame);
         } else if (stmt instanceof WhileStatement whileStmt) {
-            loop: while (Utility.isTruthy(evaluateExpression(whileStmt.getCondition(), currentClassName))) {
-                try {
-                    executeBlock(whileStmt.getBody(), currentClassName);
-                } catch (ContinueException ce) {
-                    continue;
-                } catch (BreakException be) {
-                    break loop;
+            while (Utility.isTruthy(evaluateExpression(whileStmt.getCondition(), frame))) {
+                Utility.checkInterrupted();
+                int status = executeBlock(whileStmt.getBody(), frame);
+                if (status == BREAK) {
+                    break;
+                } else if (status == RETURN) {
+                    return RETURN;
                 }
             }
-            return null;
+            return NORMAL;
         } else if (stmt instanceof ForStatement forStmt) {
-            executeForLoop(forStmt, currentClassName);
-            return null;
+            return executeForLoop(forStmt, frame);
         } else if (stmt instanceof ContinueStatement) {
-            throw new ContinueException();
+            return CONTINUE;
         } else if (stmt instanceof BreakStatement) {
-            throw new BreakException();
-        } else if (stmt instanceof ForEachStatement forEachStmt) {
-            Object iterable = evaluateExpression(forEachStmt.getIterable(), currentClassName);
-            if (!(iterable instanceof List<?> list)) {
-                throw new RuntimeException(
-                        "For-each loop requires an iterable, got: " + iterable.getClass().getSimpleName());
-            }
-
-            for (Object item : list) {
-                locals.put(forEachStmt.getVariableName(), item);
-                executeBlock(forEachStmt.getBody(), currentClassName);
-            }
-            return null;
+            return BREAK;
         } else if (stmt instanceof ForEachStatement forEachStmt) {
-            executeForEachLoop(forEachStmt, currentClassName);
-            return null;
+            return executeForEachLoop(forEachStmt, frame);
         }
 
         else {
@@ -185,484 +228,392 @@ public class Interpreter {
         }
     }
 
-    private void executeForEachLoop(ForEachStatement forEachStmt, String currentClassName) {
-        Object iterableObj = evaluateExpression(forEachStmt.getIterable(), currentClassName);
-
-        Iterable<?> iterable;
-
-        if (iterableObj instanceof List<?> list) {
-            iterable = list;
-        } else if (iterableObj instanceof String str) {
-            // Create iterable over string characters as Objects
-            iterable = () -> new Iterator<Object>() {
-                int index = 0;
-
-                public boolean hasNext() {
-                    return index < str.length();
-                }
+    private int executeForEachLoop(ForEachStatement forEachStmt, Frame frame) {
+        Object iterableObj = evaluateExpression(forEachStmt.getIterable(), frame);
 
-                public Object next() {
-                    return str.charAt(index++);
-                }
-            };
-        } else {
+        Iterable<?> iterable = Builtins.iterable(iterableObj);
+        if (iterable == null) {
             throw new RuntimeException(
                     "For-each loop requires an iterable, got: " + iterableObj.getClass().getSimpleName());
         }
 
-        loop: for (Object item : iterable) {
+        for (Object item : iterable) {
+            Utility.checkInterrupted();
             // Set loop variable
-            locals.put(forEachStmt.getVariableName(), item);
+            frame.slots[forEachStmt.getSlot()] = item;
 
-            try {
-                for (StatementNode stmt : forEachStmt.getBody()) {
-                    try {
-                        executeStatement(stmt, currentClassName);
-                    } catch (ContinueException ce) {
-                        // continue next iteration
-                        continue loop;
-                    } catch (BreakException be) {
-                        // break out of loop
-                        break loop;
-                    }
-                }
-            } catch (BreakException be) {
+            int status = executeBlock(forEachStmt.getBody(), frame);
+            if (status == BREAK) {
                 break;
+            } else if (status == RETURN) {
+                return RETURN;
             }
         }
+        return NORMAL;
     }
 
-    private Object executeBlock(List<StatementNode> statements, String currentClassName) {
-        Object lastResult = null;
-        for (StatementNode stmt : statements) {
-            executeStatement(stmt, currentClassName);
+    /**
+     * Runs statements until one completes abruptly and returns that status.
+     */
+    private int executeBlock(List<StatementNode> statements, Frame frame) {
+        // indexed rather than for-each so hot loop bodies allocate no iterator
+        for (int i = 0; i < statements.size(); i++) {
+            int status = executeStatement(statements.get(i), frame);
+            if (status != NORMAL) {
+                return status;
+            }
         }
-        return lastResult;
+        return NORMAL;
     }
 
-    private Object executeBlock(List<StatementNode> statements, Map<String, Object> localScope,
-            ObjectInstance instance) {
-        Object previousThis = locals.get("this"); // Save previous this
-        Map<String, Object> previousLocals = new HashMap<>(locals); // Save outer locals
-
-        // Use provided locals and set 'this'
-        locals = localScope;
-        locals.put("this", instance);
+    private int executeIfStatement(IfStatement ifStmt, Frame frame) {
+        Object conditionValue = evaluateExpression(ifStmt.getCondition(), frame);
+        if (!(conditionValue instanceof Boolean)) {
+            throw new RuntimeException("Condition must evaluate to a boolean");
+        }
 
-        Object lastResult = null;
-        for (StatementNode stmt : statements) {
-            lastResult = executeStatement(stmt, instance.getClassDecl().name());
+        if ((Boolean) conditionValue) {
+            return executeBlock(ifStmt.getThenBranch(), frame);
         }
 
-        locals = previousLocals; // Restore outer locals
-        if (previousThis != null) {
-            locals.put("this", previousThis);
+        List<ElseIfBranch> elseIfs = ifStmt.getElseIfBranches();
+        for (int i = 0; i < elseIfs.size(); i++) {
+            ElseIfBranch elseIf = elseIfs.get(i);
+            Object elseIfCondition = evaluateExpression(elseIf.getCondition(), frame);
+            if (!(elseIfCondition instanceof Boolean)) {
+                throw new RuntimeException("Else-if condition must evaluate to a boolean");
+            }
+            if ((Boolean) elseIfCondition) {
+                return executeBlock(elseIf.getBody(), frame);
+            }
         }
 
-        return lastResult;
+        if (ifStmt.getElseBranch() != null) {
+            return executeBlock(ifStmt.getElseBranch(), frame);
+        }
+        return NORMAL;
     }
 
-    private Object executeIfStatement(IfStatement ifStmt, String currentClassName) {
-        Object conditionValue = evaluateExpression(ifStmt.getCondition(), currentClassName);
-        if (!(conditionValue instanceof Boolean)) {
-            throw new RuntimeException("Condition must evaluate to a boolean");
+    /**
+     * Binary operator on possibly unboxed operands. Int and double operands
+     * are computed without boxing; anything else goes to {@link Operators}.
+     */
+    private Object binary(Operator op, Object left, long l, Object right, long r) {
+        if (left instanceof Integer i) {
+            left = Frame.INT;
+            l = i;
         }
-
-        if ((Boolean) conditionValue) {
-            for (StatementNode stmt : ifStmt.getThenBranch()) {
-                executeStatement(stmt, currentClassName);
-            }
-        } else {
-            for (ElseIfBranch elseIf : ifStmt.getElseIfBranches()) {
-                Object elseIfCondition = evaluateExpression(elseIf.getCondition(), currentClassName);
-                if (!(elseIfCondition instanceof Boolean)) {
-                    throw new RuntimeException("Else-if condition must evaluate to a boolean");
+        if (right instanceof Integer i) {
+            right = Frame.INT;
+            r = i;
+        }
+        if (left == Frame.INT && right == Frame.INT) {
+            int a = (int) l;
+            int b = (int) r;
+            int result;
+            switch (op) {
+                case PLUS -> result = a + b;
+                case MINUS -> result = a - b;
+                case STAR -> result = a * b;
+                case SLASH -> {
+                    if (b == 0)
+                        throw new ArithmeticException("Division by zero");
+                    result = a / b;
                 }
-                if ((Boolean) elseIfCondition) {
-                    for (StatementNode stmt : elseIf.getBody()) {
-                        executeStatement(stmt, currentClassName);
-                    }
-                    return null;
+                case PERCENT -> {
+                    if (b == 0)
+                        throw new ArithmeticException("Modulus by zero");
+                    result = a % b;
+                }
+                case AMP -> result = a & b;
+                case PIPE -> result = a | b;
+                case CARET -> result = a ^ b;
+                case SHL -> result = a << b;
+                case SHR -> result = a >> b;
+                case USHR -> result = a >>> b;
+                case EQ -> {
+                    return a == b;
+                }
+                case NE -> {
+                    return a != b;
+                }
+                case LT -> {
+                    return a < b;
+                }
+                case LE -> {
+                    return a <= b;
+                }
+                case GT -> {
+                    return a > b;
+                }
+                case GE -> {
+                    return a >= b;
+                }
+                default -> {
+                    return Operators.binary(op, a, b);
                 }
             }
+            prim = result;
+            return Frame.INT;
+        }
 
-            if (ifStmt.getElseBranch() != null) {
-                for (StatementNode stmt : ifStmt.getElseBranch()) {
-                    executeStatement(stmt, currentClassName);
+        if (left instanceof Double d) {
+            left = Frame.DOUBLE;
+            l = Double.doubleToRawLongBits(d);
+        }
+        if (right instanceof Double d) {
+            right = Frame.DOUBLE;
+            r = Double.doubleToRawLongBits(d);
+        }
+        if (left == Frame.DOUBLE && right == Frame.DOUBLE) {
+            double a = Double.longBitsToDouble(l);
+            double b = Double.longBitsToDouble(r);
+            double result;
+            switch (op) {
+                case PLUS -> result = a + b;
+                case MINUS -> result = a - b;
+                case STAR -> result = a * b;
+                case SLASH -> {
+                    if (b == 0.0)
+                        throw new ArithmeticException("Division by zero");
+                    result = a / b;
+                }
+                case PERCENT -> {
+                    if (b == 0.0)
+                        throw new ArithmeticException("Modulus by zero");
+                    result = a % b;
+                }
+                case EQ -> {
+                    return a == b;
+                }
+                case NE -> {
+                    return a != b;
+                }
+                case LT -> {
+                    return a < b;
+                }
+                case LE -> {
+                    return a <= b;
+                }
+                case GT -> {
+                    return a > b;
+                }
+                case GE -> {
+                    return a >= b;
+                }
+                default -> {
+                    return Operators.binary(op, a, b);
                 }
             }
+            prim = Double.doubleToRawLongBits(result);
+            return Frame.DOUBLE;
         }
-        return null;
+        return Operators.binary(op, box(left, l), box(right, r));
     }
 
-    private Object evaluateExpression(ExpressionNode expr, String currentClassName) {
+    /**
+     * Applies a compound assignment to a slot. {@code x op= y} goes through
+     * {@link #binary} exactly as {@code x = x op y} would, so int and double
+     * results stay unboxed.
+     */
+    private Object compound(Operator op, Frame frame, int slot, Object right, long r) {
+        Object result = binary(op, frame.slots[slot], frame.prims[slot], right, r);
+        store(frame, slot, result);
+        return result;
+    }
+
+    /**
+     * Evaluates an expression to a plain (boxed) value.
+     */
+    private Object evaluateExpression(ExpressionNode expr, Frame frame) {
+        return box(evaluate(expr, frame), prim);
+    }
+
+    private static Object box(Object value, long bits) {
+        if (value == Frame.INT) {
+            return (int) bits;
+        } else if (value == Frame.DOUBLE) {
+            return Double.longBitsToDouble(bits);
+        }
+        return value;
+    }
+
+    private void store(Frame frame, int slot, Object value) {
+        if (value == Frame.INT || value == Frame.DOUBLE) {
+            frame.prims[slot] = prim;
+        }
+        frame.slots[slot] = value;
+    }
+
+    /**
+     * Evaluates an expression, leaving int and double results unboxed: the
+     * result is then {@link Frame#INT} or {@link Frame#DOUBLE} and the value
+     * is in {@link #prim}, which the caller must read before evaluating
+     * anything else.
+     */
+    private Object evaluate(ExpressionNode expr, Frame frame) {
         if (expr instanceof BooleanLiteral bool) {
             return bool.value;
 
         } else if (expr instanceof NumberLiteral number) {
+            if (number.value instanceof Integer i) {
+                prim = i;
+                return Frame.INT;
+            } else if (number.value instanceof Double d) {
+                prim = Double.doubleToRawLongBits(d);
+                return Frame.DOUBLE;
+            }
             return number.value;
 
         } else if (expr instanceof StringLiteral string) {
             return string.value;
 
-        } else if (expr instanceof Identifier ident) {
-            if (locals.containsKey(ident.name())) {
-                return locals.get(ident.name());
-            } else {
-                throw new RuntimeException("Undefined variable: " + ident.name());
-            }
-
         } else if (expr instanceof VariableReference varRef) {
-            if (locals.containsKey(varRef.name())) {
-                return locals.get(varRef.name());
-            } else {
+            int slot = varRef.slot();
+            if (slot < 0) {
                 throw new RuntimeException("Undefined variable: " + varRef.name());
             }
-
-        } else if (expr instanceof BinaryExpression binExpr) {
-            Object left = evaluateExpression(binExpr.left, currentClassName);
-            Object right = evaluateExpression(binExpr.right, currentClassName);
-            String op = binExpr.operator;
-
-            if (left instanceof Integer l && right instanceof Integer r) {
-                return switch (op) {
-                    case "+" -> l + r;
-                    case "-" -> l - r;
-                    case "*" -> l * r;
-                    case "/" -> {
-                        if (r == 0)
-                            throw new ArithmeticException("Division by zero");
-                        yield l / r;
-                    }
-                    case "**" -> {
-                        if (r < 0)
-                            throw new ArithmeticException("Negative exponent not supported for integers");
-                        yield (int) Math.pow(l, r);
-                    }
-
-                    case "%" -> {
-                        if (r == 0)
-                            throw new ArithmeticException("Modulus by zero");
-                        yield l % r;
-                    }
-                    case "&" -> l & r;
-                    case "|" -> l | r;
-                    case "^" -> l ^ r;
-                    case "<<" -> l << r;
-                    case ">>" -> l >> r;
-                    case ">>>" -> l >>> r;
-                    case "==" -> l == r;
-                    case "!=" -> l != r;
-                    case ">" -> l > r;
-                    case "<" -> l < r;
-                    case ">=" -> l >= r;
-                    case "<=" -> l <= r;
-                    default -> throw new RuntimeException("Unsupported operator for integers: " + op);
-                };
-
-            } else if (left instanceof Boolean bl && right instanceof Boolean br) {
-                return switch (op) {
-                    case "&&" -> bl && br;
-                    case "||" -> bl || br;
-                    case "&" -> bl & br; // bitwise AND for booleans
-                    case "|" -> bl | br; // bitwise OR for booleans
-                    case "==" -> bl == br;
-                    case "!=" -> bl != br;
-                    default -> throw new RuntimeException("Unsupported operator for booleans: " + op);
-                };
-
-            } else if (left instanceof Double dl && right instanceof Double dr) {
-                return switch (op) {
-                    case "+" -> dl + dr;
-                    case "-" -> dl - dr;
-                    case "*" -> dl * dr;
-                    case "/" -> {
-                        if (dr == 0.0)
-                            throw new ArithmeticException("Division by zero");
-                        yield dl / dr;
-                    }
-                    case "**" -> {
-                        if (dr < 0)
-                            throw new ArithmeticException("Negative exponent not supported for doubles");
-                        yield Math.pow(dl, dr);
-                    }
-
-                    case "%" -> {
-                        if (dr == 0.0)
-                            throw new ArithmeticException("Modulus by zero");
-                        yield dl % dr;
-                    }
-                    case "==" -> dl == dr;
-                    case "!=" -> dl != dr;
-                    case ">" -> dl > dr;
-                    case "<" -> dl < dr;
-                    case ">=" -> dl >= dr;
-                    case "<=" -> dl <= dr;
-                    default -> throw new RuntimeException("Unsupported operator for doubles: " + op);
-                };
-
+            Object value = frame.slots[slot];
+            if (value == Frame.INT || value == Frame.DOUBLE) {
+                prim = frame.prims[slot];
+            } else if (varRef.mayBeUnassigned()) {
+                Utility.checkAssigned(value, varRef.name());
             }
-            // for string
-            else if (left instanceof String sl && right instanceof String sr) {
-                return switch (op) {
-                    case "+" -> sl + sr; // string concatenation
-                    case "==" -> sl.equals(sr);
-                    case "!=" -> !sl.equals(sr);
-                    case "<" -> sl.compareTo(sr) < 0;
-                    case ">" -> sl.compareTo(sr) > 0;
-                    case "<=" -> sl.compareTo(sr) <= 0;
-                    case ">=" -> sl.compareTo(sr) >= 0;
-                    default -> throw new RuntimeException("Unsupported operator for strings: " + op);
-                };
-
-            } else if (op.equals("==") || op.equals("!=")) {
-                return left == null ? right == null : left.equals(right);
+            return value;
 
-            }
+        } else if (expr instanceof Identifier ident) {
+            // Identifier is a record and cannot carry a resolved slot
+            throw new RuntimeException("Undefined variable: " + ident.name());
 
-            else if (op.equals("+") && (left instanceof String || right instanceof String)) {
-                return String.valueOf(left) + String.valueOf(right);
-            } else {
-                throw new RuntimeException("Unsupported operand types for operator '" + op + "': " +
-                        (left != null ? left.getClass().getSimpleName() : "null") + " and " +
-                        (right != null ? right.getClass().getSimpleName() : "null"));
-            }
+        } else if (expr instanceof BinaryExpression binExpr) {
+            Object left = evaluate(binExpr.left, frame);
+            long leftBits = prim;
+            Object right = evaluate(binExpr.right, frame);
+            return binary(binExpr.operator, left, leftBits, right, prim);
         } else if (expr instanceof UnaryExpression unary) {
-            Object operand = evaluateExpression(unary.operand, currentClassName);
-            String op = unary.operator;
-
-            if (operand instanceof Integer i) {
-                return switch (op) {
-                    case "-" -> -i;
-                    case "+" -> +i;
-                    case "~" -> ~i;
-                    default -> throw new RuntimeException("Unsupported unary operator for int: " + op);
-                };
-            } else if (operand instanceof Boolean b) {
-                return switch (op) {
-                    case "!" -> !b;
-                    default -> throw new RuntimeException("Unsupported unary operator for boolean: " + op);
-                };
-            } else {
-                throw new RuntimeException("Unsupported unary operand type: " + operand.getClass().getSimpleName());
+            Object operand = evaluate(unary.operand, frame);
+            if (operand == Frame.INT) {
+                switch (unary.operator) {
+                    case MINUS -> prim = -(int) prim;
+                    case PLUS -> {
+                    }
+                    case TILDE -> prim = ~(int) prim;
+                    default -> {
+                        return Operators.unary(unary.operator, (int) prim);
+                    }
+                }
+                return Frame.INT;
             }
+            return Operators.unary(unary.operator, box(operand, prim));
         } else if (expr instanceof IncrementExpression inc) {
-            if (!locals.containsKey(inc.variableName())) {
+            int slot = inc.slot();
+            if (slot < 0) {
                 throw new RuntimeException("Undefined variable: " + inc.variableName());
             }
-            Object current = locals.get(inc.variableName());
-            if (!(current instanceof Integer)) {
+            Object current = frame.slots[slot];
+            if (inc.mayBeUnassigned()) {
+                Utility.checkAssigned(current, inc.variableName());
+            }
+            int value;
+            if (current == Frame.INT) {
+                value = (int) frame.prims[slot];
+            } else if (current instanceof Integer i) {
+                value = i;
+            } else {
                 throw new RuntimeException("Can only increment/decrement integers");
             }
-            int value = (int) current;
-            int newVal = inc.operator().equals("++") ? value + 1 : value - 1;
-            locals.put(inc.variableName(), newVal);
-            return inc.isPrefix() ? newVal : value;
+            int newVal = inc.operator() == Operator.INCREMENT ? value + 1 : value - 1;
+            frame.slots[slot] = Frame.INT;
+            frame.prims[slot] = newVal;
+            prim = inc.isPrefix() ? newVal : value;
+            return Frame.INT;
         } else if (expr instanceof AssignmentExpression assign) {
             String varName = assign.name();
-            Object value = evaluateExpression(assign.right(), currentClassName);
+            int slot = assign.slot();
+            if (assign.mayBeUnassigned()) {
+                Utility.checkAssigned(frame.slots[slot], varName);
+            }
+            Object value = evaluate(assign.right(), frame);
 
-            if (!locals.containsKey(varName) && !assign.isCompound()) {
+            if (slot < 0) {
                 throw new RuntimeException("Variable '" + varName + "' is not declared");
             }
 
             if (assign.isCompound()) {
-                Object current = locals.get(varName);
-                value = applyOperator(assign.operator(), current, value);
+                return compound(assign.operator(), frame, slot, value, prim);
             }
 
-            locals.put(varName, value);
+            store(frame, slot, value);
             return value;
         } else if (expr instanceof CompoundAssignmentExpression compoundAssign) {
             String varName = compoundAssign.variableName;
-            String op = compoundAssign.operator.replace("=", ""); // "+=" → "+"
-            Object right = evaluateExpression(compoundAssign.value, currentClassName);
+            int slot = compoundAssign.slot();
+            if (compoundAssign.mayBeUnassigned()) {
+                Utility.checkAssigned(frame.slots[slot], varName);
+            }
+            Object right = evaluate(compoundAssign.value, frame);
 
-            if (!locals.containsKey(varName)) {
+            if (slot < 0) {
                 throw new RuntimeException("Variable '" + varName + "' is not declared");
             }
-
-            Object left = locals.get(varName);
-            Object result = applyOperator(op, left, right);
-            locals.put(varName, result);
-            return result;
+            return compound(compoundAssign.operator, frame, slot, right, prim);
         } else if (expr instanceof FunctionCall funcCall) {
-            List<Object> args = new ArrayList<>();
-            for (ExpressionNode arg : funcCall.arguments()) {
-                args.add(evaluateExpression(arg, currentClassName));
-            }
-            return callMethod(currentClassName, funcCall.functionName(), args);
+            FunctionDeclaration func = resolveCall(funcCall.cache(), frame.classDecl, funcCall.functionName());
+            return invokeFunction(func, funcCall.arguments(), frame, frame.classDecl, frame.thisObject);
         } else if (expr instanceof ListLiteral listLiteral) {
-            List<Object> evaluatedElements = new ArrayList<>();
+            OakList evaluatedElements = new OakList(listLiteral.elements.size());
             for (ExpressionNode element : listLiteral.elements) {
-                Object value = evaluateExpression(element, currentClassName);
+                Object value = evaluateExpression(element, frame);
                 evaluatedElements.add(value);
             }
             return evaluatedElements;
+        } else if (expr instanceof CollectionLiteral collection) {
+            Object[] elements = new Object[collection.elements.size()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = evaluateExpression(collection.elements.get(i), frame);
+            }
+            return Builtins.collection(collection.kind, elements);
 
         } else if (expr instanceof ThisExpression) {
-            return locals.get("this");
+            return frame.thisObject;
         } else if (expr instanceof IndexExpression indexExpr) {
-            Object target = evaluateExpression(indexExpr.getTarget(), currentClassName);
-            Object indexObj = evaluateExpression(indexExpr.getIndex(), currentClassName);
-
-            if (!(indexObj instanceof Integer index)) {
-                throw new RuntimeException("Index must be an integer");
-            }
-
-            if (target instanceof List<?> list) {
-                if (index < 0 || index >= list.size()) {
-                    throw new RuntimeException("Index out of bounds: " + index);
-                }
-                return list.get(index);
-
-            } else if (target instanceof String str) {
-                if (index < 0 || index >= str.length()) {
-                    throw new RuntimeException("Index out of bounds: " + index);
-                }
-                return String.valueOf(str.charAt(index));
-
-            } else {
-                throw new RuntimeException(
-                        "Indexing requires a list or string, got: " + target.getClass().getSimpleName());
-            }
+            Object target = evaluateExpression(indexExpr.getTarget(), frame);
+            Object indexObj = evaluateExpression(indexExpr.getIndex(), frame);
+            return Builtins.index(target, indexObj);
         } else if (expr instanceof PropertyAccess propAccess) {
-            Object target = evaluateExpression(propAccess.target, currentClassName);
-            String property = propAccess.property;
-            if (target instanceof ObjectInstance instance) {
-                return instance.getField(property);
-            }
-
-            if (target instanceof List<?> list && property.equals("length")) {
-                return list.size();
-            }
-
-            throw new RuntimeException(
-                    "Property '" + property + "' not supported on " + target.getClass().getSimpleName());
+            Object target = evaluateExpression(propAccess.target, frame);
+            return Builtins.property(target, propAccess.property, propAccess.cache);
+        } else if (expr instanceof PropertyAssignment assign) {
+            Object target = evaluateExpression(assign.target, frame);
+            Object value = evaluateExpression(assign.value, frame);
+            return Builtins.setProperty(target, assign.property, assign.operator, value,
+                    assign.readCache, assign.writeCache);
         } else if (expr instanceof TernaryExpression ternary) {
-            Object cond = evaluateExpression(ternary.condition, currentClassName);
+            Object cond = evaluateExpression(ternary.condition, frame);
             if (!(cond instanceof Boolean)) {
                 throw new RuntimeException("Ternary condition must be a boolean");
             }
             return (Boolean) cond
-                    ? evaluateExpression(ternary.trueExpr, currentClassName)
-                    : evaluateExpression(ternary.falseExpr, currentClassName);
+                    ? evaluate(ternary.trueExpr, frame)
+                    : evaluate(ternary.falseExpr, frame);
         }
 
         else if (expr instanceof MethodCall methodCall) {
-            Object target = evaluateExpression(methodCall.target, currentClassName);
+            Object target = evaluateExpression(methodCall.target, frame);
             String method = methodCall.methodName;
-            List<Object> args = new ArrayList<>();
-            for (ExpressionNode arg : methodCall.arguments) {
-                args.add(evaluateExpression(arg, currentClassName));
-            }
-
-            if (target instanceof ArrayList<?> list) {
-                @SuppressWarnings("unchecked")
-                ArrayList<Object> mutableList = (ArrayList<Object>) list;
 
-                return switch (method) {
-                    case "append" -> {
-                        if (args.size() != 1)
-                            throw new RuntimeException("append expects 1 argument");
-                        mutableList.add(args.get(0));
-                        yield null;
-                    }
-                    case "pop" -> {
-                        if (!args.isEmpty())
-                            throw new RuntimeException("pop takes no arguments");
-                        if (mutableList.isEmpty())
-                            throw new RuntimeException("Cannot pop from empty list");
-                        yield mutableList.remove(mutableList.size() - 1);
-                    }
-                    case "remove" -> {
-                        if (args.size() != 1)
-                            throw new RuntimeException("remove expects 1 argument");
-                        if (!(args.get(0) instanceof Integer index))
-                            throw new RuntimeException("remove expects integer index");
-                        if (index < 0 || index >= mutableList.size())
-                            throw new RuntimeException("Index out of bounds");
-                        yield mutableList.remove((int) index);
-                    }
-                    case "insert" -> {
-                        if (args.size() != 2)
-                            throw new RuntimeException("insert expects 2 arguments: index and value");
-                        if (!(args.get(0) instanceof Integer index))
-                            throw new RuntimeException("insert expects integer index");
-                        if (index < 0 || index > mutableList.size())
-                            throw new RuntimeException("Index out of bounds");
-                        mutableList.add(index, args.get(1));
-                        yield null;
-                    }
-                    case "clear" -> {
-                        mutableList.clear();
-                        yield null;
-                    }
-                    case "indexOf" -> {
-                        if (args.size() != 1)
-                            throw new RuntimeException("indexOf expects 1 argument");
-                        int index = mutableList.indexOf(args.get(0));
-                        if (index == -1)
-                            throw new RuntimeException("Element not found in list");
-                        yield index;
-                    }
-                    case "contains" -> {
-                        if (args.size() != 1)
-                            throw new RuntimeException("contains expects 1 argument");
-                        yield mutableList.contains(args.get(0));
-                    }
-                    case "reverse" -> {
-                        if (!args.isEmpty())
-                            throw new RuntimeException("reverse takes no arguments");
-                        java.util.Collections.reverse(mutableList);
-                        yield null;
-                    }
-                    case "sort" -> {
-                        if (!args.isEmpty())
-                            throw new RuntimeException("sort takes no arguments");
-                        mutableList.sort(null); // natural order sort
-                        yield null;
-                    }
+            if (target instanceof ObjectInstance instance) {
+                ClassDeclaration receiver = instance.getClassDecl();
+                FunctionDeclaration func = resolveCall(methodCall.cache, receiver, method);
+                return invokeFunction(func, methodCall.arguments, frame, receiver, instance);
+            }
 
-                    default -> throw new RuntimeException("Unknown list method: " + method);
-                };
-            } else if (target instanceof String str) {
-                return switch (method) {
-                    case "length" -> {
-                        if (!args.isEmpty())
-                            throw new RuntimeException("length() takes no arguments");
-                        yield str.length();
-                    }
-                    case "toUpperCase" -> {
-                        if (!args.isEmpty())
-                            throw new RuntimeException("toUpperCase() takes no arguments");
-                        yield str.toUpperCase();
-                    }
-                    case "toLowerCase" -> {
-                        if (!args.isEmpty())
-                            throw new RuntimeException("toLowerCase() takes no arguments");
-                        yield str.toLowerCase();
-                    }
-                    case "substring" -> {
-                        if (args.size() == 1 && args.get(0) instanceof Integer start) {
-                            yield str.substring(start);
-                        } else if (args.size() == 2 && args.get(0) instanceof Integer start
-                                && args.get(1) instanceof Integer end) {
-                            yield str.substring(start, end);
-                        } else {
-                            throw new RuntimeException("substring expects 1 or 2 integer arguments");
-                        }
-                    }
-                    case "contains" -> {
-                        if (args.size() != 1 || !(args.get(0) instanceof String))
-                            throw new RuntimeException("contains expects 1 string argument");
-                        yield str.contains((String) args.get(0));
-                    }
-                    default -> throw new RuntimeException("Unknown string method: " + method);
-                };
+            List<Object> args = new ArrayList<>();
+            for (ExpressionNode arg : methodCall.arguments) {
+                args.add(evaluateExpression(arg, frame));
             }
 
-            throw new RuntimeException("Method '" + method + "' not supported on " + target.getClass().getSimpleName());
+            return Builtins.invoke(target, method, args, this, frame.classDecl, frame.thisObject);
         } else if (expr instanceof NewObjectExpression newExpr) {
             // Find the class declaration by name (you should have some way to get it)
             ClassDeclaration classDecl = findClassDeclaration(newExpr.getClassName());
@@ -671,77 +622,31 @@ public class Interpreter {
             }
 
             ObjectInstance instance = new ObjectInstance(classDecl);
-
-            List<Object> argValues = new ArrayList<>();
-            for (ExpressionNode arg : newExpr.getArguments()) {
-                argValues.add(evaluateExpression(arg, currentClassName));
-            }
-
-            callConstructor(instance, argValues);
-
+            callConstructor(instance, newExpr.getArguments(), frame);
             return instance;
         }
 
         throw new RuntimeException("Unsupported expression: " + expr.getClass().getSimpleName());
     }
 
-    private Object applyOperator(String operator, Object left, Object right) {
-        if (left instanceof Integer l && right instanceof Integer r) {
-            return switch (operator) {
-                case "+" -> l + r;
-                case "-" -> l - r;
-                case "*" -> l * r;
-                case "/" -> l / r;
-                case "%" -> l % r;
-                default -> throw new RuntimeException("Unsupported operator: " + operator);
-            };
-        }
-
-        if (left instanceof String l && operator.equals("+")) {
-            return l + right;
-        }
-
-        throw new RuntimeException("Invalid operands for operator '" + operator + "': " + left + ", " + right);
-    }
-
     public ClassDeclaration findClassDeclaration(String className) {
-        ClassDeclaration classDecl = classes.get(className);
-        if (classDecl == null) {
-            throw new RuntimeException("Class not found: " + className);
-        }
-        return classDecl;
+        return program.findClassDeclaration(className);
     }
 
-    private void callConstructor(ObjectInstance instance, List<Object> args) {
+    private void callConstructor(ObjectInstance instance, List<ExpressionNode> args, Frame caller) {
         ClassDeclaration classDecl = instance.getClassDecl();
 
-        // Find a method with the same name as the class (conventionally the
-        // constructor)
-        for (FunctionDeclaration method : classDecl.body().stream()
-                .filter(stmt -> stmt instanceof FunctionDeclaration)
-                .map(stmt -> (FunctionDeclaration) stmt)
-                .collect(Collectors.toList())) {
-            if (method.name().equals(classDecl.name())) {
-                // Match parameters count
-                if (method.parameters().size() != args.size()) {
-                    throw new RuntimeException("Constructor argument count mismatch");
-                }
-
-                // Prepare local environment for constructor
-                Map<String, Object> constructorLocals = new HashMap<>();
-
-                // Add parameters to local scope
-                for (int i = 0; i < method.parameters().size(); i++) {
-                    String paramName = method.parameters().get(i);
-                    constructorLocals.put(paramName, args.get(i));
-                }
-
-                // Execute constructor body
-                executeBlock(method.body(), constructorLocals, instance);
-                return;
-            }
+        // The constructor is the method with the same name as the class
+        FunctionDeclaration constructor = program.methodTable(classDecl.name()).constructor();
+        if (constructor == null) {
+            return;
+        }
+        if (constructor.parameters().size() != args.size()) {
+            throw new RuntimeException("Constructor argument count mismatch");
         }
 
+        // Execute constructor body in a pooled frame with 'this' bound
+        invokeFunction(constructor, args, caller, classDecl, instance);
     }
 
 }
@@ -0,0 +1,13 @@
+package org.example.compiler.interpreter;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.ObjectInstance;
+
+/**
+ * Implemented by each execution engine so that built-ins such as pipeline
+ * stages can call back into oak methods.
+ */
+public interface MethodCaller {
+    /** Calls method {@code name} of {@code cls} with {@code self} as {@code this}. */
+    Object callMethod(ClassDeclaration cls, ObjectInstance self, String name, Object[] args);
+}
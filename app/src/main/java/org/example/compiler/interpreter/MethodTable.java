@@ -0,0 +1,43 @@
+package org.example.compiler.interpreter;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.ast.StatementNode;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable name-to-method table for one class, built once when the program
+ * is loaded. The constructor is the method named after the class.
+ */
+public final class MethodTable {
+    private final ClassDeclaration classDecl;
+    private final Map<String, FunctionDeclaration> methods;
+    private final FunctionDeclaration constructor;
+
+    public MethodTable(ClassDeclaration classDecl) {
+        Map<String, FunctionDeclaration> table = new HashMap<>();
+        for (StatementNode member : classDecl.body()) {
+            // first declaration wins, matching the old linear scan
+            if (member instanceof FunctionDeclaration func) {
+                table.putIfAbsent(func.name(), func);
+            }
+        }
+        this.classDecl = classDecl;
+        this.methods = Map.copyOf(table);
+        this.constructor = table.get(classDecl.name());
+    }
+
+    public ClassDeclaration classDecl() {
+        return classDecl;
+    }
+
+    public FunctionDeclaration lookup(String methodName) {
+        return methods.get(methodName);
+    }
+
+    public FunctionDeclaration constructor() {
+        return constructor;
+    }
+}
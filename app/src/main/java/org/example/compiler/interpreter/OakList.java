@@ -0,0 +1,280 @@
+package org.example.compiler.interpreter;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The list value of oak. Elements are kept in the narrowest backing array
+ * that can hold them all: an {@code int[]} while every element is an
+ * {@link Integer}, a {@code double[]} while every element is a
+ * {@link Double}, and an {@code Object[]} otherwise. Storing a value the
+ * current strategy cannot hold moves the list to {@code Object[]} storage
+ * for good; only {@link #clear()} lets it specialize again. A {@link Rope}
+ * is flattened on the way in so elements compare like plain strings.
+ */
+public final class OakList extends AbstractList<Object> implements RandomAccess {
+    private static final byte EMPTY = 0;
+    private static final byte INTS = 1;
+    private static final byte DOUBLES = 2;
+    private static final byte OBJECTS = 3;
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private byte strategy = EMPTY;
+    private int[] ints;
+    private double[] doubles;
+    private Object[] objects;
+    private int size;
+    // Capacity to allocate when the first element picks a strategy
+    private final int initialCapacity;
+
+    public OakList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OakList(int initialCapacity) {
+        this.initialCapacity = Math.max(initialCapacity, 1);
+    }
+
+    /** A list of {@code values}, in the strategy their types allow. */
+    public static OakList of(Object[] values) {
+        OakList list = new OakList(values.length);
+        for (Object value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Object get(int index) {
+        Objects.checkIndex(index, size);
+        return switch (strategy) {
+            case INTS -> ints[index];
+            case DOUBLES -> doubles[index];
+            default -> objects[index];
+        };
+    }
+
+    @Override
+    public Object set(int index, Object value) {
+        value = Rope.flat(value);
+        Object old = get(index);
+        accept(value);
+        store(index, value);
+        return old;
+    }
+
+    @Override
+    public boolean add(Object value) {
+        value = Rope.flat(value);
+        modCount++;
+        accept(value);
+        ensureCapacity(size + 1);
+        store(size++, value);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Object value) {
+        Objects.checkIndex(index, size + 1);
+        value = Rope.flat(value);
+        modCount++;
+        accept(value);
+        ensureCapacity(size + 1);
+        Object array = array();
+        System.arraycopy(array, index, array, index + 1, size - index);
+        size++;
+        store(index, value);
+    }
+
+    @Override
+    public Object remove(int index) {
+        Object old = get(index);
+        modCount++;
+        Object array = array();
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        size--;
+        if (strategy == OBJECTS) {
+            objects[size] = null;
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        strategy = EMPTY;
+        ints = null;
+        doubles = null;
+        objects = null;
+        size = 0;
+    }
+
+    @Override
+    public int indexOf(Object value) {
+        value = Rope.flat(value);
+        switch (strategy) {
+            case INTS -> {
+                if (value instanceof Integer n) {
+                    int wanted = n;
+                    for (int i = 0; i < size; i++) {
+                        if (ints[i] == wanted) {
+                            return i;
+                        }
+                    }
+                }
+            }
+            case DOUBLES -> {
+                if (value instanceof Double d) {
+                    // Double.equals semantics: NaN finds NaN, 0.0 does not find -0.0
+                    long wanted = Double.doubleToLongBits(d);
+                    for (int i = 0; i < size; i++) {
+                        if (Double.doubleToLongBits(doubles[i]) == wanted) {
+                            return i;
+                        }
+                    }
+                }
+            }
+            case OBJECTS -> {
+                for (int i = 0; i < size; i++) {
+                    if (Objects.equals(objects[i], value)) {
+                        return i;
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return indexOf(value) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void sort(Comparator<? super Object> comparator) {
+        modCount++;
+        if (comparator == null && strategy == INTS) {
+            Arrays.sort(ints, 0, size);
+        } else if (comparator == null && strategy == DOUBLES) {
+            Arrays.sort(doubles, 0, size); // same order as Double.compareTo
+        } else if (strategy != EMPTY) {
+            generalize();
+            Arrays.sort(objects, 0, size, (Comparator) comparator);
+        }
+    }
+
+    /** Reverses the list in place without boxing primitive elements. */
+    public void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            switch (strategy) {
+                case INTS -> {
+                    int t = ints[i];
+                    ints[i] = ints[j];
+                    ints[j] = t;
+                }
+                case DOUBLES -> {
+                    double t = doubles[i];
+                    doubles[i] = doubles[j];
+                    doubles[j] = t;
+                }
+                default -> {
+                    Object t = objects[i];
+                    objects[i] = objects[j];
+                    objects[j] = t;
+                }
+            }
+        }
+    }
+
+    // ---- Strategies ----
+
+    private static byte strategyFor(Object value) {
+        if (value instanceof Integer) {
+            return INTS;
+        }
+        return value instanceof Double ? DOUBLES : OBJECTS;
+    }
+
+    /** Makes sure the current strategy can hold {@code value}, picking or generalizing it. */
+    private void accept(Object value) {
+        if (strategy == OBJECTS) {
+            return;
+        }
+        byte wanted = strategyFor(value);
+        if (strategy == EMPTY) {
+            strategy = wanted;
+            switch (wanted) {
+                case INTS -> ints = new int[initialCapacity];
+                case DOUBLES -> doubles = new double[initialCapacity];
+                default -> objects = new Object[initialCapacity];
+            }
+        } else if (wanted != strategy) {
+            generalize();
+        }
+    }
+
+    private void generalize() {
+        if (strategy == OBJECTS) {
+            return;
+        }
+        Object[] boxed = new Object[Math.max(capacity(), DEFAULT_CAPACITY)];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = get(i);
+        }
+        strategy = OBJECTS;
+        objects = boxed;
+        ints = null;
+        doubles = null;
+    }
+
+    private void store(int index, Object value) {
+        switch (strategy) {
+            case INTS -> ints[index] = (Integer) value;
+            case DOUBLES -> doubles[index] = (Double) value;
+            default -> objects[index] = value;
+        }
+    }
+
+    private Object array() {
+        return switch (strategy) {
+            case INTS -> ints;
+            case DOUBLES -> doubles;
+            case OBJECTS -> objects;
+            default -> new Object[0];
+        };
+    }
+
+    private int capacity() {
+        return switch (strategy) {
+            case INTS -> ints.length;
+            case DOUBLES -> doubles.length;
+            case OBJECTS -> objects.length;
+            default -> 0;
+        };
+    }
+
+    private void ensureCapacity(int needed) {
+        int capacity = capacity();
+        if (needed <= capacity) {
+            return;
+        }
+        int grown = Math.max(needed, capacity + (capacity >> 1));
+        switch (strategy) {
+            case INTS -> ints = Arrays.copyOf(ints, grown);
+            case DOUBLES -> doubles = Arrays.copyOf(doubles, grown);
+            default -> objects = Arrays.copyOf(objects, grown);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.compiler.interpreter;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The map value of oak: a {@link HashTable} of keys and values that
+ * iterates in insertion order.
+ */
+public final class OakMap extends AbstractMap<Object, Object> {
+    private final HashTable table = new HashTable(true);
+    private int modCount;
+
+    /** A map of {@code keysAndValues}, which alternate key, value, key, value... */
+    public static OakMap of(Object[] keysAndValues) {
+        if (keysAndValues.length % 2 != 0) {
+            throw new RuntimeException("map expects key, value pairs");
+        }
+        OakMap map = new OakMap();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return table.contains(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        int entry = table.find(key);
+        return entry < 0 ? null : table.value(entry);
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        value = Rope.flat(value);
+        int entry = table.find(key);
+        if (entry >= 0) {
+            Object old = table.value(entry);
+            table.setValue(entry, value);
+            return old;
+        }
+        modCount++;
+        table.put(key, value);
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int entry = table.remove(key);
+        if (entry < 0) {
+            return null;
+        }
+        modCount++;
+        return table.value(entry);
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        table.clear();
+    }
+
+    /** Keys in insertion order, as a new list. */
+    public OakList keyList() {
+        OakList keys = new OakList(size());
+        for (int entry = 0; entry < table.entryLimit(); entry++) {
+            if (table.isLive(entry)) {
+                keys.add(table.key(entry));
+            }
+        }
+        return keys;
+    }
+
+    /** Values in insertion order, as a new list. */
+    public OakList valueList() {
+        OakList values = new OakList(size());
+        for (int entry = 0; entry < table.entryLimit(); entry++) {
+            if (table.isLive(entry)) {
+                values.add(table.value(entry));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return table.size();
+            }
+
+            @Override
+            public Iterator<Map.Entry<Object, Object>> iterator() {
+                return new Iterator<>() {
+                    private final int expected = modCount;
+                    private int entry = skipRemoved(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return entry < table.entryLimit();
+                    }
+
+                    @Override
+                    public Map.Entry<Object, Object> next() {
+                        if (modCount != expected) {
+                            throw new ConcurrentModificationException();
+                        }
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<Object, Object> next = new SimpleImmutableEntry<>(table.key(entry),
+                                table.value(entry));
+                        entry = skipRemoved(entry + 1);
+                        return next;
+                    }
+                };
+            }
+        };
+    }
+
+    /** Iterates the keys in insertion order, as a for-each loop over a map does. */
+    Iterator<Object> keyIterator() {
+        return new Iterator<>() {
+            private final int expected = modCount;
+            private int entry = skipRemoved(0);
+
+            @Override
+            public boolean hasNext() {
+                return entry < table.entryLimit();
+            }
+
+            @Override
+            public Object next() {
+                if (modCount != expected) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object key = table.key(entry);
+                entry = skipRemoved(entry + 1);
+                return key;
+            }
+        };
+    }
+
+    private int skipRemoved(int entry) {
+        while (entry < table.entryLimit() && !table.isLive(entry)) {
+            entry++;
+        }
+        return entry;
+    }
+
+    @Override
+    public String toString() {
+        return Utility.valueToString(this);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.compiler.interpreter;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The value of {@code range(end)}, {@code range(start, end)} or
+ * {@code range(start, end, step)}: the ints from {@code start} up to but not
+ * including {@code end}. Elements are produced as they are iterated, so a
+ * range of any length takes constant memory.
+ */
+public final class OakRange implements Iterable<Object> {
+    private final int start;
+    private final int end;
+    private final int step;
+
+    public OakRange(int start, int end, int step) {
+        if (step == 0) {
+            throw new RuntimeException("range step cannot be zero");
+        }
+        this.start = start;
+        this.end = end;
+        this.step = step;
+    }
+
+    /** Builds a range from the one to three arguments of {@code range(...)}. */
+    public static OakRange of(Object[] args) {
+        if (args.length < 1 || args.length > 3) {
+            throw new RuntimeException("range expects 1 to 3 integer arguments");
+        }
+        int[] bounds = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            if (!(args[i] instanceof Integer n)) {
+                throw new RuntimeException("range expects integer arguments");
+            }
+            bounds[i] = n;
+        }
+        return switch (bounds.length) {
+            case 1 -> new OakRange(0, bounds[0], 1);
+            case 2 -> new OakRange(bounds[0], bounds[1], 1);
+            default -> new OakRange(bounds[0], bounds[1], bounds[2]);
+        };
+    }
+
+    public int size() {
+        long span = step > 0 ? (long) end - start : (long) start - end;
+        long stride = Math.abs((long) step);
+        return span <= 0 ? 0 : (int) ((span + stride - 1) / stride);
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new RuntimeException("Index out of bounds: " + index);
+        }
+        return start + index * step;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<>() {
+            private int remaining = size();
+            private int next = start;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Object next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                int value = next;
+                next += step;
+                remaining--;
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "range(" + start + ", " + end + ", " + step + ")";
+    }
+}
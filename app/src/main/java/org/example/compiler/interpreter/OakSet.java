@@ -0,0 +1,95 @@
+package org.example.compiler.interpreter;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The set value of oak: a {@link HashTable} of keys alone, iterating in
+ * insertion order.
+ */
+public final class OakSet extends AbstractSet<Object> {
+    private final HashTable table = new HashTable(false);
+    private int modCount;
+
+    public static OakSet of(Object[] elements) {
+        OakSet set = new OakSet();
+        for (Object element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return table.contains(element);
+    }
+
+    @Override
+    public boolean add(Object element) {
+        if (table.put(element, null)) {
+            modCount++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        if (table.remove(element) >= 0) {
+            modCount++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        table.clear();
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<>() {
+            private final int expected = modCount;
+            private int entry = skipRemoved(0);
+
+            @Override
+            public boolean hasNext() {
+                return entry < table.entryLimit();
+            }
+
+            @Override
+            public Object next() {
+                if (modCount != expected) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object element = table.key(entry);
+                entry = skipRemoved(entry + 1);
+                return element;
+            }
+        };
+    }
+
+    private int skipRemoved(int entry) {
+        while (entry < table.entryLimit() && !table.isLive(entry)) {
+            entry++;
+        }
+        return entry;
+    }
+
+    @Override
+    public String toString() {
+        return Utility.valueToString(this);
+    }
+}
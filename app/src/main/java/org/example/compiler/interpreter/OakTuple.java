@@ -0,0 +1,66 @@
+package org.example.compiler.interpreter;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * The tuple value of oak: a fixed sequence of values. It is immutable, so
+ * its hash code is computed once and it can be used as a map key or set
+ * element. A tuple only ever equals another tuple, never a list.
+ */
+public final class OakTuple implements Iterable<Object> {
+    private final Object[] elements;
+    private int hash;
+
+    public OakTuple(Object[] elements) {
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = Rope.flat(elements[i]);
+        }
+        this.elements = elements;
+    }
+
+    public int size() {
+        return elements.length;
+    }
+
+    public Object get(int index) {
+        return elements[index];
+    }
+
+    public int indexOf(Object value) {
+        for (int i = 0; i < elements.length; i++) {
+            if (Objects.equals(elements[i], value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return Arrays.asList(elements).iterator();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof OakTuple tuple && Arrays.equals(elements, tuple.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            for (Object element : elements) {
+                h = 31 * h + HashTable.hash(element);
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return Utility.valueToString(this);
+    }
+}
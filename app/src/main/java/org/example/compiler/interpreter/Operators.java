@@ -0,0 +1,224 @@
+package org.example.compiler.interpreter;
+
+import org.example.compiler.ast.Operator;
+
+import static org.example.compiler.ast.Operator.*;
+
+/**
+ * Operator semantics shared by every execution engine. Binary operators
+ * dispatch through a table indexed by operator and the type tags of both
+ * operands, so evaluating one is two array loads and a call.
+ */
+public final class Operators {
+    private Operators() {
+    }
+
+    @FunctionalInterface
+    private interface BinaryOp {
+        Object apply(Object left, Object right);
+    }
+
+    private static final int INT = 0, DOUBLE = 1, BOOLEAN = 2, STRING = 3, OTHER = 4, TAGS = 5;
+
+    private static final BinaryOp[][][] BINARY = new BinaryOp[Operator.values().length][TAGS][TAGS];
+
+    static {
+        for (Operator op : Operator.values()) {
+            BinaryOp fallback = fallback(op);
+            for (int l = 0; l < TAGS; l++) {
+                for (int r = 0; r < TAGS; r++) {
+                    BINARY[op.ordinal()][l][r] = fallback;
+                }
+            }
+            BINARY[op.ordinal()][INT][INT] = unsupported("integers", op);
+            BINARY[op.ordinal()][BOOLEAN][BOOLEAN] = unsupported("booleans", op);
+            BINARY[op.ordinal()][DOUBLE][DOUBLE] = unsupported("doubles", op);
+            BINARY[op.ordinal()][STRING][STRING] = unsupported("strings", op);
+        }
+
+        ints(PLUS, (l, r) -> l + r);
+        ints(MINUS, (l, r) -> l - r);
+        ints(STAR, (l, r) -> l * r);
+        ints(SLASH, (l, r) -> {
+            if (r == 0)
+                throw new ArithmeticException("Division by zero");
+            return l / r;
+        });
+        ints(POWER, (l, r) -> {
+            if (r < 0)
+                throw new ArithmeticException("Negative exponent not supported for integers");
+            return (int) Math.pow(l, r);
+        });
+        ints(PERCENT, (l, r) -> {
+            if (r == 0)
+                throw new ArithmeticException("Modulus by zero");
+            return l % r;
+        });
+        ints(AMP, (l, r) -> l & r);
+        ints(PIPE, (l, r) -> l | r);
+        ints(CARET, (l, r) -> l ^ r);
+        ints(SHL, (l, r) -> l << r);
+        ints(SHR, (l, r) -> l >> r);
+        ints(USHR, (l, r) -> l >>> r);
+        ints(EQ, (l, r) -> l == r);
+        ints(NE, (l, r) -> l != r);
+        ints(GT, (l, r) -> l > r);
+        ints(LT, (l, r) -> l < r);
+        ints(GE, (l, r) -> l >= r);
+        ints(LE, (l, r) -> l <= r);
+
+        booleans(AND, (l, r) -> l && r);
+        booleans(OR, (l, r) -> l || r);
+        booleans(AMP, (l, r) -> l & r);
+        booleans(PIPE, (l, r) -> l | r);
+        booleans(EQ, (l, r) -> l == r);
+        booleans(NE, (l, r) -> l != r);
+
+        doubles(PLUS, (l, r) -> l + r);
+        doubles(MINUS, (l, r) -> l - r);
+        doubles(STAR, (l, r) -> l * r);
+        doubles(SLASH, (l, r) -> {
+            if (r == 0.0)
+                throw new ArithmeticException("Division by zero");
+            return l / r;
+        });
+        doubles(POWER, (l, r) -> {
+            if (r < 0)
+                throw new ArithmeticException("Negative exponent not supported for doubles");
+            return Math.pow(l, r);
+        });
+        doubles(PERCENT, (l, r) -> {
+            if (r == 0.0)
+                throw new ArithmeticException("Modulus by zero");
+            return l % r;
+        });
+        doubles(EQ, (l, r) -> l == r);
+        doubles(NE, (l, r) -> l != r);
+        doubles(GT, (l, r) -> l > r);
+        doubles(LT, (l, r) -> l < r);
+        doubles(GE, (l, r) -> l >= r);
+        doubles(LE, (l, r) -> l <= r);
+
+        // Concatenation keeps ropes unflattened; every other string operator compares flat strings
+        BINARY[PLUS.ordinal()][STRING][STRING] = Rope::concat;
+        strings(EQ, (l, r) -> l.equals(r));
+        strings(NE, (l, r) -> !l.equals(r));
+        strings(LT, (l, r) -> l.compareTo(r) < 0);
+        strings(GT, (l, r) -> l.compareTo(r) > 0);
+        strings(LE, (l, r) -> l.compareTo(r) <= 0);
+        strings(GE, (l, r) -> l.compareTo(r) >= 0);
+    }
+
+    private interface IntOp {
+        Object apply(int left, int right);
+    }
+
+    private interface DoubleOp {
+        Object apply(double left, double right);
+    }
+
+    private interface BooleanOp {
+        Object apply(boolean left, boolean right);
+    }
+
+    private interface StringOp {
+        Object apply(String left, String right);
+    }
+
+    private static void ints(Operator op, IntOp fn) {
+        BINARY[op.ordinal()][INT][INT] = (l, r) -> fn.apply((Integer) l, (Integer) r);
+    }
+
+    private static void doubles(Operator op, DoubleOp fn) {
+        BINARY[op.ordinal()][DOUBLE][DOUBLE] = (l, r) -> fn.apply((Double) l, (Double) r);
+    }
+
+    private static void booleans(Operator op, BooleanOp fn) {
+        BINARY[op.ordinal()][BOOLEAN][BOOLEAN] = (l, r) -> fn.apply((Boolean) l, (Boolean) r);
+    }
+
+    private static void strings(Operator op, StringOp fn) {
+        BINARY[op.ordinal()][STRING][STRING] = (l, r) -> fn.apply(l.toString(), r.toString());
+    }
+
+    private static BinaryOp unsupported(String types, Operator op) {
+        String message = "Unsupported operator for " + types + ": " + op.symbol();
+        return (l, r) -> {
+            throw new RuntimeException(message);
+        };
+    }
+
+    /** Mixed or non-primitive operands. */
+    private static BinaryOp fallback(Operator op) {
+        return switch (op) {
+            case EQ -> (l, r) -> l == null ? r == null : l.equals(r);
+            case NE -> (l, r) -> l == null ? r != null : !l.equals(r);
+            case PLUS -> (l, r) -> {
+                if (Rope.isString(l)) {
+                    return Rope.concat(l, r);
+                } else if (Rope.isString(r)) {
+                    return Rope.concat(String.valueOf(l), r);
+                }
+                throw unsupportedOperands(op, l, r);
+            };
+            default -> (l, r) -> {
+                throw unsupportedOperands(op, l, r);
+            };
+        };
+    }
+
+    private static RuntimeException unsupportedOperands(Operator op, Object left, Object right) {
+        return new RuntimeException("Unsupported operand types for operator '" + op.symbol() + "': " +
+                typeName(left) + " and " + typeName(right));
+    }
+
+    private static String typeName(Object value) {
+        return value == null ? "null" : Rope.flat(value).getClass().getSimpleName();
+    }
+
+    private static int tag(Object value) {
+        if (value instanceof Integer) {
+            return INT;
+        } else if (value instanceof Double) {
+            return DOUBLE;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof String || value instanceof Rope) {
+            return STRING;
+        }
+        return OTHER;
+    }
+
+    public static Object binary(Operator op, Object left, Object right) {
+        return BINARY[op.ordinal()][tag(left)][tag(right)].apply(left, right);
+    }
+
+    public static Object unary(Operator op, Object operand) {
+        if (operand instanceof Integer i) {
+            return switch (op) {
+                case MINUS -> -i;
+                case PLUS -> +i;
+                case TILDE -> ~i;
+                default -> throw new RuntimeException("Unsupported unary operator for int: " + op.symbol());
+            };
+        } else if (operand instanceof Boolean b) {
+            return switch (op) {
+                case NOT -> !b;
+                default -> throw new RuntimeException("Unsupported unary operator for boolean: " + op.symbol());
+            };
+        } else {
+            throw new RuntimeException("Unsupported unary operand type: " + typeName(operand));
+        }
+    }
+
+    /**
+     * {@code left op= right}: the same operator as {@link #binary}, except
+     * that {@code +=} onto a string always concatenates.
+     */
+    public static Object compound(Operator operator, Object left, Object right) {
+        if (operator == PLUS && Rope.isString(left)) {
+            return Rope.concat(left, right);
+        }
+        return binary(operator, left, right);
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.compiler.interpreter;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A lazy sequence: a source (a range, list or any other iterable value)
+ * followed by {@code map}, {@code filter} and {@code take} stages. Adding a
+ * stage returns a new pipeline and runs nothing. When the pipeline is
+ * iterated, reduced or collected, each source element passes through every
+ * stage inside one loop, so no intermediate lists are built and a pipeline
+ * over a range runs in constant memory.
+ */
+public final class Pipeline implements Iterable<Object> {
+    private static final byte MAP = 0;
+    private static final byte FILTER = 1;
+    private static final byte TAKE = 2;
+
+    private final Iterable<?> source;
+    private final byte[] kinds;
+    private final BoundMethod[] functions;
+    private final int[] limits;
+
+    private Pipeline(Iterable<?> source, byte[] kinds, BoundMethod[] functions, int[] limits) {
+        this.source = source;
+        this.kinds = kinds;
+        this.functions = functions;
+        this.limits = limits;
+    }
+
+    /** A pipeline over {@code source} with no stages yet. */
+    static Pipeline over(Iterable<?> source) {
+        return source instanceof Pipeline pipeline
+                ? pipeline
+                : new Pipeline(source, new byte[0], new BoundMethod[0], new int[0]);
+    }
+
+    Pipeline map(BoundMethod function) {
+        return with(MAP, function, 0);
+    }
+
+    Pipeline filter(BoundMethod predicate) {
+        return with(FILTER, predicate, 0);
+    }
+
+    Pipeline take(int count) {
+        if (count < 0) {
+            throw new RuntimeException("take expects a non-negative count");
+        }
+        return with(TAKE, null, count);
+    }
+
+    private Pipeline with(byte kind, BoundMethod function, int limit) {
+        int n = kinds.length;
+        byte[] k = Arrays.copyOf(kinds, n + 1);
+        BoundMethod[] f = Arrays.copyOf(functions, n + 1);
+        int[] l = Arrays.copyOf(limits, n + 1);
+        k[n] = kind;
+        f[n] = function;
+        l[n] = limit;
+        return new Pipeline(source, k, f, l);
+    }
+
+    /**
+     * Folds the elements left to right with {@code function(accumulator,
+     * element)}, starting from {@code initial}, or from the first element
+     * when {@code hasInitial} is false.
+     */
+    Object reduce(BoundMethod function, Object initial, boolean hasInitial) {
+        Iterator<Object> it = iterator();
+        Object accumulator = initial;
+        if (!hasInitial) {
+            if (!it.hasNext()) {
+                throw new RuntimeException("reduce of an empty sequence with no initial value");
+            }
+            accumulator = it.next();
+        }
+        while (it.hasNext()) {
+            accumulator = function.call(accumulator, it.next());
+        }
+        return accumulator;
+    }
+
+    OakList toList() {
+        OakList list = new OakList();
+        for (Object element : this) {
+            list.add(element);
+        }
+        return list;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<>() {
+            private final Iterator<?> elements = source.iterator();
+            private final int[] taken = new int[kinds.length];
+            private Object next;
+            private boolean ready;
+            // Set once a take stage has let its last element through
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready && !done) {
+                    advance();
+                }
+                return ready;
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                Object value = next;
+                next = null;
+                return value;
+            }
+
+            private void advance() {
+                elements:
+                while (elements.hasNext()) {
+                    Utility.checkInterrupted();
+                    Object value = elements.next();
+                    boolean last = false;
+                    for (int s = 0; s < kinds.length; s++) {
+                        switch (kinds[s]) {
+                            case MAP -> value = functions[s].call(value);
+                            case FILTER -> {
+                                if (!Utility.isTruthy(functions[s].call(value))) {
+                                    continue elements;
+                                }
+                            }
+                            default -> {
+                                if (taken[s] == limits[s]) {
+                                    done = true;
+                                    return;
+                                }
+                                last |= ++taken[s] == limits[s];
+                            }
+                        }
+                    }
+                    next = value;
+                    ready = true;
+                    done = last;
+                    return;
+                }
+                done = true;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "pipeline";
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.compiler.interpreter;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.ast.StatementNode;
+import org.example.compiler.jit.Jit;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The loaded form of a program that executions share: classes and their
+ * method tables, built once and never changed, plus the JIT profile. Each
+ * execution gets its own {@link Interpreter} for frames and other
+ * per-call state, so one program can run on many threads at once.
+ */
+public final class Program {
+    private final Map<String, MethodTable> methodTables; // declaration order decides which main runs
+    private final Jit jit = new Jit();
+
+    public Program(List<StatementNode> programBody) {
+        Map<String, MethodTable> tables = new LinkedHashMap<>();
+        for (StatementNode stmt : programBody) {
+            if (stmt instanceof ClassDeclaration cls) {
+                tables.put(cls.name(), new MethodTable(cls));
+            }
+        }
+        this.methodTables = Collections.unmodifiableMap(tables);
+    }
+
+    /** The table for {@code className}, or null if the program has no such class. */
+    public MethodTable methodTable(String className) {
+        return methodTables.get(className);
+    }
+
+    public ClassDeclaration findClassDeclaration(String className) {
+        MethodTable table = methodTables.get(className);
+        if (table == null) {
+            throw new RuntimeException("Class not found: " + className);
+        }
+        return table.classDecl();
+    }
+
+    public FunctionDeclaration findMethod(String className, String methodName) {
+        MethodTable table = methodTables.get(className);
+        if (table == null) {
+            throw new RuntimeException("Class not found: " + className);
+        }
+
+        FunctionDeclaration func = table.lookup(methodName);
+        if (func == null) {
+            throw new RuntimeException("Method " + methodName + " not found in class " + className);
+        }
+        return func;
+    }
+
+    /**
+     * Returns the first class that declares a {@code main} method.
+     */
+    public ClassDeclaration findMainClass() {
+        for (MethodTable table : methodTables.values()) {
+            if (table.lookup("main") != null) {
+                return table.classDecl();
+            }
+        }
+        throw new RuntimeException("No main method found in any class");
+    }
+
+    Jit jit() {
+        return jit;
+    }
+}
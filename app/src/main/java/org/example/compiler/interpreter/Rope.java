@@ -0,0 +1,89 @@
+package org.example.compiler.interpreter;
+
+/**
+ * A long oak string produced by {@code +} or {@code +=}, kept as a prefix of
+ * a growable buffer instead of a copied {@link String}. Concatenating onto
+ * the rope that ends at the buffer's current end appends in place, so a
+ * chain like {@code s += x} in a loop is amortized O(1) per step; any other
+ * rope is copied into a new buffer first. The characters are flattened into
+ * a {@code String} (once, then cached) only when something needs them:
+ * printing, comparing, indexing, string methods, or storing in a list, map,
+ * set or tuple.
+ */
+public final class Rope implements CharSequence {
+    /** Shorter concatenations stay plain strings; copying them is cheaper than a buffer. */
+    static final int MIN_LENGTH = 64;
+
+    private final StringBuilder buffer;
+    private final int length;
+    private String flat;
+
+    private Rope(StringBuilder buffer, int length) {
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    public static boolean isString(Object value) {
+        return value instanceof String || value instanceof Rope;
+    }
+
+    /** {@code value} itself, or the flattened string if it is a rope. */
+    public static Object flat(Object value) {
+        return value instanceof Rope rope ? rope.toString() : value;
+    }
+
+    /** {@code left + right} where {@code left} is a string or rope; {@code right} is converted as by {@code String.valueOf}. */
+    public static Object concat(Object left, Object right) {
+        CharSequence head = (CharSequence) left;
+        CharSequence tail = right instanceof CharSequence chars ? chars : String.valueOf(right);
+        int total = head.length() + tail.length();
+        if (total < MIN_LENGTH) {
+            return head.toString().concat(tail.toString());
+        }
+        if (head instanceof Rope rope && rope.length == rope.buffer.length()) {
+            rope.buffer.append(tail);
+            return new Rope(rope.buffer, total);
+        }
+        StringBuilder buffer = new StringBuilder(total * 2);
+        buffer.append(head).append(tail);
+        return new Rope(buffer, total);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index >= length) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        return buffer.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        String s = flat;
+        if (s == null) {
+            s = buffer.substring(0, length);
+            flat = s;
+        }
+        return s;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CharSequence chars && isString(chars) && toString().equals(chars.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+}
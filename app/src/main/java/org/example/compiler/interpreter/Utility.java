@@ -1,6 +1,38 @@
 package org.example.compiler.interpreter;
 
+import org.example.compiler.ast.FunctionDeclaration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
 public class Utility {
+    /**
+     * What a local holds before its first write, in a function where some
+     * read may find it so ({@link FunctionDeclaration#readsUnassigned()}).
+     */
+    public static final Object UNASSIGNED = new Object();
+
+    /** Fails a read the resolver marked when the local has not been written yet. */
+    public static void checkAssigned(Object value, String name) {
+        if (value == UNASSIGNED) {
+            throw new RuntimeException("Undefined variable: " + name);
+        }
+    }
+
+    /**
+     * Ends the run once its thread has been interrupted, as when an
+     * {@code oak serve} client disconnects. Every engine calls this on each
+     * loop iteration so a runaway script can be stopped.
+     */
+    public static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new RuntimeException("Interrupted");
+        }
+    }
+
     public static boolean isTruthy(Object value) {
         if (value == null) {
             return false;
@@ -14,11 +46,35 @@ public class Utility {
         if (value instanceof Double d) {
             return d != 0.0;
         }
-        if (value instanceof String s) {
+        if (value instanceof CharSequence s) {
             return !s.isEmpty();
         }
         // For any other object, consider it truthy (like JavaScript)
         return true;
     }
 
+    public static String valueToString(Object val) {
+        if (val instanceof List<?> list) {
+            return list.stream()
+                    .map(Utility::valueToString)
+                    .collect(Collectors.joining(", ", "[", "]"));
+        }
+        if (val instanceof Map<?, ?> map) {
+            return map.entrySet().stream()
+                    .map(e -> valueToString(e.getKey()) + ": " + valueToString(e.getValue()))
+                    .collect(Collectors.joining(", ", "{", "}"));
+        }
+        if (val instanceof Set<?> set) {
+            return set.stream()
+                    .map(Utility::valueToString)
+                    .collect(Collectors.joining(", ", "{", "}"));
+        }
+        if (val instanceof OakTuple tuple) {
+            return StreamSupport.stream(tuple.spliterator(), false)
+                    .map(Utility::valueToString)
+                    .collect(Collectors.joining(", ", "(", ")"));
+        }
+        return String.valueOf(val); // handles primitives, strings, null
+    }
+
 }
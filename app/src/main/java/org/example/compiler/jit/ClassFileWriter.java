@@ -0,0 +1,313 @@
+package org.example.compiler.jit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Just enough of a class-file writer for the JIT: a constant pool, static
+ * methods and their Code attributes. Emits version 49 class files so no
+ * StackMapTable is needed.
+ */
+final class ClassFileWriter {
+    private static final int VERSION = 49;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolCount = 1;
+
+    private final String className;
+    private final List<byte[]> methods = new ArrayList<>();
+
+    ClassFileWriter(String className) {
+        this.className = className;
+    }
+
+    String className() {
+        return className;
+    }
+
+    Code method(String name, String descriptor, int maxLocals) {
+        return new Code(name, descriptor, maxLocals);
+    }
+
+    byte[] toByteArray() {
+        int thisClass = classRef(className);
+        int superClass = classRef("java/lang/Object");
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(poolCount);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); // interfaces
+            out.writeShort(0); // fields
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+            out.writeShort(0); // attributes
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ---- constant pool ----
+
+    private int constant(String key, int tag, Object... parts) {
+        Integer index = poolIndex.get(key);
+        if (index != null) {
+            return index;
+        }
+        try {
+            poolOut.writeByte(tag);
+            for (Object part : parts) {
+                if (part instanceof String s) {
+                    poolOut.writeUTF(s);
+                } else {
+                    poolOut.writeShort((Integer) part);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        poolIndex.put(key, poolCount);
+        return poolCount++;
+    }
+
+    int utf8(String value) {
+        return constant("U" + value, 1, value);
+    }
+
+    int integer(int value) {
+        Integer index = poolIndex.get("I" + value);
+        if (index != null) {
+            return index;
+        }
+        try {
+            poolOut.writeByte(3);
+            poolOut.writeInt(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        poolIndex.put("I" + value, poolCount);
+        return poolCount++;
+    }
+
+    int classRef(String internalName) {
+        int name = utf8(internalName);
+        return constant("C" + internalName, 7, name);
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int n = utf8(name);
+        int d = utf8(descriptor);
+        return constant("N" + name + ":" + descriptor, 12, n, d);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        int c = classRef(owner);
+        int nt = nameAndType(name, descriptor);
+        return constant("M" + owner + "." + name + descriptor, 10, c, nt);
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        int c = classRef(owner);
+        int nt = nameAndType(name, descriptor);
+        return constant("F" + owner + "." + name + descriptor, 9, c, nt);
+    }
+
+    /**
+     * A branch target inside one method.
+     */
+    static final class Label {
+        private int position = -1;
+        private final List<int[]> fixups = new ArrayList<>(); // {instruction, offset slot}
+    }
+
+    /**
+     * Bytecode for one public static method. Tracks the operand stack depth
+     * so max_stack can be written without a separate analysis pass.
+     */
+    final class Code {
+        private final String name;
+        private final String descriptor;
+        private final int maxLocals;
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        private final List<Label> labels = new ArrayList<>();
+        private int stack;
+        private int maxStack;
+
+        private Code(String name, String descriptor, int maxLocals) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.maxLocals = maxLocals;
+        }
+
+        private void adjust(int delta) {
+            stack += delta;
+            maxStack = Math.max(maxStack, stack);
+        }
+
+        /** Resets the tracked depth where control does not fall through. */
+        void setStack(int depth) {
+            stack = depth;
+        }
+
+        int stack() {
+            return stack;
+        }
+
+        void op(int opcode, int delta) {
+            code.write(opcode);
+            adjust(delta);
+        }
+
+        private void u1(int value) {
+            code.write(value);
+        }
+
+        private void u2(int value) {
+            code.write(value >>> 8);
+            code.write(value);
+        }
+
+        void iconst(int value) {
+            if (value >= -1 && value <= 5) {
+                u1(Opcodes.ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                u1(Opcodes.BIPUSH);
+                u1(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                u1(Opcodes.SIPUSH);
+                u2(value);
+            } else {
+                u1(Opcodes.LDC_W);
+                u2(integer(value));
+            }
+            adjust(1);
+        }
+
+        void iload(int local) {
+            u1(Opcodes.ILOAD);
+            u1(local);
+            adjust(1);
+        }
+
+        void istore(int local) {
+            u1(Opcodes.ISTORE);
+            u1(local);
+            adjust(-1);
+        }
+
+        void aload(int local) {
+            u1(Opcodes.ALOAD);
+            u1(local);
+            adjust(1);
+        }
+
+        void iinc(int local, int amount) {
+            u1(Opcodes.IINC);
+            u1(local);
+            u1(amount);
+        }
+
+        void invokestatic(String owner, String name, String descriptor, int delta) {
+            u1(Opcodes.INVOKESTATIC);
+            u2(methodRef(owner, name, descriptor));
+            adjust(delta);
+        }
+
+        void invokevirtual(String owner, String name, String descriptor, int delta) {
+            u1(Opcodes.INVOKEVIRTUAL);
+            u2(methodRef(owner, name, descriptor));
+            adjust(delta);
+        }
+
+        void getstatic(String owner, String name, String descriptor) {
+            u1(Opcodes.GETSTATIC);
+            u2(fieldRef(owner, name, descriptor));
+            adjust(1);
+        }
+
+        void checkcast(String internalName) {
+            u1(Opcodes.CHECKCAST);
+            u2(classRef(internalName));
+        }
+
+        void jump(int opcode, Label target) {
+            int at = code.size();
+            u1(opcode);
+            target.fixups.add(new int[] { at, code.size() });
+            u2(0);
+            if (!labels.contains(target)) {
+                labels.add(target);
+            }
+            if (opcode >= Opcodes.IF_ICMPEQ && opcode <= Opcodes.IF_ICMPLE) {
+                adjust(-2);
+            } else if (opcode != Opcodes.GOTO) {
+                adjust(-1);
+            }
+        }
+
+        void bind(Label label) {
+            label.position = code.size();
+            if (!labels.contains(label)) {
+                labels.add(label);
+            }
+        }
+
+        /** Patches branch offsets and appends the finished method to the class. */
+        void finish() {
+            byte[] bytes = code.toByteArray();
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalStateException("Method too large for 16-bit branches");
+            }
+            for (Label label : labels) {
+                for (int[] fixup : label.fixups) {
+                    if (label.position < 0) {
+                        throw new IllegalStateException("Unbound label in " + name);
+                    }
+                    int offset = label.position - fixup[0];
+                    bytes[fixup[1]] = (byte) (offset >>> 8);
+                    bytes[fixup[1] + 1] = (byte) offset;
+                }
+            }
+
+            try {
+                ByteArrayOutputStream method = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(method);
+                out.writeShort(ACC_PUBLIC | ACC_STATIC);
+                out.writeShort(utf8(name));
+                out.writeShort(utf8(descriptor));
+                out.writeShort(1);
+                out.writeShort(utf8("Code"));
+                out.writeInt(12 + bytes.length);
+                out.writeShort(maxStack);
+                out.writeShort(maxLocals);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                out.writeShort(0); // exception table
+                out.writeShort(0); // attributes
+                methods.add(method.toByteArray());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.compiler.jit;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Entry point into a JIT-compiled function. Callers check {@link #accepts}
+ * first and interpret the function themselves when it returns false.
+ */
+public final class CompiledMethod {
+    private final MethodHandle entry;
+    private final int paramCount;
+    private final boolean prints;
+
+    CompiledMethod(MethodHandle entry, int paramCount, boolean prints) {
+        this.entry = entry;
+        this.paramCount = paramCount;
+        this.prints = prints;
+    }
+
+    /** Whether the code prints; it always prints to {@link System#out}. */
+    public boolean prints() {
+        return prints;
+    }
+
+    /** The compiled code only handles int arguments. */
+    public boolean accepts(Object[] args) {
+        for (int i = 0; i < paramCount; i++) {
+            if (!(args[i] instanceof Integer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Object invoke(Object[] args) {
+        try {
+            return (Object) entry.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.compiler.jit;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.interpreter.MethodTable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts invocations per function and compiles a function to a hidden JVM
+ * class once it crosses the threshold. The threshold comes from the
+ * {@code oak.jit.threshold} system property; zero or less disables the JIT.
+ * One Jit serves every execution of a program, possibly on several threads.
+ */
+public final class Jit {
+    public static final int DEFAULT_THRESHOLD = 1000;
+
+    private static final class Profile {
+        // Counted without a lock: a lost increment only delays compilation
+        int invocations;
+        volatile CompiledMethod compiled;
+    }
+
+    private final int threshold;
+    private final Map<FunctionDeclaration, Profile> profiles = new ConcurrentHashMap<>(); // identity: no equals()
+
+    public Jit() {
+        this(Integer.getInteger("oak.jit.threshold", DEFAULT_THRESHOLD));
+    }
+
+    public Jit(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Records one invocation and returns the compiled code, or null while the
+     * function is cold or could not be compiled.
+     */
+    public CompiledMethod profile(FunctionDeclaration func, ClassDeclaration classDecl) {
+        if (threshold <= 0) {
+            return null;
+        }
+        Profile profile = profiles.get(func);
+        if (profile == null) {
+            profile = profiles.computeIfAbsent(func, f -> new Profile());
+        }
+        if (profile.invocations < threshold && ++profile.invocations == threshold) {
+            profile.compiled = compile(func, classDecl);
+        }
+        return profile.compiled;
+    }
+
+    private static CompiledMethod compile(FunctionDeclaration func, ClassDeclaration classDecl) {
+        String className = Jit.class.getPackageName().replace('.', '/') + "/Oak$" + classDecl.name() + "$" + func.name();
+        JitCompiler compiler = new JitCompiler(func, new MethodTable(classDecl), className);
+        byte[] bytes = compiler.compile();
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodHandle entry = lookup.findStatic(lookup.lookupClass(), JitCompiler.BRIDGE_NAME,
+                    MethodType.methodType(Object.class, Object[].class));
+            return new CompiledMethod(entry, func.parameters().size(), compiler.prints());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null; // keep interpreting
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package org.example.compiler.jit;
+
+import org.example.compiler.ast.*;
+import org.example.compiler.interpreter.MethodTable;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+import static org.example.compiler.jit.Opcodes.*;
+
+/**
+ * Translates an int-only oak function into a class with two static methods:
+ * {@code body(I...)I} holding the translated code, and
+ * {@code call([Ljava/lang/Object;)Ljava/lang/Object;}, a boxing bridge the
+ * interpreter invokes. Every local lives in a JVM int local of the same slot.
+ *
+ * <p>Anything outside that subset (strings, lists, objects, calls to other
+ * functions, paths that fall off the end, reads of a local that is not
+ * assigned on every path to them) makes {@link #compile} return null and
+ * the function stays interpreted.
+ */
+final class JitCompiler {
+    static final String BRIDGE_NAME = "call";
+    static final String BRIDGE_DESCRIPTOR = "([Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String BODY_NAME = "body";
+    private static final String RUNTIME = "org/example/compiler/jit/JitRuntime";
+    private static final String INTERRUPTS = "org/example/compiler/interpreter/Utility";
+
+    /** Thrown while generating code to abandon an unsupported function. */
+    private static final class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private record Loop(ClassFileWriter.Label breakTarget, ClassFileWriter.Label continueTarget) {
+    }
+
+    private final FunctionDeclaration func;
+    private final MethodTable table;
+    private final ClassFileWriter writer;
+    private final String bodyDescriptor;
+    // Slots definitely assigned at the code being generated
+    private BitSet assigned = new BitSet();
+    private final Deque<Loop> loops = new ArrayDeque<>();
+    private ClassFileWriter.Code code;
+    private boolean prints;
+
+    JitCompiler(FunctionDeclaration func, MethodTable table, String className) {
+        this.func = func;
+        this.table = table;
+        this.writer = new ClassFileWriter(className);
+        this.bodyDescriptor = "(" + "I".repeat(func.parameters().size()) + ")I";
+    }
+
+    /**
+     * Returns the class file bytes, or null when the function uses anything
+     * the JIT does not handle.
+     */
+    byte[] compile() {
+        int params = func.parameters().size();
+        if (func.frameSize() > 255 || !exits(func.body())) {
+            return null;
+        }
+        try {
+            code = writer.method(BODY_NAME, bodyDescriptor, func.frameSize());
+            assigned.set(0, params);
+            for (int slot = params; slot < func.frameSize(); slot++) {
+                code.iconst(0);
+                code.istore(slot);
+            }
+            block(func.body());
+            code.finish();
+        } catch (Unsupported e) {
+            return null;
+        }
+
+        code = writer.method(BRIDGE_NAME, BRIDGE_DESCRIPTOR, 1);
+        for (int i = 0; i < params; i++) {
+            code.aload(0);
+            code.iconst(i);
+            code.op(AALOAD, -1);
+            code.checkcast("java/lang/Integer");
+            code.invokevirtual("java/lang/Integer", "intValue", "()I", 0);
+        }
+        code.invokestatic(writer.className(), BODY_NAME, bodyDescriptor, 1 - params);
+        code.invokestatic("java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", 0);
+        code.op(ARETURN, -1);
+        code.finish();
+        return writer.toByteArray();
+    }
+
+    /** Whether the compiled code prints, which it always does to {@link System#out}. */
+    boolean prints() {
+        return prints;
+    }
+
+    /** True when control never reaches the end of the block. */
+    private static boolean exits(List<StatementNode> block) {
+        if (block == null || block.isEmpty()) {
+            return false;
+        }
+        StatementNode last = block.get(block.size() - 1);
+        if (last instanceof ReturnStatement || last instanceof BreakStatement || last instanceof ContinueStatement) {
+            return true;
+        }
+        if (last instanceof IfStatement ifStmt) {
+            if (!exits(ifStmt.getThenBranch()) || !exits(ifStmt.getElseBranch())) {
+                return false;
+            }
+            if (ifStmt.getElseIfBranches() != null) {
+                for (ElseIfBranch branch : ifStmt.getElseIfBranches()) {
+                    if (!exits(branch.getBody())) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static int local(int slot) {
+        if (slot < 0) {
+            throw new Unsupported();
+        }
+        return slot;
+    }
+
+    // ---- statements ----
+
+    private void block(List<StatementNode> statements) {
+        for (StatementNode stmt : statements) {
+            statement(stmt);
+        }
+    }
+
+    private void statement(StatementNode stmt) {
+        if (stmt instanceof VarDeclaration varDecl) {
+            if (varDecl.value() == null) {
+                throw new Unsupported();
+            }
+            intValue(varDecl.value());
+            code.istore(local(varDecl.slot()));
+            assigned.set(varDecl.slot());
+        } else if (stmt instanceof PrintStatement print) {
+            prints = true;
+            code.getstatic("java/lang/System", "out", "Ljava/io/PrintStream;");
+            intValue(print.expression());
+            code.invokevirtual("java/io/PrintStream", "println", "(I)V", -2);
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            effect(exprStmt.expression());
+        } else if (stmt instanceof ReturnStatement ret) {
+            if (ret.value() == null) {
+                throw new Unsupported();
+            }
+            intValue(ret.value());
+            code.op(IRETURN, -1);
+        } else if (stmt instanceof IfStatement ifStmt) {
+            ifStatement(ifStmt);
+        } else if (stmt instanceof WhileStatement whileStmt) {
+            ClassFileWriter.Label top = new ClassFileWriter.Label();
+            ClassFileWriter.Label end = new ClassFileWriter.Label();
+            code.bind(top);
+            condition(whileStmt.getCondition(), end, false);
+            BitSet afterLoop = (BitSet) assigned.clone();
+            loopBody(whileStmt.getBody(), end, top);
+            code.invokestatic(INTERRUPTS, "checkInterrupted", "()V", 0);
+            code.jump(GOTO, top);
+            code.bind(end);
+            assigned = afterLoop;
+        } else if (stmt instanceof ForStatement forStmt && !forStmt.isForEach()) {
+            if (forStmt.getCondition() == null) {
+                throw new Unsupported();
+            }
+            if (forStmt.getInit() != null) {
+                statement(forStmt.getInit());
+            }
+            ClassFileWriter.Label top = new ClassFileWriter.Label();
+            ClassFileWriter.Label next = new ClassFileWriter.Label();
+            ClassFileWriter.Label end = new ClassFileWriter.Label();
+            code.bind(top);
+            condition(forStmt.getCondition(), end, false);
+            BitSet afterLoop = (BitSet) assigned.clone();
+            loopBody(forStmt.getBody(), end, next);
+            code.bind(next);
+            // reached from the end of the body or a continue, so only what held before the body is certain
+            assigned = (BitSet) afterLoop.clone();
+            if (forStmt.getIncrement() != null) {
+                effect(forStmt.getIncrement());
+            }
+            code.invokestatic(INTERRUPTS, "checkInterrupted", "()V", 0);
+            code.jump(GOTO, top);
+            code.bind(end);
+            assigned = afterLoop;
+        } else if (stmt instanceof BreakStatement && !loops.isEmpty()) {
+            code.jump(GOTO, loops.peek().breakTarget());
+        } else if (stmt instanceof ContinueStatement && !loops.isEmpty()) {
+            code.jump(GOTO, loops.peek().continueTarget());
+        } else {
+            throw new Unsupported();
+        }
+    }
+
+    private void loopBody(List<StatementNode> body, ClassFileWriter.Label breakTarget,
+            ClassFileWriter.Label continueTarget) {
+        loops.push(new Loop(breakTarget, continueTarget));
+        block(body);
+        loops.pop();
+    }
+
+    private void ifStatement(IfStatement ifStmt) {
+        ClassFileWriter.Label end = new ClassFileWriter.Label();
+        ClassFileWriter.Label next = new ClassFileWriter.Label();
+        condition(ifStmt.getCondition(), next, false);
+        // slots assigned on every branch that reaches the end; null while none does
+        BitSet atEnd = branch(ifStmt.getThenBranch(), end, null);
+
+        if (ifStmt.getElseIfBranches() != null) {
+            for (ElseIfBranch elseIf : ifStmt.getElseIfBranches()) {
+                code.bind(next);
+                next = new ClassFileWriter.Label();
+                condition(elseIf.getCondition(), next, false);
+                atEnd = branch(elseIf.getBody(), end, atEnd);
+            }
+        }
+
+        code.bind(next);
+        List<StatementNode> otherwise = ifStmt.getElseBranch();
+        if (otherwise != null) {
+            block(otherwise);
+        }
+        if (atEnd != null) {
+            if (otherwise == null || !exits(otherwise)) {
+                assigned.and(atEnd);
+            } else {
+                assigned = atEnd;
+            }
+        }
+        code.bind(end);
+    }
+
+    /**
+     * Generates one branch of an if statement, leaving {@link #assigned} as
+     * it was before the branch, and returns {@code atEnd} narrowed to what
+     * the branch assigns when it can fall through to the end.
+     */
+    private BitSet branch(List<StatementNode> body, ClassFileWriter.Label end, BitSet atEnd) {
+        BitSet before = (BitSet) assigned.clone();
+        block(body);
+        BitSet after = assigned;
+        assigned = before;
+        if (exits(body)) {
+            return atEnd;
+        }
+        code.jump(GOTO, end);
+        if (atEnd == null) {
+            return after;
+        }
+        atEnd.and(after);
+        return atEnd;
+    }
+
+    /** Evaluates an expression for its side effects only. */
+    private void effect(ExpressionNode expr) {
+        if (expr instanceof IncrementExpression inc) {
+            code.iinc(readable(inc.slot()), inc.operator() == Operator.INCREMENT ? 1 : -1);
+        } else if (expr instanceof AssignmentExpression assign && !assign.isCompound()) {
+            intValue(assign.right());
+            code.istore(local(assign.slot()));
+            assigned.set(assign.slot());
+        } else {
+            intValue(expr);
+            code.op(POP, -1);
+        }
+    }
+
+    // ---- expressions ----
+
+    private int readable(int slot) {
+        if (!assigned.get(local(slot))) {
+            throw new Unsupported();
+        }
+        return slot;
+    }
+
+    /** Pushes the int value of an expression. */
+    private void intValue(ExpressionNode expr) {
+        if (expr instanceof NumberLiteral number && number.value instanceof Integer value) {
+            code.iconst(value);
+        } else if (expr instanceof VariableReference ref) {
+            code.iload(readable(ref.slot()));
+        } else if (expr instanceof BinaryExpression bin && arithmetic(bin.operator) != 0) {
+            intValue(bin.left);
+            intValue(bin.right);
+            arithmeticOp(bin.operator);
+        } else if (expr instanceof UnaryExpression unary) {
+            intValue(unary.operand);
+            switch (unary.operator) {
+                case MINUS -> code.op(INEG, 0);
+                case PLUS -> {
+                }
+                case TILDE -> {
+                    code.iconst(-1);
+                    code.op(IXOR, -1);
+                }
+                default -> throw new Unsupported();
+            }
+        } else if (expr instanceof IncrementExpression inc) {
+            int slot = readable(inc.slot());
+            int amount = inc.operator() == Operator.INCREMENT ? 1 : -1;
+            if (inc.isPrefix()) {
+                code.iinc(slot, amount);
+                code.iload(slot);
+            } else {
+                code.iload(slot);
+                code.iinc(slot, amount);
+            }
+        } else if (expr instanceof AssignmentExpression assign && !assign.isCompound()) {
+            intValue(assign.right());
+            code.op(DUP, 1);
+            code.istore(local(assign.slot()));
+            assigned.set(assign.slot());
+        } else if (expr instanceof CompoundAssignmentExpression compound) {
+            int slot = readable(compound.slot());
+            if (arithmetic(compound.operator) == 0) {
+                throw new Unsupported();
+            }
+            code.iload(slot);
+            intValue(compound.value);
+            arithmeticOp(compound.operator);
+            code.op(DUP, 1);
+            code.istore(slot);
+        } else if (expr instanceof FunctionCall call) {
+            List<ExpressionNode> args = call.arguments();
+            int argCount = args == null ? 0 : args.size();
+            if (table.lookup(call.functionName()) != func || argCount != func.parameters().size()) {
+                throw new Unsupported();
+            }
+            for (int i = 0; i < argCount; i++) {
+                intValue(args.get(i));
+            }
+            code.invokestatic(writer.className(), BODY_NAME, bodyDescriptor, 1 - argCount);
+        } else if (expr instanceof TernaryExpression ternary) {
+            ClassFileWriter.Label otherwise = new ClassFileWriter.Label();
+            ClassFileWriter.Label end = new ClassFileWriter.Label();
+            condition(ternary.condition, otherwise, false);
+            BitSet beforeBranches = (BitSet) assigned.clone();
+            intValue(ternary.trueExpr);
+            BitSet afterTrue = assigned;
+            assigned = beforeBranches;
+            code.jump(GOTO, end);
+            code.setStack(code.stack() - 1);
+            code.bind(otherwise);
+            intValue(ternary.falseExpr);
+            assigned.and(afterTrue);
+            code.bind(end);
+        } else {
+            throw new Unsupported();
+        }
+    }
+
+    private static int arithmetic(Operator operator) {
+        return switch (operator) {
+            case PLUS -> IADD;
+            case MINUS -> ISUB;
+            case STAR -> IMUL;
+            case SLASH -> IDIV;
+            case PERCENT -> IREM;
+            case AMP -> IAND;
+            case PIPE -> IOR;
+            case CARET -> IXOR;
+            case SHL -> ISHL;
+            case SHR -> ISHR;
+            case USHR -> IUSHR;
+            default -> 0;
+        };
+    }
+
+    private void arithmeticOp(Operator operator) {
+        switch (operator) {
+            // the interpreter reports its own message for a zero divisor
+            case SLASH -> code.invokestatic(RUNTIME, "divide", "(II)I", -1);
+            case PERCENT -> code.invokestatic(RUNTIME, "modulo", "(II)I", -1);
+            default -> code.op(arithmetic(operator), -1);
+        }
+    }
+
+    private static int comparison(Operator operator) {
+        return switch (operator) {
+            case EQ -> IF_ICMPEQ;
+            case NE -> IF_ICMPNE;
+            case LT -> IF_ICMPLT;
+            case GE -> IF_ICMPGE;
+            case GT -> IF_ICMPGT;
+            case LE -> IF_ICMPLE;
+            default -> 0;
+        };
+    }
+
+    private static int negate(int opcode) {
+        return switch (opcode) {
+            case IF_ICMPEQ -> IF_ICMPNE;
+            case IF_ICMPNE -> IF_ICMPEQ;
+            case IF_ICMPLT -> IF_ICMPGE;
+            case IF_ICMPGE -> IF_ICMPLT;
+            case IF_ICMPGT -> IF_ICMPLE;
+            case IF_ICMPLE -> IF_ICMPGT;
+            default -> throw new IllegalArgumentException();
+        };
+    }
+
+    /** Jumps to {@code target} when the boolean expression equals {@code when}. */
+    private void condition(ExpressionNode expr, ClassFileWriter.Label target, boolean when) {
+        if (expr instanceof BooleanLiteral bool) {
+            if (bool.value == when) {
+                code.jump(GOTO, target);
+            }
+        } else if (expr instanceof BinaryExpression bin && comparison(bin.operator) != 0) {
+            intValue(bin.left);
+            intValue(bin.right);
+            int opcode = comparison(bin.operator);
+            code.jump(when ? opcode : negate(opcode), target);
+        } else if (expr instanceof BinaryExpression bin && (bin.operator == Operator.AND || bin.operator == Operator.OR)) {
+            // both sides are always evaluated, as in the interpreter
+            booleanValue(bin.left);
+            booleanValue(bin.right);
+            code.op(bin.operator == Operator.AND ? IAND : IOR, -1);
+            code.jump(when ? IFNE : IFEQ, target);
+        } else if (expr instanceof UnaryExpression unary && unary.operator == Operator.NOT) {
+            condition(unary.operand, target, !when);
+        } else {
+            throw new Unsupported();
+        }
+    }
+
+    /** Pushes 1 or 0 for a boolean expression. */
+    private void booleanValue(ExpressionNode expr) {
+        ClassFileWriter.Label isFalse = new ClassFileWriter.Label();
+        ClassFileWriter.Label end = new ClassFileWriter.Label();
+        condition(expr, isFalse, false);
+        code.iconst(1);
+        code.jump(GOTO, end);
+        code.setStack(code.stack() - 1);
+        code.bind(isFalse);
+        code.iconst(0);
+        code.bind(end);
+    }
+}
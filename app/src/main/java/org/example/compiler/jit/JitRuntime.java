@@ -0,0 +1,24 @@
+package org.example.compiler.jit;
+
+/**
+ * Helpers called from JIT-compiled code where plain JVM instructions would
+ * report errors differently from the interpreter.
+ */
+public final class JitRuntime {
+    private JitRuntime() {
+    }
+
+    public static int divide(int left, int right) {
+        if (right == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return left / right;
+    }
+
+    public static int modulo(int left, int right) {
+        if (right == 0) {
+            throw new ArithmeticException("Modulus by zero");
+        }
+        return left % right;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.Utility;
+
+/**
+ * Guards a read, increment or compound assignment of a local the resolver
+ * marked as possibly unassigned: fails as an undefined variable when the
+ * slot has not been written yet, otherwise runs the access.
+ */
+public final class AssignedCheckNode extends ExprNode {
+    private final int slot;
+    private final String name;
+    private ExprNode access;
+
+    public AssignedCheckNode(int slot, String name, ExprNode access) {
+        this.slot = slot;
+        this.name = name;
+        this.access = adopt(access);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        Utility.checkAssigned(frame.get(slot), name);
+        return access.execute(frame);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        access = (ExprNode) newChild;
+    }
+}
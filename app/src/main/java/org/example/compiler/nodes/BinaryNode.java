@@ -0,0 +1,217 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.Operator;
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.Operators;
+import org.example.compiler.interpreter.Rope;
+
+/**
+ * Binary operator node. It starts {@link Uninitialized}, rewrites itself on
+ * first execution into a variant specialized for the operand types it saw,
+ * and falls back to {@link Generic} for good once those types change.
+ */
+public abstract class BinaryNode extends ExprNode {
+    protected final Operator operator;
+    protected ExprNode left;
+    protected ExprNode right;
+
+    // The operands are adopted by adoptOperands once the node is built, so construction never publishes this
+    protected BinaryNode(Operator operator, ExprNode left, ExprNode right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    public static BinaryNode create(Operator operator, ExprNode left, ExprNode right) {
+        return adoptOperands(new Uninitialized(operator, left, right));
+    }
+
+    private static BinaryNode adoptOperands(BinaryNode node) {
+        node.adopt(node.left);
+        node.adopt(node.right);
+        return node;
+    }
+
+    @Override
+    public final Object execute(Frame frame) {
+        Object l = left.execute(frame);
+        Object r = right.execute(frame);
+        return executeWith(l, r);
+    }
+
+    protected abstract Object executeWith(Object l, Object r);
+
+    /**
+     * Gives up on specialization; the operands are already evaluated, so they
+     * are handed over rather than executed again.
+     */
+    protected final Object generalize(Object l, Object r) {
+        return replace(adoptOperands(new Generic(operator, left, right))).executeWith(l, r);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (left == oldChild) {
+            left = (ExprNode) newChild;
+        } else {
+            right = (ExprNode) newChild;
+        }
+    }
+
+    static final class Uninitialized extends BinaryNode {
+        Uninitialized(Operator operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        protected Object executeWith(Object l, Object r) {
+            return replace(adoptOperands(specialize(l, r))).executeWith(l, r);
+        }
+
+        private BinaryNode specialize(Object l, Object r) {
+            if (l instanceof Integer && r instanceof Integer) {
+                switch (operator) {
+                    case PLUS:
+                        return new IntAdd(left, right);
+                    case MINUS:
+                        return new IntSub(left, right);
+                    case STAR:
+                        return new IntMul(left, right);
+                    case LT, LE, GT, GE, EQ, NE:
+                        return new IntCompare(operator, left, right);
+                    default:
+                        break;
+                }
+            } else if (l instanceof Double && r instanceof Double) {
+                switch (operator) {
+                    case PLUS, MINUS, STAR:
+                        return new DoubleArithmetic(operator, left, right);
+                    default:
+                        break;
+                }
+            } else if (Rope.isString(l) && Rope.isString(r) && operator == Operator.PLUS) {
+                return new StringConcat(left, right);
+            }
+            return new Generic(operator, left, right);
+        }
+    }
+
+    static final class IntAdd extends BinaryNode {
+        IntAdd(ExprNode left, ExprNode right) {
+            super(Operator.PLUS, left, right);
+        }
+
+        @Override
+        protected Object executeWith(Object l, Object r) {
+            if (l instanceof Integer a && r instanceof Integer b) {
+                return a + b;
+            }
+            return generalize(l, r);
+        }
+    }
+
+    static final class IntSub extends BinaryNode {
+        IntSub(ExprNode left, ExprNode right) {
+            super(Operator.MINUS, left, right);
+        }
+
+        @Override
+        protected Object executeWith(Object l, Object r) {
+            if (l instanceof Integer a && r instanceof Integer b) {
+                return a - b;
+            }
+            return generalize(l, r);
+        }
+    }
+
+    static final class IntMul extends BinaryNode {
+        IntMul(ExprNode left, ExprNode right) {
+            super(Operator.STAR, left, right);
+        }
+
+        @Override
+        protected Object executeWith(Object l, Object r) {
+            if (l instanceof Integer a && r instanceof Integer b) {
+                return a * b;
+            }
+            return generalize(l, r);
+        }
+    }
+
+    static final class IntCompare extends BinaryNode {
+        private static final int LT = 0, LE = 1, GT = 2, GE = 3, EQ = 4, NE = 5;
+        private final int kind;
+
+        IntCompare(Operator operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+            this.kind = switch (operator) {
+                case LT -> LT;
+                case LE -> LE;
+                case GT -> GT;
+                case GE -> GE;
+                case EQ -> EQ;
+                default -> NE;
+            };
+        }
+
+        @Override
+        protected Object executeWith(Object l, Object r) {
+            if (l instanceof Integer boxedA && r instanceof Integer boxedB) {
+                int a = boxedA;
+                int b = boxedB;
+                return switch (kind) {
+                    case LT -> a < b;
+                    case LE -> a <= b;
+                    case GT -> a > b;
+                    case GE -> a >= b;
+                    case EQ -> a == b;
+                    default -> a != b;
+                };
+            }
+            return generalize(l, r);
+        }
+    }
+
+    static final class DoubleArithmetic extends BinaryNode {
+        DoubleArithmetic(Operator operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        protected Object executeWith(Object l, Object r) {
+            if (l instanceof Double a && r instanceof Double b) {
+                return switch (operator) {
+                    case PLUS -> a + b;
+                    case MINUS -> a - b;
+                    default -> a * b;
+                };
+            }
+            return generalize(l, r);
+        }
+    }
+
+    static final class StringConcat extends BinaryNode {
+        StringConcat(ExprNode left, ExprNode right) {
+            super(Operator.PLUS, left, right);
+        }
+
+        @Override
+        protected Object executeWith(Object l, Object r) {
+            if (Rope.isString(l) && Rope.isString(r)) {
+                return Rope.concat(l, r);
+            }
+            return generalize(l, r);
+        }
+    }
+
+    static final class Generic extends BinaryNode {
+        Generic(Operator operator, ExprNode left, ExprNode right) {
+            super(operator, left, right);
+        }
+
+        @Override
+        protected Object executeWith(Object l, Object r) {
+            return Operators.binary(operator, l, r);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public final class BlockNode extends StmtNode {
+    private final StmtNode[] statements;
+
+    public BlockNode(StmtNode[] statements) {
+        this.statements = statements;
+        for (StmtNode stmt : statements) {
+            adopt(stmt);
+        }
+    }
+
+    @Override
+    public int execute(Frame frame) {
+        for (StmtNode stmt : statements) {
+            int status = stmt.execute(frame);
+            if (status != NORMAL) {
+                return status;
+            }
+        }
+        return NORMAL;
+    }
+}
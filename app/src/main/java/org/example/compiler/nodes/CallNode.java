@@ -0,0 +1,49 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.interpreter.Frame;
+
+/**
+ * Unqualified call to a method of the executing class, with a monomorphic
+ * cache on the caller's class.
+ */
+public final class CallNode extends ExprNode {
+    private final String name;
+    private final ExprNode[] arguments;
+    private final SpecializingInterpreter engine;
+    private ClassDeclaration cachedClass;
+    private CallTarget cachedTarget;
+
+    public CallNode(String name, ExprNode[] arguments, SpecializingInterpreter engine) {
+        this.name = name;
+        this.arguments = arguments;
+        this.engine = engine;
+        for (ExprNode arg : arguments) {
+            adopt(arg);
+        }
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        ClassDeclaration receiver = frame.classDecl();
+        if (receiver != cachedClass) {
+            cachedTarget = engine.lookup(receiver, name);
+            cachedClass = receiver;
+        }
+        return engine.invoke(cachedTarget, arguments, frame, receiver, frame.thisObject());
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        replaceIn(arguments, oldChild, newChild);
+    }
+
+    static void replaceIn(ExprNode[] nodes, Node oldChild, Node newChild) {
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] == oldChild) {
+                nodes[i] = (ExprNode) newChild;
+                return;
+            }
+        }
+    }
+}
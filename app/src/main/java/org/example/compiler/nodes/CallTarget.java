@@ -0,0 +1,36 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.interpreter.Frame;
+
+/**
+ * A method together with its executable body, compiled on the first call.
+ */
+public final class CallTarget {
+    private final FunctionDeclaration function;
+    private final SpecializingInterpreter engine;
+    private BlockNode body;
+
+    CallTarget(FunctionDeclaration function, SpecializingInterpreter engine) {
+        this.function = function;
+        this.engine = engine;
+    }
+
+    public FunctionDeclaration function() {
+        return function;
+    }
+
+    /**
+     * Runs the body in an already populated frame and releases the frame.
+     */
+    public Object call(Frame frame) {
+        if (body == null) {
+            body = engine.compiler().compileBody(function.body());
+        }
+        try {
+            return body.execute(frame) == StmtNode.RETURN ? frame.returnValue() : null;
+        } finally {
+            engine.framePool().release(frame);
+        }
+    }
+}
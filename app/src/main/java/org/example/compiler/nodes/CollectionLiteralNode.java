@@ -0,0 +1,32 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.CollectionLiteral;
+import org.example.compiler.interpreter.Builtins;
+import org.example.compiler.interpreter.Frame;
+
+public final class CollectionLiteralNode extends ExprNode {
+    private final CollectionLiteral.Kind kind;
+    private final ExprNode[] elements;
+
+    public CollectionLiteralNode(CollectionLiteral.Kind kind, ExprNode[] elements) {
+        this.kind = kind;
+        this.elements = elements;
+        for (ExprNode element : elements) {
+            adopt(element);
+        }
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        Object[] values = new Object[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            values[i] = elements[i].execute(frame);
+        }
+        return Builtins.collection(kind, values);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        CallNode.replaceIn(elements, oldChild, newChild);
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.Operator;
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.Operators;
+
+public final class CompoundAssignNode extends ExprNode {
+    private final int slot;
+    private final Operator operator;
+    private ExprNode value;
+
+    public CompoundAssignNode(int slot, Operator operator, ExprNode value) {
+        this.slot = slot;
+        this.operator = operator;
+        this.value = adopt(value);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        Object right = value.execute(frame);
+        Object result = Operators.compound(operator, frame.get(slot), right);
+        frame.set(slot, result);
+        return result;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        value = (ExprNode) newChild;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public final class ConstantNode extends ExprNode {
+    private final Object value;
+
+    public ConstantNode(Object value) {
+        this.value = value;
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        return value;
+    }
+}
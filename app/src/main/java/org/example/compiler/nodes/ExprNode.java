@@ -0,0 +1,7 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public abstract class ExprNode extends Node {
+    public abstract Object execute(Frame frame);
+}
@@ -0,0 +1,22 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public final class ExpressionStmtNode extends StmtNode {
+    private ExprNode expression;
+
+    public ExpressionStmtNode(ExprNode expression) {
+        this.expression = adopt(expression);
+    }
+
+    @Override
+    public int execute(Frame frame) {
+        expression.execute(frame);
+        return NORMAL;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        expression = (ExprNode) newChild;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Builtins;
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.Utility;
+
+public final class ForEachNode extends StmtNode {
+    private final int slot;
+    private ExprNode iterable;
+    private final BlockNode body;
+
+    public ForEachNode(int slot, ExprNode iterable, BlockNode body) {
+        this.slot = slot;
+        this.iterable = adopt(iterable);
+        this.body = adopt(body);
+    }
+
+    @Override
+    public int execute(Frame frame) {
+        Object target = iterable.execute(frame);
+        Iterable<?> items = Builtins.iterable(target);
+        if (items != null) {
+            for (Object item : items) {
+                Utility.checkInterrupted();
+                frame.set(slot, item);
+                int status = body.execute(frame);
+                if (status == BREAK) {
+                    break;
+                } else if (status == RETURN) {
+                    return RETURN;
+                }
+            }
+        } else {
+            throw new RuntimeException(
+                    "For-each loop requires an iterable, got: " + target.getClass().getSimpleName());
+        }
+        return NORMAL;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        iterable = (ExprNode) newChild;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.Utility;
+
+public final class ForNode extends StmtNode {
+    private final StmtNode init;  // may be null
+    private ExprNode condition;   // may be null (loop forever)
+    private ExprNode increment;   // may be null
+    private final BlockNode body;
+
+    public ForNode(StmtNode init, ExprNode condition, ExprNode increment, BlockNode body) {
+        this.init = adopt(init);
+        this.condition = adopt(condition);
+        this.increment = adopt(increment);
+        this.body = adopt(body);
+    }
+
+    @Override
+    public int execute(Frame frame) {
+        if (init != null) {
+            init.execute(frame);
+        }
+        while (condition == null || Utility.isTruthy(condition.execute(frame))) {
+            Utility.checkInterrupted();
+            int status = body.execute(frame);
+            if (status == BREAK) {
+                break;
+            } else if (status == RETURN) {
+                return RETURN;
+            }
+            if (increment != null) {
+                increment.execute(frame);
+            }
+        }
+        return NORMAL;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (condition == oldChild) {
+            condition = (ExprNode) newChild;
+        } else {
+            increment = (ExprNode) newChild;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+/**
+ * An if statement with its else-if chain flattened into parallel arrays;
+ * index 0 is the 'if' itself.
+ */
+public final class IfNode extends StmtNode {
+    private final ExprNode[] conditions;
+    private final BlockNode[] branches;
+    private final BlockNode elseBranch; // may be null
+
+    public IfNode(ExprNode[] conditions, BlockNode[] branches, BlockNode elseBranch) {
+        this.conditions = conditions;
+        this.branches = branches;
+        this.elseBranch = adopt(elseBranch);
+        for (int i = 0; i < conditions.length; i++) {
+            adopt(conditions[i]);
+            adopt(branches[i]);
+        }
+    }
+
+    @Override
+    public int execute(Frame frame) {
+        for (int i = 0; i < conditions.length; i++) {
+            if (!(conditions[i].execute(frame) instanceof Boolean cond)) {
+                throw new RuntimeException(i == 0
+                        ? "Condition must evaluate to a boolean"
+                        : "Else-if condition must evaluate to a boolean");
+            }
+            if (cond) {
+                return branches[i].execute(frame);
+            }
+        }
+        return elseBranch == null ? NORMAL : elseBranch.execute(frame);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        for (int i = 0; i < conditions.length; i++) {
+            if (conditions[i] == oldChild) {
+                conditions[i] = (ExprNode) newChild;
+                return;
+            }
+        }
+    }
+}
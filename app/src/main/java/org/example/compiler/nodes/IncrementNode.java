@@ -0,0 +1,25 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public final class IncrementNode extends ExprNode {
+    private final int slot;
+    private final int delta;
+    private final boolean prefix;
+
+    public IncrementNode(int slot, int delta, boolean prefix) {
+        this.slot = slot;
+        this.delta = delta;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        if (!(frame.get(slot) instanceof Integer value)) {
+            throw new RuntimeException("Can only increment/decrement integers");
+        }
+        int newVal = value + delta;
+        frame.set(slot, newVal);
+        return prefix ? newVal : value;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Builtins;
+import org.example.compiler.interpreter.Frame;
+
+public final class IndexNode extends ExprNode {
+    private ExprNode target;
+    private ExprNode index;
+
+    public IndexNode(ExprNode target, ExprNode index) {
+        this.target = adopt(target);
+        this.index = adopt(index);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        Object value = target.execute(frame);
+        return Builtins.index(value, index.execute(frame));
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (target == oldChild) {
+            target = (ExprNode) newChild;
+        } else {
+            index = (ExprNode) newChild;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+/**
+ * {@code break} or {@code continue}: just reports its completion status.
+ */
+public final class JumpNode extends StmtNode {
+    private final int status;
+
+    public JumpNode(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int execute(Frame frame) {
+        return status;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.OakList;
+
+public final class ListLiteralNode extends ExprNode {
+    private final ExprNode[] elements;
+
+    public ListLiteralNode(ExprNode[] elements) {
+        this.elements = elements;
+        for (ExprNode element : elements) {
+            adopt(element);
+        }
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        OakList values = new OakList(elements.length);
+        for (ExprNode element : elements) {
+            values.add(element.execute(frame));
+        }
+        return values;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        CallNode.replaceIn(elements, oldChild, newChild);
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public final class LocalReadNode extends ExprNode {
+    private final int slot;
+
+    public LocalReadNode(int slot) {
+        this.slot = slot;
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        return frame.get(slot);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public final class LocalWriteNode extends ExprNode {
+    private final int slot;
+    private ExprNode value;
+
+    public LocalWriteNode(int slot, ExprNode value) {
+        this.slot = slot;
+        this.value = adopt(value);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        Object result = value.execute(frame);
+        frame.set(slot, result);
+        return result;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        value = (ExprNode) newChild;
+    }
+}
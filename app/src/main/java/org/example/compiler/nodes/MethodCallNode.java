@@ -0,0 +1,56 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.ObjectInstance;
+import org.example.compiler.interpreter.Builtins;
+import org.example.compiler.interpreter.Frame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MethodCallNode extends ExprNode {
+    private ExprNode target;
+    private final String name;
+    private final ExprNode[] arguments;
+    private final SpecializingInterpreter engine;
+    private ClassDeclaration cachedClass;
+    private CallTarget cachedTarget;
+
+    public MethodCallNode(ExprNode target, String name, ExprNode[] arguments, SpecializingInterpreter engine) {
+        this.target = adopt(target);
+        this.name = name;
+        this.arguments = arguments;
+        this.engine = engine;
+        for (ExprNode arg : arguments) {
+            adopt(arg);
+        }
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        Object receiver = target.execute(frame);
+        if (receiver instanceof ObjectInstance instance) {
+            ClassDeclaration cls = instance.getClassDecl();
+            if (cls != cachedClass) {
+                cachedTarget = engine.lookup(cls, name);
+                cachedClass = cls;
+            }
+            return engine.invoke(cachedTarget, arguments, frame, cls, instance);
+        }
+
+        List<Object> args = new ArrayList<>(arguments.length);
+        for (ExprNode arg : arguments) {
+            args.add(arg.execute(frame));
+        }
+        return Builtins.invoke(receiver, name, args, engine, frame.classDecl(), frame.thisObject());
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (target == oldChild) {
+            target = (ExprNode) newChild;
+        } else {
+            CallNode.replaceIn(arguments, oldChild, newChild);
+        }
+    }
+}
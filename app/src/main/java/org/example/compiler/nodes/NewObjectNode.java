@@ -0,0 +1,46 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.ObjectInstance;
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.MethodTable;
+
+public final class NewObjectNode extends ExprNode {
+    private final String className;
+    private final ExprNode[] arguments;
+    private final SpecializingInterpreter engine;
+    private MethodTable table;
+    private CallTarget constructor;
+
+    public NewObjectNode(String className, ExprNode[] arguments, SpecializingInterpreter engine) {
+        this.className = className;
+        this.arguments = arguments;
+        this.engine = engine;
+        for (ExprNode arg : arguments) {
+            adopt(arg);
+        }
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        if (table == null) {
+            table = engine.methodTable(className);
+            if (table.constructor() != null) {
+                constructor = engine.callTarget(table.constructor());
+            }
+        }
+
+        ObjectInstance instance = new ObjectInstance(table.classDecl());
+        if (constructor != null) {
+            if (constructor.function().parameters().size() != arguments.length) {
+                throw new RuntimeException("Constructor argument count mismatch");
+            }
+            engine.invoke(constructor, arguments, frame, table.classDecl(), instance);
+        }
+        return instance;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        CallNode.replaceIn(arguments, oldChild, newChild);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.compiler.nodes;
+
+/**
+ * Base of the executable tree. A node may swap itself for a more specialized
+ * (or more generic) variant at run time through {@link #replace(Node)}, which
+ * asks the parent to re-point its child field.
+ */
+public abstract class Node {
+    private Node parent;
+
+    protected final <T extends Node> T adopt(T child) {
+        if (child != null) {
+            ((Node) child).parent = this;
+        }
+        return child;
+    }
+
+    public final <T extends Node> T replace(T replacement) {
+        if (parent == null) {
+            throw new IllegalStateException("Cannot replace a root node: " + getClass().getSimpleName());
+        }
+        parent.replaceChild(this, replacement);
+        return parent.adopt(replacement);
+    }
+
+    protected void replaceChild(Node oldChild, Node newChild) {
+        throw new IllegalStateException(getClass().getSimpleName() + " has no replaceable children");
+    }
+}
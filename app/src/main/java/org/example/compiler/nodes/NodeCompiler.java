@@ -0,0 +1,153 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.*;
+
+import java.util.List;
+
+/**
+ * Translates resolved AST into executable nodes. Locals must already carry
+ * their slots, see {@link org.example.compiler.resolver.Resolver}.
+ */
+public class NodeCompiler {
+    private final SpecializingInterpreter engine;
+
+    public NodeCompiler(SpecializingInterpreter engine) {
+        this.engine = engine;
+    }
+
+    public BlockNode compileBody(List<StatementNode> statements) {
+        StmtNode[] nodes = new StmtNode[statements.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = compileStatement(statements.get(i));
+        }
+        return new BlockNode(nodes);
+    }
+
+    private StmtNode compileStatement(StatementNode stmt) {
+        if (stmt instanceof VarDeclaration varDecl) {
+            return new ExpressionStmtNode(new LocalWriteNode(varDecl.slot(), compileExpression(varDecl.value())));
+        } else if (stmt instanceof PrintStatement printStmt) {
+            return new PrintNode(compileExpression(printStmt.expression()));
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            return new ExpressionStmtNode(compileExpression(exprStmt.expression()));
+        } else if (stmt instanceof ReturnStatement ret) {
+            return new ReturnNode(ret.value() == null ? null : compileExpression(ret.value()));
+        } else if (stmt instanceof IfStatement ifStmt) {
+            List<ElseIfBranch> elseIfs = ifStmt.getElseIfBranches() == null ? List.of() : ifStmt.getElseIfBranches();
+            ExprNode[] conditions = new ExprNode[elseIfs.size() + 1];
+            BlockNode[] branches = new BlockNode[elseIfs.size() + 1];
+            conditions[0] = compileExpression(ifStmt.getCondition());
+            branches[0] = compileBody(ifStmt.getThenBranch());
+            for (int i = 0; i < elseIfs.size(); i++) {
+                conditions[i + 1] = compileExpression(elseIfs.get(i).getCondition());
+                branches[i + 1] = compileBody(elseIfs.get(i).getBody());
+            }
+            BlockNode elseBranch = ifStmt.getElseBranch() == null ? null : compileBody(ifStmt.getElseBranch());
+            return new IfNode(conditions, branches, elseBranch);
+        } else if (stmt instanceof WhileStatement whileStmt) {
+            return new WhileNode(compileExpression(whileStmt.getCondition()), compileBody(whileStmt.getBody()));
+        } else if (stmt instanceof ForStatement forStmt) {
+            if (forStmt.isForEach()) {
+                return new ForEachNode(forStmt.getSlot(), compileExpression(forStmt.getIterable()),
+                        compileBody(forStmt.getBody()));
+            }
+            return new ForNode(
+                    forStmt.getInit() == null ? null : compileStatement(forStmt.getInit()),
+                    forStmt.getCondition() == null ? null : compileExpression(forStmt.getCondition()),
+                    forStmt.getIncrement() == null ? null : compileExpression(forStmt.getIncrement()),
+                    compileBody(forStmt.getBody()));
+        } else if (stmt instanceof ForEachStatement forEachStmt) {
+            return new ForEachNode(forEachStmt.getSlot(), compileExpression(forEachStmt.getIterable()),
+                    compileBody(forEachStmt.getBody()));
+        } else if (stmt instanceof BreakStatement) {
+            return new JumpNode(StmtNode.BREAK);
+        } else if (stmt instanceof ContinueStatement) {
+            return new JumpNode(StmtNode.CONTINUE);
+        }
+        throw new RuntimeException("Unsupported statement: " + stmt.getClass().getSimpleName());
+    }
+
+    /** {@code access}, behind an {@link AssignedCheckNode} when the resolver marked it. */
+    private static ExprNode checked(boolean mayBeUnassigned, int slot, String name, ExprNode access) {
+        return mayBeUnassigned ? new AssignedCheckNode(slot, name, access) : access;
+    }
+
+    private ExprNode compileExpression(ExpressionNode expr) {
+        if (expr instanceof BooleanLiteral bool) {
+            return new ConstantNode(bool.value);
+        } else if (expr instanceof NumberLiteral number) {
+            return new ConstantNode(number.value);
+        } else if (expr instanceof StringLiteral string) {
+            return new ConstantNode(string.value);
+        } else if (expr instanceof VariableReference varRef) {
+            if (varRef.slot() < 0) {
+                return new UndefinedVariableNode("Undefined variable: " + varRef.name());
+            }
+            return checked(varRef.mayBeUnassigned(), varRef.slot(), varRef.name(), new LocalReadNode(varRef.slot()));
+        } else if (expr instanceof Identifier ident) {
+            return new UndefinedVariableNode("Undefined variable: " + ident.name());
+        } else if (expr instanceof BinaryExpression binExpr) {
+            return BinaryNode.create(binExpr.operator, compileExpression(binExpr.left),
+                    compileExpression(binExpr.right));
+        } else if (expr instanceof UnaryExpression unary) {
+            return new UnaryNode(unary.operator, compileExpression(unary.operand));
+        } else if (expr instanceof IncrementExpression inc) {
+            if (inc.slot() < 0) {
+                return new UndefinedVariableNode("Undefined variable: " + inc.variableName());
+            }
+            return checked(inc.mayBeUnassigned(), inc.slot(), inc.variableName(),
+                    new IncrementNode(inc.slot(), inc.operator() == Operator.INCREMENT ? 1 : -1, inc.isPrefix()));
+        } else if (expr instanceof AssignmentExpression assign) {
+            if (assign.slot() < 0) {
+                return new UndefinedVariableNode("Variable '" + assign.name() + "' is not declared");
+            }
+            ExprNode value = compileExpression(assign.right());
+            return assign.isCompound()
+                    ? checked(assign.mayBeUnassigned(), assign.slot(), assign.name(),
+                            new CompoundAssignNode(assign.slot(), assign.operator(), value))
+                    : new LocalWriteNode(assign.slot(), value);
+        } else if (expr instanceof CompoundAssignmentExpression compoundAssign) {
+            if (compoundAssign.slot() < 0) {
+                return new UndefinedVariableNode("Variable '" + compoundAssign.variableName + "' is not declared");
+            }
+            return checked(compoundAssign.mayBeUnassigned(), compoundAssign.slot(), compoundAssign.variableName,
+                    new CompoundAssignNode(compoundAssign.slot(), compoundAssign.operator,
+                            compileExpression(compoundAssign.value)));
+        } else if (expr instanceof FunctionCall funcCall) {
+            return new CallNode(funcCall.functionName(), compileExpressions(funcCall.arguments()), engine);
+        } else if (expr instanceof ListLiteral listLiteral) {
+            return new ListLiteralNode(compileExpressions(listLiteral.elements));
+        } else if (expr instanceof CollectionLiteral collection) {
+            return new CollectionLiteralNode(collection.kind, compileExpressions(collection.elements));
+        } else if (expr instanceof ThisExpression) {
+            return new ThisNode();
+        } else if (expr instanceof IndexExpression indexExpr) {
+            return new IndexNode(compileExpression(indexExpr.getTarget()), compileExpression(indexExpr.getIndex()));
+        } else if (expr instanceof PropertyAccess propAccess) {
+            return new PropertyNode(compileExpression(propAccess.target), propAccess.property);
+        } else if (expr instanceof PropertyAssignment assign) {
+            return new PropertyAssignNode(compileExpression(assign.target), assign.property, assign.operator,
+                    compileExpression(assign.value));
+        } else if (expr instanceof TernaryExpression ternary) {
+            return new TernaryNode(compileExpression(ternary.condition), compileExpression(ternary.trueExpr),
+                    compileExpression(ternary.falseExpr));
+        } else if (expr instanceof MethodCall methodCall) {
+            return new MethodCallNode(compileExpression(methodCall.target), methodCall.methodName,
+                    compileExpressions(methodCall.arguments), engine);
+        } else if (expr instanceof NewObjectExpression newExpr) {
+            return new NewObjectNode(newExpr.getClassName(), compileExpressions(newExpr.getArguments()), engine);
+        }
+        throw new RuntimeException("Unsupported expression: " + expr.getClass().getSimpleName());
+    }
+
+    private ExprNode[] compileExpressions(List<ExpressionNode> expressions) {
+        if (expressions == null) {
+            return new ExprNode[0];
+        }
+        ExprNode[] nodes = new ExprNode[expressions.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = compileExpression(expressions.get(i));
+        }
+        return nodes;
+    }
+}
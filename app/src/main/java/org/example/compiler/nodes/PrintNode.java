@@ -0,0 +1,23 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.Utility;
+
+public final class PrintNode extends StmtNode {
+    private ExprNode expression;
+
+    public PrintNode(ExprNode expression) {
+        this.expression = adopt(expression);
+    }
+
+    @Override
+    public int execute(Frame frame) {
+        System.out.println(Utility.valueToString(expression.execute(frame)));
+        return NORMAL;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        expression = (ExprNode) newChild;
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.Operator;
+import org.example.compiler.ast.PropertyCache;
+import org.example.compiler.interpreter.Builtins;
+import org.example.compiler.interpreter.Frame;
+
+public final class PropertyAssignNode extends ExprNode {
+    private ExprNode target;
+    private final String property;
+    private final Operator operator;
+    private ExprNode value;
+    private final PropertyCache readCache = new PropertyCache();
+    private final PropertyCache writeCache = new PropertyCache();
+
+    public PropertyAssignNode(ExprNode target, String property, Operator operator, ExprNode value) {
+        this.target = adopt(target);
+        this.property = property;
+        this.operator = operator;
+        this.value = adopt(value);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        Object object = target.execute(frame);
+        return Builtins.setProperty(object, property, operator, value.execute(frame), readCache, writeCache);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (target == oldChild) {
+            target = (ExprNode) newChild;
+        } else {
+            value = (ExprNode) newChild;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.PropertyCache;
+import org.example.compiler.interpreter.Builtins;
+import org.example.compiler.interpreter.Frame;
+
+public final class PropertyNode extends ExprNode {
+    private ExprNode target;
+    private final String property;
+    private final PropertyCache cache = new PropertyCache();
+
+    public PropertyNode(ExprNode target, String property) {
+        this.target = adopt(target);
+        this.property = property;
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        return Builtins.property(target.execute(frame), property, cache);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        target = (ExprNode) newChild;
+    }
+}
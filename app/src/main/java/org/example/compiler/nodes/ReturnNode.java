@@ -0,0 +1,22 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public final class ReturnNode extends StmtNode {
+    private ExprNode value; // null for a bare 'return;'
+
+    public ReturnNode(ExprNode value) {
+        this.value = adopt(value);
+    }
+
+    @Override
+    public int execute(Frame frame) {
+        frame.setReturnValue(value == null ? null : value.execute(frame));
+        return RETURN;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        value = (ExprNode) newChild;
+    }
+}
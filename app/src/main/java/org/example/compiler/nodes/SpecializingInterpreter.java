@@ -0,0 +1,106 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.ast.ObjectInstance;
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.FramePool;
+import org.example.compiler.interpreter.MethodCaller;
+import org.example.compiler.interpreter.MethodTable;
+import org.example.compiler.interpreter.Program;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Execution engine that runs each method as a tree of self-specializing
+ * executable nodes instead of walking the AST with instanceof checks.
+ */
+public class SpecializingInterpreter implements MethodCaller {
+    private final Program program;
+    private final Map<FunctionDeclaration, CallTarget> callTargets = new IdentityHashMap<>();
+    private final FramePool framePool = new FramePool();
+    private NodeCompiler compiler; // made on first use so the constructor does not hand out this
+
+    public SpecializingInterpreter(Program program) {
+        this.program = program;
+    }
+
+    public void executeProgram() {
+        ClassDeclaration mainClass = program.findMainClass();
+        invoke(callTarget(program.findMethod(mainClass.name(), "main")), new ExprNode[0], null, mainClass, null);
+    }
+
+    NodeCompiler compiler() {
+        if (compiler == null) {
+            compiler = new NodeCompiler(this);
+        }
+        return compiler;
+    }
+
+    FramePool framePool() {
+        return framePool;
+    }
+
+    MethodTable methodTable(String className) {
+        MethodTable table = program.methodTable(className);
+        if (table == null) {
+            throw new RuntimeException("Class not found: " + className);
+        }
+        return table;
+    }
+
+    CallTarget callTarget(FunctionDeclaration func) {
+        return callTargets.computeIfAbsent(func, f -> new CallTarget(f, this));
+    }
+
+    CallTarget lookup(ClassDeclaration receiver, String methodName) {
+        FunctionDeclaration func = methodTable(receiver.name()).lookup(methodName);
+        if (func == null) {
+            throw new RuntimeException("Method " + methodName + " not found in class " + receiver.name());
+        }
+        return callTarget(func);
+    }
+
+    /**
+     * Evaluates the arguments into a pooled frame and runs the target.
+     */
+    Object invoke(CallTarget target, ExprNode[] arguments, Frame caller, ClassDeclaration classDecl,
+            ObjectInstance thisObject) {
+        FunctionDeclaration func = target.function();
+        checkArity(func, arguments.length);
+
+        Frame callee = framePool.acquire(func, caller, classDecl, thisObject);
+        try {
+            for (int i = 0; i < arguments.length; i++) {
+                callee.set(i, arguments[i].execute(caller));
+            }
+        } catch (RuntimeException e) {
+            framePool.release(callee);
+            throw e;
+        }
+        return target.call(callee);
+    }
+
+    @Override
+    public Object callMethod(ClassDeclaration cls, ObjectInstance self, String name, Object[] args) {
+        CallTarget target = lookup(cls, name);
+        FunctionDeclaration func = target.function();
+        checkArity(func, args.length);
+
+        Frame callee = framePool.acquire(func, null, cls, self);
+        for (int i = 0; i < args.length; i++) {
+            callee.set(i, args[i]);
+        }
+        return target.call(callee);
+    }
+
+    private static void checkArity(FunctionDeclaration func, int argCount) {
+        int paramCount = func.parameters().size();
+        if (argCount != paramCount) {
+            throw new RuntimeException(
+                    "Function " + func.name() + " expects " + paramCount + " arguments but got " + argCount);
+        }
+    }
+}
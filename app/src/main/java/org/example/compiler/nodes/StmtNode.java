@@ -0,0 +1,16 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+/**
+ * Statements report how they completed instead of throwing, so loops and
+ * returns cost a compare. A returned value travels in the frame's return slot.
+ */
+public abstract class StmtNode extends Node {
+    public static final int NORMAL = 0;
+    public static final int BREAK = 1;
+    public static final int CONTINUE = 2;
+    public static final int RETURN = 3;
+
+    public abstract int execute(Frame frame);
+}
@@ -0,0 +1,34 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public final class TernaryNode extends ExprNode {
+    private ExprNode condition;
+    private ExprNode trueExpr;
+    private ExprNode falseExpr;
+
+    public TernaryNode(ExprNode condition, ExprNode trueExpr, ExprNode falseExpr) {
+        this.condition = adopt(condition);
+        this.trueExpr = adopt(trueExpr);
+        this.falseExpr = adopt(falseExpr);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        if (!(condition.execute(frame) instanceof Boolean cond)) {
+            throw new RuntimeException("Ternary condition must be a boolean");
+        }
+        return cond ? trueExpr.execute(frame) : falseExpr.execute(frame);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (condition == oldChild) {
+            condition = (ExprNode) newChild;
+        } else if (trueExpr == oldChild) {
+            trueExpr = (ExprNode) newChild;
+        } else {
+            falseExpr = (ExprNode) newChild;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+public final class ThisNode extends ExprNode {
+    @Override
+    public Object execute(Frame frame) {
+        return frame.thisObject();
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.ast.Operator;
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.Operators;
+
+public final class UnaryNode extends ExprNode {
+    private final Operator operator;
+    private ExprNode operand;
+
+    public UnaryNode(Operator operator, ExprNode operand) {
+        this.operator = operator;
+        this.operand = adopt(operand);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        return Operators.unary(operator, operand.execute(frame));
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        operand = (ExprNode) newChild;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+
+/**
+ * Stands in for a name the resolver could not bind; fails only when reached.
+ */
+public final class UndefinedVariableNode extends ExprNode {
+    private final String message;
+
+    public UndefinedVariableNode(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        throw new RuntimeException(message);
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.compiler.nodes;
+
+import org.example.compiler.interpreter.Frame;
+import org.example.compiler.interpreter.Utility;
+
+public final class WhileNode extends StmtNode {
+    private ExprNode condition;
+    private final BlockNode body;
+
+    public WhileNode(ExprNode condition, BlockNode body) {
+        this.condition = adopt(condition);
+        this.body = adopt(body);
+    }
+
+    @Override
+    public int execute(Frame frame) {
+        while (Utility.isTruthy(condition.execute(frame))) {
+            Utility.checkInterrupted();
+            int status = body.execute(frame);
+            if (status == BREAK) {
+                break;
+            } else if (status == RETURN) {
+                return RETURN;
+            }
+        }
+        return NORMAL;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        condition = (ExprNode) newChild;
+    }
+}
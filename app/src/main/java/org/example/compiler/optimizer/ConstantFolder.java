@@ -0,0 +1,283 @@
+package org.example.compiler.optimizer;
+
+import org.example.compiler.ast.*;
+import org.example.compiler.interpreter.Operators;
+import org.example.compiler.interpreter.Rope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds operators whose operands are literals, drops if/else-if branches
+ * whose condition is a constant, and removes int identities such as
+ * {@code x * 1} and {@code x + 0}. Runs after the {@link
+ * org.example.compiler.resolver.Resolver}, so rebuilt nodes carry their
+ * slots over and variables declared only in a dropped branch keep theirs.
+ *
+ * <p>Identities are only removed where {@code x} is known to be an int: a
+ * local is treated as int when every write to it stores an int and the
+ * read comes after a write on every path (see {@link IntSlotInference}).
+ */
+public class ConstantFolder {
+    private IntSlotInference ints;
+
+    public void foldClass(ClassDeclaration cls) {
+        List<StatementNode> members = cls.body();
+        for (int i = 0; i < members.size(); i++) {
+            if (members.get(i) instanceof FunctionDeclaration func) {
+                members.set(i, foldFunction(func));
+            }
+        }
+    }
+
+    public FunctionDeclaration foldFunction(FunctionDeclaration func) {
+        ints = new IntSlotInference(func).infer();
+        FunctionDeclaration folded = new FunctionDeclaration(func.name(), func.parameters(), foldBlock(func.body()));
+        folded.setLocalNames(func.localNames());
+        folded.setReadsUnassigned(func.readsUnassigned());
+        return folded;
+    }
+
+    // ---- statements ----
+
+    private List<StatementNode> foldBlock(List<StatementNode> statements) {
+        if (statements == null) {
+            return null;
+        }
+        List<StatementNode> result = new ArrayList<>(statements.size());
+        for (StatementNode stmt : statements) {
+            if (stmt instanceof IfStatement ifStmt) {
+                foldIf(ifStmt, result);
+            } else {
+                result.add(foldStatement(stmt));
+            }
+        }
+        return result;
+    }
+
+    private StatementNode foldStatement(StatementNode stmt) {
+        if (stmt instanceof VarDeclaration varDecl) {
+            VarDeclaration folded = new VarDeclaration(varDecl.name(), fold(varDecl.value()));
+            folded.setSlot(varDecl.slot());
+            return folded;
+        } else if (stmt instanceof PrintStatement printStmt) {
+            return new PrintStatement(fold(printStmt.expression()));
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            return new ExpressionStatement(fold(exprStmt.expression()));
+        } else if (stmt instanceof ReturnStatement ret) {
+            return new ReturnStatement(fold(ret.value()));
+        } else if (stmt instanceof IfStatement ifStmt) {
+            List<StatementNode> folded = new ArrayList<>();
+            foldIf(ifStmt, folded);
+            // a single statement position (a for-loop init) cannot take a spliced block
+            return folded.size() == 1 ? folded.get(0) : stmt;
+        } else if (stmt instanceof WhileStatement whileStmt) {
+            return new WhileStatement(fold(whileStmt.getCondition()), foldBlock(whileStmt.getBody()));
+        } else if (stmt instanceof ForStatement forStmt) {
+            ForStatement folded;
+            if (forStmt.isForEach()) {
+                folded = new ForStatement(forStmt.getVarName(), fold(forStmt.getIterable()),
+                        foldBlock(forStmt.getBody()));
+            } else {
+                StatementNode init = forStmt.getInit() == null ? null : foldStatement(forStmt.getInit());
+                folded = new ForStatement(init, fold(forStmt.getCondition()), fold(forStmt.getIncrement()),
+                        foldBlock(forStmt.getBody()));
+            }
+            folded.setSlot(forStmt.getSlot());
+            return folded;
+        } else if (stmt instanceof ForEachStatement forEachStmt) {
+            ForEachStatement folded = new ForEachStatement(forEachStmt.getVariableName(),
+                    fold(forEachStmt.getIterable()), foldBlock(forEachStmt.getBody()));
+            folded.setSlot(forEachStmt.getSlot());
+            return folded;
+        }
+        return stmt;
+    }
+
+    /**
+     * Appends the folded form of an if statement. Branches behind a constant
+     * false condition disappear; a constant true condition ends the chain and
+     * its body is spliced in directly (oak blocks do not open a scope).
+     */
+    private void foldIf(IfStatement ifStmt, List<StatementNode> out) {
+        List<ExpressionNode> conditions = new ArrayList<>();
+        List<List<StatementNode>> bodies = new ArrayList<>();
+        conditions.add(ifStmt.getCondition());
+        bodies.add(ifStmt.getThenBranch());
+        if (ifStmt.getElseIfBranches() != null) {
+            for (ElseIfBranch elseIf : ifStmt.getElseIfBranches()) {
+                conditions.add(elseIf.getCondition());
+                bodies.add(elseIf.getBody());
+            }
+        }
+
+        List<ExpressionNode> liveConditions = new ArrayList<>();
+        List<List<StatementNode>> liveBodies = new ArrayList<>();
+        List<StatementNode> elseBranch = ifStmt.getElseBranch();
+        for (int i = 0; i < conditions.size(); i++) {
+            ExpressionNode condition = fold(conditions.get(i));
+            if (condition instanceof BooleanLiteral bool) {
+                if (bool.value) {
+                    elseBranch = bodies.get(i);
+                    break;
+                }
+                continue;
+            }
+            liveConditions.add(condition);
+            liveBodies.add(bodies.get(i));
+        }
+
+        List<StatementNode> foldedElse = foldBlock(elseBranch);
+        if (liveConditions.isEmpty()) {
+            if (foldedElse != null) {
+                out.addAll(foldedElse);
+            }
+            return;
+        }
+
+        List<ElseIfBranch> elseIfs = new ArrayList<>();
+        for (int i = 1; i < liveConditions.size(); i++) {
+            elseIfs.add(new ElseIfBranch(liveConditions.get(i), foldBlock(liveBodies.get(i))));
+        }
+        out.add(new IfStatement(liveConditions.get(0), foldBlock(liveBodies.get(0)), elseIfs, foldedElse));
+    }
+
+    // ---- expressions ----
+
+    private ExpressionNode fold(ExpressionNode expr) {
+        if (expr instanceof BinaryExpression binExpr) {
+            ExpressionNode left = fold(binExpr.left);
+            ExpressionNode right = fold(binExpr.right);
+            if (isLiteral(left) && isLiteral(right)) {
+                ExpressionNode folded = literal(() -> Operators.binary(binExpr.operator, value(left), value(right)));
+                if (folded != null) {
+                    return folded;
+                }
+            }
+            ExpressionNode simplified = simplify(binExpr.operator, left, right);
+            if (simplified != null) {
+                return simplified;
+            }
+            return left == binExpr.left && right == binExpr.right
+                    ? binExpr : new BinaryExpression(left, binExpr.operator, right);
+        } else if (expr instanceof UnaryExpression unary) {
+            ExpressionNode operand = fold(unary.operand);
+            if (isLiteral(operand)) {
+                ExpressionNode folded = literal(() -> Operators.unary(unary.operator, value(operand)));
+                if (folded != null) {
+                    return folded;
+                }
+            }
+            return operand == unary.operand ? unary : new UnaryExpression(unary.operator, operand);
+        } else if (expr instanceof TernaryExpression ternary) {
+            ExpressionNode condition = fold(ternary.condition);
+            if (condition instanceof BooleanLiteral bool) {
+                return fold(bool.value ? ternary.trueExpr : ternary.falseExpr);
+            }
+            return new TernaryExpression(condition, fold(ternary.trueExpr), fold(ternary.falseExpr));
+        } else if (expr instanceof AssignmentExpression assign) {
+            AssignmentExpression folded = new AssignmentExpression(assign.name(), assign.operator(),
+                    fold(assign.right()), assign.isCompound());
+            folded.setSlot(assign.slot());
+            folded.setMayBeUnassigned(assign.mayBeUnassigned());
+            return folded;
+        } else if (expr instanceof CompoundAssignmentExpression compound) {
+            CompoundAssignmentExpression folded = new CompoundAssignmentExpression(compound.variableName,
+                    compound.operator, fold(compound.value));
+            folded.setSlot(compound.slot());
+            folded.setMayBeUnassigned(compound.mayBeUnassigned());
+            return folded;
+        } else if (expr instanceof FunctionCall call) {
+            return new FunctionCall(call.functionName(), foldAll(call.arguments()));
+        } else if (expr instanceof MethodCall call) {
+            return new MethodCall(fold(call.target), call.methodName, foldAll(call.arguments));
+        } else if (expr instanceof ListLiteral list) {
+            return new ListLiteral(foldAll(list.elements));
+        } else if (expr instanceof CollectionLiteral collection) {
+            return new CollectionLiteral(collection.kind, foldAll(collection.elements));
+        } else if (expr instanceof IndexExpression index) {
+            return new IndexExpression(fold(index.getTarget()), fold(index.getIndex()));
+        } else if (expr instanceof PropertyAccess access) {
+            return new PropertyAccess(fold(access.target), access.property);
+        } else if (expr instanceof PropertyAssignment assign) {
+            return new PropertyAssignment(fold(assign.target), assign.property, assign.operator, fold(assign.value));
+        } else if (expr instanceof NewObjectExpression newExpr) {
+            return new NewObjectExpression(newExpr.getClassName(), foldAll(newExpr.getArguments()));
+        }
+        return expr;
+    }
+
+    private List<ExpressionNode> foldAll(List<ExpressionNode> expressions) {
+        if (expressions == null) {
+            return null;
+        }
+        List<ExpressionNode> result = new ArrayList<>(expressions.size());
+        for (ExpressionNode expr : expressions) {
+            result.add(fold(expr));
+        }
+        return result;
+    }
+
+    /** {@code x + 0}, {@code 0 + x}, {@code x - 0}, {@code x * 1}, {@code 1 * x}, {@code x / 1} on ints. */
+    private ExpressionNode simplify(Operator op, ExpressionNode left, ExpressionNode right) {
+        return switch (op) {
+            case PLUS -> isInt(left, 0) && isIntTyped(right) ? right : rightIdentity(left, right, 0);
+            case MINUS -> rightIdentity(left, right, 0);
+            case STAR -> isInt(left, 1) && isIntTyped(right) ? right : rightIdentity(left, right, 1);
+            case SLASH -> rightIdentity(left, right, 1);
+            default -> null;
+        };
+    }
+
+    /** {@code left} when {@code right} is the int {@code identity}, else null. */
+    private ExpressionNode rightIdentity(ExpressionNode left, ExpressionNode right, int identity) {
+        return isInt(right, identity) && isIntTyped(left) ? left : null;
+    }
+
+    private static boolean isInt(ExpressionNode expr, int value) {
+        return expr instanceof NumberLiteral number && number.value instanceof Integer i && i == value;
+    }
+
+    private boolean isIntTyped(ExpressionNode expr) {
+        return ints.isInt(expr);
+    }
+
+    private static boolean isLiteral(ExpressionNode expr) {
+        return expr instanceof NumberLiteral || expr instanceof StringLiteral || expr instanceof BooleanLiteral;
+    }
+
+    private static Object value(ExpressionNode literal) {
+        if (literal instanceof NumberLiteral number) {
+            return number.value;
+        } else if (literal instanceof StringLiteral string) {
+            return string.value;
+        }
+        return ((BooleanLiteral) literal).value;
+    }
+
+    private interface Evaluation {
+        Object run();
+    }
+
+    /**
+     * Runs an operator at compile time and wraps the result as a literal.
+     * Returns null when the operator fails, so the error still surfaces at
+     * run time.
+     */
+    private static ExpressionNode literal(Evaluation evaluation) {
+        Object result;
+        try {
+            result = Rope.flat(evaluation.run());
+        } catch (RuntimeException e) {
+            return null;
+        }
+        if (result instanceof Integer || result instanceof Double) {
+            return new NumberLiteral((Number) result);
+        } else if (result instanceof String s) {
+            return new StringLiteral(s);
+        } else if (result instanceof Boolean b) {
+            return new BooleanLiteral(b);
+        }
+        return null;
+    }
+}
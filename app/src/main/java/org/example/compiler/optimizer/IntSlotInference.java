@@ -0,0 +1,186 @@
+package org.example.compiler.optimizer;
+
+import org.example.compiler.ast.*;
+
+import java.util.List;
+
+/**
+ * Finds the locals of a function that can only ever hold ints. Parameters
+ * are unknown; any other slot is int when it is written at least once and
+ * every write stores an int. Iterates to a fixed point because one local's
+ * type can depend on another's. Even an int slot holds no int before its
+ * first write, so a read the resolver marked
+ * {@link VariableReference#mayBeUnassigned() may be unassigned} never counts
+ * as int.
+ */
+final class IntSlotInference {
+    private final FunctionDeclaration func;
+    private final boolean[] intSlots;
+    private final boolean[] written;
+    private boolean changed;
+
+    IntSlotInference(FunctionDeclaration func) {
+        this.func = func;
+        this.intSlots = new boolean[func.frameSize()];
+        this.written = new boolean[func.frameSize()];
+    }
+
+    IntSlotInference infer() {
+        for (int slot = func.parameters().size(); slot < intSlots.length; slot++) {
+            intSlots[slot] = true;
+        }
+        do {
+            changed = false;
+            block(func.body());
+        } while (changed);
+        for (int slot = 0; slot < intSlots.length; slot++) {
+            intSlots[slot] &= written[slot];
+        }
+        return this;
+    }
+
+    /** True when {@code expr} always evaluates to an int, given the slots inferred so far. */
+    boolean isInt(ExpressionNode expr) {
+        if (expr instanceof NumberLiteral number) {
+            return number.value instanceof Integer;
+        } else if (expr instanceof VariableReference ref) {
+            return ref.slot() >= 0 && intSlots[ref.slot()] && !ref.mayBeUnassigned();
+        } else if (expr instanceof IncrementExpression) {
+            return true;
+        } else if (expr instanceof BinaryExpression bin) {
+            return switch (bin.operator) {
+                case PLUS, MINUS, STAR, SLASH, PERCENT, POWER, AMP, PIPE, CARET, SHL, SHR, USHR ->
+                        isInt(bin.left) && isInt(bin.right);
+                default -> false;
+            };
+        } else if (expr instanceof UnaryExpression unary) {
+            return unary.operator != Operator.NOT && isInt(unary.operand);
+        } else if (expr instanceof AssignmentExpression assign) {
+            return !assign.isCompound() && isInt(assign.right());
+        } else if (expr instanceof CompoundAssignmentExpression compound) {
+            return compound.slot() >= 0 && intSlots[compound.slot()] && isIntCompound(compound);
+        } else if (expr instanceof TernaryExpression ternary) {
+            return isInt(ternary.trueExpr) && isInt(ternary.falseExpr);
+        }
+        return false;
+    }
+
+    private static boolean isIntCompound(CompoundAssignmentExpression compound) {
+        return switch (compound.operator) {
+            case PLUS, MINUS, STAR, SLASH, PERCENT, AMP, PIPE, CARET, SHL, SHR, USHR -> true;
+            default -> false;
+        };
+    }
+
+    private void write(int slot, boolean isInt) {
+        if (slot < 0) {
+            return;
+        }
+        written[slot] = true;
+        if (!isInt && intSlots[slot]) {
+            intSlots[slot] = false;
+            changed = true;
+        }
+    }
+
+    private void block(List<StatementNode> statements) {
+        if (statements == null) {
+            return;
+        }
+        for (StatementNode stmt : statements) {
+            statement(stmt);
+        }
+    }
+
+    private void statement(StatementNode stmt) {
+        if (stmt instanceof VarDeclaration varDecl) {
+            write(varDecl.slot(), varDecl.value() != null && isInt(varDecl.value()));
+            expression(varDecl.value());
+        } else if (stmt instanceof PrintStatement printStmt) {
+            expression(printStmt.expression());
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            expression(exprStmt.expression());
+        } else if (stmt instanceof ReturnStatement ret) {
+            expression(ret.value());
+        } else if (stmt instanceof IfStatement ifStmt) {
+            expression(ifStmt.getCondition());
+            block(ifStmt.getThenBranch());
+            if (ifStmt.getElseIfBranches() != null) {
+                for (ElseIfBranch elseIf : ifStmt.getElseIfBranches()) {
+                    expression(elseIf.getCondition());
+                    block(elseIf.getBody());
+                }
+            }
+            block(ifStmt.getElseBranch());
+        } else if (stmt instanceof WhileStatement whileStmt) {
+            expression(whileStmt.getCondition());
+            block(whileStmt.getBody());
+        } else if (stmt instanceof ForStatement forStmt) {
+            if (forStmt.isForEach()) {
+                write(forStmt.getSlot(), false);
+                expression(forStmt.getIterable());
+            } else if (forStmt.getInit() != null) {
+                statement(forStmt.getInit());
+            }
+            expression(forStmt.getCondition());
+            expression(forStmt.getIncrement());
+            block(forStmt.getBody());
+        } else if (stmt instanceof ForEachStatement forEachStmt) {
+            write(forEachStmt.getSlot(), false);
+            expression(forEachStmt.getIterable());
+            block(forEachStmt.getBody());
+        }
+    }
+
+    private void expression(ExpressionNode expr) {
+        if (expr == null) {
+            return;
+        }
+        if (expr instanceof AssignmentExpression assign) {
+            write(assign.slot(), isInt(assign));
+            expression(assign.right());
+        } else if (expr instanceof CompoundAssignmentExpression compound) {
+            write(compound.slot(), isIntCompound(compound) && isInt(compound.value));
+            expression(compound.value);
+        } else if (expr instanceof IncrementExpression inc) {
+            write(inc.slot(), true);
+        } else if (expr instanceof BinaryExpression bin) {
+            expression(bin.left);
+            expression(bin.right);
+        } else if (expr instanceof UnaryExpression unary) {
+            expression(unary.operand);
+        } else if (expr instanceof TernaryExpression ternary) {
+            expression(ternary.condition);
+            expression(ternary.trueExpr);
+            expression(ternary.falseExpr);
+        } else if (expr instanceof FunctionCall call) {
+            expressions(call.arguments());
+        } else if (expr instanceof MethodCall call) {
+            expression(call.target);
+            expressions(call.arguments);
+        } else if (expr instanceof ListLiteral list) {
+            expressions(list.elements);
+        } else if (expr instanceof CollectionLiteral collection) {
+            expressions(collection.elements);
+        } else if (expr instanceof IndexExpression index) {
+            expression(index.getTarget());
+            expression(index.getIndex());
+        } else if (expr instanceof PropertyAccess access) {
+            expression(access.target);
+        } else if (expr instanceof PropertyAssignment assign) {
+            expression(assign.target);
+            expression(assign.value);
+        } else if (expr instanceof NewObjectExpression newExpr) {
+            expressions(newExpr.getArguments());
+        }
+    }
+
+    private void expressions(List<ExpressionNode> expressions) {
+        if (expressions == null) {
+            return;
+        }
+        for (ExpressionNode expr : expressions) {
+            expression(expr);
+        }
+    }
+}
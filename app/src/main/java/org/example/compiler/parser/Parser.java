@@ -1,23 +1,83 @@
 package org.example.compiler.parser;
 
-import org.example.compiler.token.Token;
+import org.example.compiler.token.LexTables;
+import org.example.compiler.token.SymbolTable;
+import org.example.compiler.token.TokenStream;
 import org.example.compiler.token.TokenType;
 import org.example.compiler.ast.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class Parser {
-    private final List<Token> tokens;
+    /**
+     * Binary operators from loosest to tightest. An operator's binding power
+     * is its row number plus one; unary and postfix operators bind tighter
+     * than all of them.
+     */
+    private static final String[][] PRECEDENCE = {
+            {"=", "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^=", "<<=", ">>=", ">>>="},
+            {"||"},
+            {"&&"},
+            {"|"},
+            {"^"},
+            {"&"},
+            {"==", "!="},
+            {"<", ">", "<=", ">="},
+            {"<<", ">>", ">>>"},
+            {"+", "-"},
+            {"*", "/", "%", "//"},
+            {"**"},
+    };
+    private static final int ASSIGNMENT = 1;
+    private static final int POWER = PRECEDENCE.length; // the only right-associative binary level
+
+    // Indexed by symbol id
+    private static final int[] BINDING = new int[LexTables.fixedSymbols()];
+    private static final Operator[] BINARY = new Operator[LexTables.fixedSymbols()];
+    private static final Operator[] PREFIX = new Operator[LexTables.fixedSymbols()];
+    private static final Operator[] POSTFIX = new Operator[LexTables.fixedSymbols()];
+
+    static {
+        for (int level = 0; level < PRECEDENCE.length; level++) {
+            for (String symbol : PRECEDENCE[level]) {
+                int id = LexTables.symbolId(symbol);
+                BINDING[id] = level + 1;
+                BINARY[id] = level + 1 == ASSIGNMENT
+                        ? (symbol.equals("=") ? Operator.ASSIGN : Operator.fromCompound(symbol))
+                        : Operator.fromSymbol(symbol);
+            }
+        }
+        for (String symbol : new String[]{"+", "-", "!", "~", "++", "--"}) {
+            PREFIX[LexTables.symbolId(symbol)] = Operator.fromSymbol(symbol);
+        }
+        for (String symbol : new String[]{"++", "--"}) {
+            POSTFIX[LexTables.symbolId(symbol)] = Operator.fromSymbol(symbol);
+        }
+    }
+
+    private final TokenStream tokens;
+    private final SymbolTable symbols;
     private int current = 0;
 
-    public Parser(List<Token> tokens) {
+    public Parser(TokenStream tokens) {
         this.tokens = tokens;
+        this.symbols = tokens.symbols();
+    }
+
+    /** Parses every class in the file; a file declares at least one. */
+    public List<ClassDeclaration> parseProgram() {
+        List<ClassDeclaration> classes = new ArrayList<>();
+        do {
+            classes.add(parseClass());
+        } while (!isAtEnd());
+        return classes;
     }
 
     public ClassDeclaration parseClass() {
         consume(TokenType.KEYWORD, "class");
-        String className = consume(TokenType.IDENTIFIER).getValue();
+        String className = text(consume(TokenType.IDENTIFIER));
         consume(TokenType.DELIMITER, "{");
 
         List<StatementNode> members = new ArrayList<>();
@@ -57,7 +117,7 @@ public class Parser {
         }
 
         if (match(TokenType.KEYWORD, "var")) {
-            String name = consume(TokenType.IDENTIFIER).getValue();
+            String name = text(consume(TokenType.IDENTIFIER));
             consume(TokenType.OPERATOR, "=");
             ExpressionNode value = parseExpression();
             consume(TokenType.DELIMITER, ";");
@@ -82,12 +142,12 @@ public class Parser {
         }
 
         if (match(TokenType.KEYWORD, "def")) {
-            String name = consume(TokenType.IDENTIFIER).getValue();
+            String name = text(consume(TokenType.IDENTIFIER));
             consume(TokenType.DELIMITER, "(");
             List<String> parameters = new ArrayList<>();
             if (!check(TokenType.DELIMITER, ")")) {
                 do {
-                    parameters.add(consume(TokenType.IDENTIFIER).getValue());
+                    parameters.add(text(consume(TokenType.IDENTIFIER)));
                 } while (match(TokenType.DELIMITER, ","));
             }
             consume(TokenType.DELIMITER, ")");
@@ -125,7 +185,7 @@ public class Parser {
         consume(TokenType.DELIMITER, "("); // consume '('
 
         if (match(TokenType.KEYWORD, "var")) { // consume 'var'
-            String varName = consume(TokenType.IDENTIFIER).getValue();
+            String varName = text(consume(TokenType.IDENTIFIER));
 
             if (check(TokenType.DELIMITER, ":")) {
                 // For-each loop: for (var x : collection)
@@ -164,7 +224,7 @@ public class Parser {
             StatementNode init = null;
             if (!check(TokenType.DELIMITER, ";")) {
                 if (match(TokenType.KEYWORD, "var")) {
-                    String name = consume(TokenType.IDENTIFIER).getValue();
+                    String name = text(consume(TokenType.IDENTIFIER));
                     consume(TokenType.OPERATOR, "=");
                     ExpressionNode value = parseExpression();
                     init = new VarDeclaration(name, value);
@@ -193,7 +253,22 @@ public class Parser {
     }
 
     private ExpressionNode parseListLiteral() {
-        consume(TokenType.DELIMITER, "("); // Expect '(' after 'list'
+        return new ListLiteral(parseElements());
+    }
+
+    private ExpressionNode parseCollectionLiteral(CollectionLiteral.Kind kind) {
+        // the keyword may leave the token window while the elements are parsed
+        int line = tokens.line(previous());
+        List<ExpressionNode> elements = parseElements();
+        if (kind == CollectionLiteral.Kind.MAP && elements.size() % 2 != 0) {
+            throw lineError(line, "map(...) expects key, value pairs");
+        }
+        return new CollectionLiteral(kind, elements);
+    }
+
+    /** The parenthesized, comma-separated elements after {@code list}, {@code map}, {@code set} or {@code tuple}. */
+    private List<ExpressionNode> parseElements() {
+        consume(TokenType.DELIMITER, "(");
 
         List<ExpressionNode> elements = new ArrayList<>();
         if (!check(TokenType.DELIMITER, ")")) {
@@ -203,12 +278,11 @@ public class Parser {
         }
 
         consume(TokenType.DELIMITER, ")");
-
-        return new ListLiteral(elements);
+        return elements;
     }
 
     private ExpressionNode parseExpression() {
-        ExpressionNode expr = parseAssignment();
+        ExpressionNode expr = parseBinary(ASSIGNMENT);
 
         if (match(TokenType.DELIMITER, "?")) { // '?' token found
             expr = parseTernaryOperator(expr);
@@ -217,83 +291,38 @@ public class Parser {
         return expr;
     }
 
-    private ExpressionNode parseLogicalOr() {
-        ExpressionNode expr = parseLogicalAnd();
-        while (match(TokenType.OPERATOR, "||")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseLogicalAnd();
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private ExpressionNode parseLogicalAnd() {
-        ExpressionNode expr = parseBitwiseOr();
-        while (match(TokenType.OPERATOR, "&&")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseBitwiseOr();
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private ExpressionNode parseBitwiseOr() {
-        ExpressionNode expr = parseBitwiseXor();
-        while (match(TokenType.OPERATOR, "|")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseBitwiseXor();
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private ExpressionNode parseBitwiseXor() {
-        ExpressionNode expr = parseBitwiseAnd();
-        while (match(TokenType.OPERATOR, "^")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseBitwiseAnd();
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private ExpressionNode parseBitwiseAnd() {
-        ExpressionNode expr = parseEquality();
-        while (match(TokenType.OPERATOR, "&")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseEquality();
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private ExpressionNode parseEquality() {
-        ExpressionNode expr = parseComparison();
-        while (match(TokenType.OPERATOR, "==") || match(TokenType.OPERATOR, "!=")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseComparison();
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private ExpressionNode parseComparison() {
-        ExpressionNode expr = parseShift();
-        while (match(TokenType.OPERATOR, "<") || match(TokenType.OPERATOR, ">") ||
-                match(TokenType.OPERATOR, "<=") || match(TokenType.OPERATOR, ">=")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseShift();
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
+    /**
+     * Precedence climbing over {@link #BINDING}: parses a unary operand, then
+     * folds in every binary or assignment operator that binds at least as
+     * tightly as {@code minBinding}.
+     */
+    private ExpressionNode parseBinary(int minBinding) {
+        ExpressionNode expr = parseUnary();
 
-    private ExpressionNode parseShift() {
-        ExpressionNode expr = parseAddition();
-        while (match(TokenType.OPERATOR, "<<") || match(TokenType.OPERATOR, ">>") || match(TokenType.OPERATOR, ">>>")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseAddition();
-            expr = new BinaryExpression(expr, operator, right);
+        while (check(TokenType.OPERATOR)) {
+            int symbol = tokens.symbol(current);
+            int binding = symbol < BINDING.length ? BINDING[symbol] : 0;
+            if (binding == 0 || binding < minBinding) {
+                break;
+            }
+            advance();
+            Operator operator = BINARY[symbol];
+
+            if (binding == ASSIGNMENT) {
+                ExpressionNode value = parseBinary(ASSIGNMENT); // right-associative
+                if (expr instanceof PropertyAccess access) {
+                    expr = new PropertyAssignment(access.target, access.property, operator, value);
+                } else if (expr instanceof VariableReference ref) {
+                    expr = operator == Operator.ASSIGN
+                            ? new AssignmentExpression(ref.name(), Operator.ASSIGN, value, false)
+                            : new CompoundAssignmentExpression(ref.name(), operator, value);
+                } else {
+                    throw error(previous(), "Assignment must be to a variable or property");
+                }
+            } else {
+                ExpressionNode right = parseBinary(binding == POWER ? binding : binding + 1);
+                expr = new BinaryExpression(expr, operator, right);
+            }
         }
         return expr;
     }
@@ -309,47 +338,12 @@ public class Parser {
         return new TernaryExpression(condition, trueExpr, falseExpr);
     }
 
-    private ExpressionNode parseAddition() {
-        ExpressionNode expr = parseMultiplication();
-        while (match(TokenType.OPERATOR, "+") || match(TokenType.OPERATOR, "-")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseMultiplication();
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private ExpressionNode parseMultiplication() {
-        ExpressionNode expr = parseExponent();
-        // while (match(TokenType.OPERATOR, "*", "/", "%", "//")) {
-        // String operator = previous().getValue();
-        // ExpressionNode right = parseExponent();
-        // expr = new BinaryExpression(expr, operator, right);
-        // }
-        while (match(TokenType.OPERATOR, "*") || match(TokenType.OPERATOR, "/") || match(TokenType.OPERATOR, "%")
-                || match(TokenType.OPERATOR, "//")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseExponent();
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
-
-    private ExpressionNode parseExponent() {
-        ExpressionNode expr = parseUnary();
-        while (match(TokenType.OPERATOR, "**")) {
-            String operator = previous().getValue();
-            ExpressionNode right = parseExponent(); // right-associative, call itself
-            expr = new BinaryExpression(expr, operator, right);
-        }
-        return expr;
-    }
-
     private ExpressionNode parseUnary() {
-        if (match("+", "-", "!", "~", "++", "--")) {
-            String operator = previous().getValue();
+        Operator operator = operatorAt(current, PREFIX);
+        if (operator != null) {
+            advance();
             ExpressionNode right = parseUnary();
-            if (operator.equals("++") || operator.equals("--")) {
+            if (operator == Operator.INCREMENT || operator == Operator.DECREMENT) {
                 if (!(right instanceof VariableReference)) {
                     throw error(previous(), "Increment/Decrement must be on a variable");
                 }
@@ -363,8 +357,9 @@ public class Parser {
 
     private ExpressionNode parsePostfix() {
         ExpressionNode expr = parseCall();
-        while (match("++", "--")) {
-            String operator = previous().getValue();
+        Operator operator;
+        while ((operator = operatorAt(current, POSTFIX)) != null) {
+            advance();
             if (!(expr instanceof VariableReference ref)) {
                 throw error(previous(), "Increment/Decrement must be on a variable");
             }
@@ -373,26 +368,13 @@ public class Parser {
         return expr;
     }
 
-    private ExpressionNode parseAssignment() {
-        ExpressionNode expr = parseLogicalOr();
-
-        if (match("=", "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^=", "<<=", ">>=", ">>>=")) {
-            String operator = previous().getValue();
-            ExpressionNode value = parseAssignment();
-
-            if (!(expr instanceof VariableReference ref)) {
-                throw error(previous(), "Assignment must be to a variable");
-            }
-
-            if (operator.equals("=")) {
-                return new AssignmentExpression(ref.name(), operator, value, false);
-            } else {
-                // compound assignment like +=
-                return new CompoundAssignmentExpression(ref.name(), operator, value);
-            }
+    /** The operator token at {@code index} looked up in a symbol-indexed table, or null. */
+    private Operator operatorAt(int index, Operator[] table) {
+        if (!tokens.has(index) || tokens.type(index) != TokenType.OPERATOR) {
+            return null;
         }
-
-        return expr;
+        int symbol = tokens.symbol(index);
+        return symbol < table.length ? table[symbol] : null;
     }
 
     public IfStatement parseIfStatement() {
@@ -462,37 +444,41 @@ public class Parser {
     private ExpressionNode parsePrimary() {
         ExpressionNode expr;
         if (match(TokenType.KEYWORD, "true") || match(TokenType.KEYWORD, "false")) {
-            String val = previous().getValue();
-            return new BooleanLiteral(Boolean.parseBoolean(val));
+            return new BooleanLiteral(is(previous(), TokenType.KEYWORD, "true"));
         } else if (match(TokenType.NUMBER)) {
-            String val = previous().getValue();
-            Number numberValue;
-            if (val.contains(".")) {
-                // Parse as double
-                numberValue = Double.parseDouble(val);
-            } else {
-                // Parse as integer
-                numberValue = Integer.parseInt(val);
-            }
-            expr = new NumberLiteral(numberValue);
+            expr = new NumberLiteral(parseNumber(previous()));
         } else if (match(TokenType.STRING)) {
-            expr = new StringLiteral(previous().getValue());
+            expr = new StringLiteral(text(previous()));
         } else if (match(TokenType.IDENTIFIER)) {
-            expr = new VariableReference(previous().getValue());
+            expr = new VariableReference(text(previous()));
         } else if (match(TokenType.DELIMITER, "(")) {
             expr = parseExpression();
             consume(TokenType.DELIMITER, ")");
         } else if (match(TokenType.KEYWORD, "list")) {
             expr = parseListLiteral();
+        } else if (match(TokenType.KEYWORD, "map")) {
+            expr = parseCollectionLiteral(CollectionLiteral.Kind.MAP);
+        } else if (match(TokenType.KEYWORD, "set")) {
+            expr = parseCollectionLiteral(CollectionLiteral.Kind.SET);
+        } else if (match(TokenType.KEYWORD, "tuple")) {
+            expr = parseCollectionLiteral(CollectionLiteral.Kind.TUPLE);
+        } else if (match(TokenType.KEYWORD, "range")) {
+            expr = parseCollectionLiteral(CollectionLiteral.Kind.RANGE);
         } else if (match(TokenType.KEYWORD, "new")) {
-            String className = consume(TokenType.IDENTIFIER).getValue();
+            String className = text(consume(TokenType.IDENTIFIER));
             consume(TokenType.DELIMITER, "(");
+            List<ExpressionNode> args = new ArrayList<>();
+            if (!check(TokenType.DELIMITER, ")")) {
+                do {
+                    args.add(parseExpression());
+                } while (match(TokenType.DELIMITER, ","));
+            }
             consume(TokenType.DELIMITER, ")");
-            return new NewObjectExpression(className, null);
-        }else if(match(TokenType.KEYWORD,"this")){
-            return new ThisExpression();
+            return new NewObjectExpression(className, args);
+        } else if (match(TokenType.KEYWORD, "this")) {
+            expr = new ThisExpression();
         } else {
-            System.err.println("[Debug] Unexpected token at parsePrimary: " + peek());
+            System.err.println("[Debug] Unexpected token at parsePrimary: " + tokens.token(peek()));
             throw error(peek(), "Expected an expression");
         }
 
@@ -503,7 +489,8 @@ public class Parser {
                 consume(TokenType.DELIMITER, "]");
                 expr = new IndexExpression(expr, index);
             } else if (match(TokenType.DELIMITER, ".")) {
-                String name = consume(TokenType.IDENTIFIER).getValue();
+                // Member names may be keywords, as in xs.map(...)
+                String name = text(check(TokenType.KEYWORD) ? advance() : consume(TokenType.IDENTIFIER));
 
                 // Check if it's a method call like .append()
                 if (match(TokenType.DELIMITER, "(")) {
@@ -526,6 +513,26 @@ public class Parser {
         return expr;
     }
 
+    /** Reads an int literal straight from the source; only doubles and overflows go through a String. */
+    private Number parseNumber(int index) {
+        char[] source = tokens.source();
+        int start = tokens.start(index);
+        int end = start + tokens.length(index);
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = source[i];
+            if (c == '.') {
+                return Double.parseDouble(text(index));
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                String text = text(index);
+                return text.contains(".") ? Double.parseDouble(text) : Integer.parseInt(text);
+            }
+        }
+        return (int) value;
+    }
+
     // ---- Utility Methods ----
 
     private boolean match(TokenType type) {
@@ -557,14 +564,18 @@ public class Parser {
     private boolean check(TokenType type) {
         if (isAtEnd())
             return false;
-        return peek().getType() == type;
+        return tokens.type(current) == type;
     }
 
     private boolean check(TokenType type, String value) {
         if (isAtEnd())
             return false;
-        Token token = peek();
-        return token.getType() == type && token.getValue().equals(value);
+        return is(current, type, value);
+    }
+
+    /** Compares symbol ids, so no token text is read. */
+    private boolean is(int index, TokenType type, String value) {
+        return tokens.type(index) == type && tokens.symbol(index) == symbols.lookup(value);
     }
 
     private List<StatementNode> parseBlock() {
@@ -578,59 +589,46 @@ public class Parser {
     }
 
     private boolean checkDelimiter(String delimiter) {
-        Token token = currentToken();
-        return token != null && token.getType() == TokenType.DELIMITER && token.getValue().equals(delimiter);
+        return !isAtEnd() && is(current, TokenType.DELIMITER, delimiter);
     }
 
-    private Token consume(TokenType type) {
+    private int consume(TokenType type) {
         if (check(type))
             return advance();
         throw error(peek(), "Expected token of type " + type);
     }
 
-    private Token consume(TokenType type, String value) {
+    private int consume(TokenType type, String value) {
         if (check(type, value))
             return advance();
         throw error(peek(), "Expected token " + value);
     }
 
-    private Token consume(TokenType expectedType, String expectedValue, String errorMessage) {
-        Token token = currentToken();
-        if (token != null && token.getType() == expectedType && token.getValue().equals(expectedValue)) {
-            advance();
-            return token;
+    private int consume(TokenType expectedType, String expectedValue, String errorMessage) {
+        if (!isAtEnd() && is(current, expectedType, expectedValue)) {
+            return advance();
         }
-        throw new RuntimeException(errorMessage + " at token " + token);
+        throw new RuntimeException(errorMessage + " at token " + (isAtEnd() ? null : tokens.token(current)));
     }
 
     private boolean checkKeyword(String keyword) {
-        Token token = currentToken();
-        return token != null && token.getType() == TokenType.KEYWORD && token.getValue().equals(keyword);
+        return !isAtEnd() && is(current, TokenType.KEYWORD, keyword);
     }
 
-    private Token lookAhead(int n) {
+    private int lookAhead(int n) {
         int index = current + n;
-        if (index >= tokens.size()) {
-            return tokens.get(tokens.size() - 1); // or return a special EOF token
+        if (!tokens.has(index)) {
+            return tokens.size() - 1; // or return a special EOF token
         }
-        return tokens.get(index);
+        return index;
     }
 
     private boolean lookAhead(int n, TokenType type) {
-        Token token = lookAhead(n);
-        return token.getType() == type;
+        return tokens.type(lookAhead(n)) == type;
     }
 
     private boolean lookAhead(int n, TokenType type, String value) {
-        Token token = lookAhead(n);
-        return token.getType() == type && token.getValue().equals(value);
-    }
-
-    private Token currentToken() {
-        if (current < tokens.size()) {
-            return tokens.get(current);
-        }
-        return null; // Or a special EOF token
+        return is(lookAhead(n), type, value);
     }
 
     private boolean matchKeyword(String keyword) {
@@ -641,25 +639,34 @@ public class Parser {
         return false;
     }
 
-    private Token advance() {
+    private int advance() {
         if (!isAtEnd())
             current++;
         return previous();
     }
 
     private boolean isAtEnd() {
-        return current >= tokens.size();
+        return !tokens.has(current);
+    }
+
+    private int peek() {
+        tokens.has(current);
+        return Objects.checkIndex(current, tokens.size());
+    }
+
+    private int previous() {
+        return Objects.checkIndex(current - 1, tokens.size());
     }
 
-    private Token peek() {
-        return tokens.get(current);
+    private String text(int index) {
+        return tokens.text(index);
     }
 
-    private Token previous() {
-        return tokens.get(current - 1);
+    private RuntimeException error(int index, String message) {
+        return lineError(tokens.line(index), message);
     }
 
-    private RuntimeException error(Token token, String message) {
-        return new RuntimeException("[Parser Error] Line " + token.getLine() + ": " + message);
+    private static RuntimeException lineError(int line, String message) {
+        return new RuntimeException("[Parser Error] Line " + line + ": " + message);
     }
 }
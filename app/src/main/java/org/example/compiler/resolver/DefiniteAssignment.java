@@ -0,0 +1,199 @@
+package org.example.compiler.resolver;
+
+import org.example.compiler.ast.*;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Marks the reads of a function's locals (plain reads, increments and
+ * compound assignments) that may run before the local is assigned on some
+ * path to them, such as a read that precedes its declaration or follows a
+ * declaration in a branch that was not taken. The engines check those reads
+ * and report the variable as undefined.
+ */
+final class DefiniteAssignment {
+    private final FunctionDeclaration func;
+    // Slots assigned on every path to the current point; null where control cannot reach
+    private BitSet assigned = new BitSet();
+
+    private DefiniteAssignment(FunctionDeclaration func) {
+        this.func = func;
+    }
+
+    static void markUnassignedReads(FunctionDeclaration func) {
+        DefiniteAssignment analysis = new DefiniteAssignment(func);
+        analysis.assigned.set(0, func.parameters().size());
+        analysis.block(func.body());
+    }
+
+    /** Whether a read of {@code slot} here may find it unassigned; records that on the function. */
+    private boolean mayBeUnassigned(int slot) {
+        boolean unassigned = slot >= 0 && assigned != null && !assigned.get(slot);
+        if (unassigned) {
+            func.setReadsUnassigned(true);
+        }
+        return unassigned;
+    }
+
+    private void assign(int slot) {
+        if (assigned != null && slot >= 0) {
+            assigned.set(slot);
+        }
+    }
+
+    private static BitSet copy(BitSet state) {
+        return state == null ? null : (BitSet) state.clone();
+    }
+
+    /** What holds where two paths join; an unreachable path adds nothing. */
+    private static BitSet meet(BitSet a, BitSet b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        }
+        a.and(b);
+        return a;
+    }
+
+    private void block(List<StatementNode> statements) {
+        if (statements == null) {
+            return;
+        }
+        for (StatementNode stmt : statements) {
+            statement(stmt);
+        }
+    }
+
+    private void statement(StatementNode stmt) {
+        if (stmt instanceof VarDeclaration varDecl) {
+            expression(varDecl.value());
+            assign(varDecl.slot());
+        } else if (stmt instanceof PrintStatement printStmt) {
+            expression(printStmt.expression());
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            expression(exprStmt.expression());
+        } else if (stmt instanceof ReturnStatement ret) {
+            expression(ret.value());
+            assigned = null;
+        } else if (stmt instanceof BreakStatement || stmt instanceof ContinueStatement) {
+            assigned = null;
+        } else if (stmt instanceof IfStatement ifStmt) {
+            expression(ifStmt.getCondition());
+            BitSet otherwise = copy(assigned);
+            block(ifStmt.getThenBranch());
+            BitSet atEnd = assigned;
+            if (ifStmt.getElseIfBranches() != null) {
+                for (ElseIfBranch elseIf : ifStmt.getElseIfBranches()) {
+                    assigned = otherwise;
+                    expression(elseIf.getCondition());
+                    otherwise = copy(assigned);
+                    block(elseIf.getBody());
+                    atEnd = meet(atEnd, assigned);
+                }
+            }
+            assigned = otherwise;
+            block(ifStmt.getElseBranch());
+            assigned = meet(atEnd, assigned);
+        } else if (stmt instanceof WhileStatement whileStmt) {
+            expression(whileStmt.getCondition());
+            BitSet afterLoop = copy(assigned);
+            block(whileStmt.getBody());
+            assigned = afterLoop;
+        } else if (stmt instanceof ForStatement forStmt) {
+            if (forStmt.isForEach()) {
+                loopOver(forStmt.getIterable(), forStmt.getSlot(), forStmt.getBody());
+                return;
+            }
+            if (forStmt.getInit() != null) {
+                statement(forStmt.getInit());
+            }
+            expression(forStmt.getCondition());
+            BitSet afterLoop = copy(assigned);
+            block(forStmt.getBody());
+            // reached from the end of the body or a continue, so only what held before the body is certain
+            assigned = copy(afterLoop);
+            expression(forStmt.getIncrement());
+            assigned = afterLoop;
+        } else if (stmt instanceof ForEachStatement forEachStmt) {
+            loopOver(forEachStmt.getIterable(), forEachStmt.getSlot(), forEachStmt.getBody());
+        }
+    }
+
+    private void loopOver(ExpressionNode iterable, int slot, List<StatementNode> body) {
+        expression(iterable);
+        BitSet afterLoop = copy(assigned);
+        assign(slot);
+        block(body);
+        assigned = afterLoop;
+    }
+
+    private void expression(ExpressionNode expr) {
+        if (expr == null) {
+            return;
+        }
+        if (expr instanceof VariableReference ref) {
+            ref.setMayBeUnassigned(mayBeUnassigned(ref.slot()));
+        } else if (expr instanceof AssignmentExpression assign) {
+            expression(assign.right());
+            assign.setMayBeUnassigned(assign.isCompound() && mayBeUnassigned(assign.slot()));
+            assign(assign.slot());
+        } else if (expr instanceof CompoundAssignmentExpression compound) {
+            expression(compound.value);
+            compound.setMayBeUnassigned(mayBeUnassigned(compound.slot()));
+            assign(compound.slot());
+        } else if (expr instanceof IncrementExpression inc) {
+            inc.setMayBeUnassigned(mayBeUnassigned(inc.slot()));
+            assign(inc.slot());
+        } else if (expr instanceof BinaryExpression bin) {
+            expression(bin.left);
+            if (bin.operator == Operator.AND || bin.operator == Operator.OR) {
+                // the right side may be skipped
+                BitSet afterLeft = copy(assigned);
+                expression(bin.right);
+                assigned = afterLeft;
+            } else {
+                expression(bin.right);
+            }
+        } else if (expr instanceof UnaryExpression unary) {
+            expression(unary.operand);
+        } else if (expr instanceof TernaryExpression ternary) {
+            expression(ternary.condition);
+            BitSet otherwise = copy(assigned);
+            expression(ternary.trueExpr);
+            BitSet afterTrue = assigned;
+            assigned = otherwise;
+            expression(ternary.falseExpr);
+            assigned = meet(afterTrue, assigned);
+        } else if (expr instanceof FunctionCall call) {
+            expressions(call.arguments());
+        } else if (expr instanceof MethodCall call) {
+            expression(call.target);
+            expressions(call.arguments);
+        } else if (expr instanceof ListLiteral list) {
+            expressions(list.elements);
+        } else if (expr instanceof CollectionLiteral collection) {
+            expressions(collection.elements);
+        } else if (expr instanceof IndexExpression index) {
+            expression(index.getTarget());
+            expression(index.getIndex());
+        } else if (expr instanceof PropertyAccess access) {
+            expression(access.target);
+        } else if (expr instanceof PropertyAssignment assign) {
+            expression(assign.target);
+            expression(assign.value);
+        } else if (expr instanceof NewObjectExpression newExpr) {
+            expressions(newExpr.getArguments());
+        }
+    }
+
+    private void expressions(List<ExpressionNode> expressions) {
+        if (expressions == null) {
+            return;
+        }
+        for (ExpressionNode expr : expressions) {
+            expression(expr);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.example.compiler.resolver;
+
+import org.example.compiler.ast.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns every local variable of a function a fixed slot index so the
+ * interpreter can keep locals in an Object[] frame instead of a map.
+ * Oak locals are function scoped, so a name declared twice reuses its slot;
+ * only parameter names must be distinct. Reads that may run before their
+ * local is written are marked so the engines can report them as undefined,
+ * as they were before slots existed. A {@code break} or {@code continue}
+ * outside a loop is rejected here, before any engine sees the function.
+ */
+public class Resolver {
+    private Map<String, Integer> slots;
+    private List<String> names;
+    private String functionName;
+    private int loopDepth;
+
+    public void resolve(List<StatementNode> program) {
+        for (StatementNode stmt : program) {
+            if (stmt instanceof ClassDeclaration cls) {
+                resolveClass(cls);
+            }
+        }
+    }
+
+    public void resolveClass(ClassDeclaration cls) {
+        for (StatementNode member : cls.body()) {
+            if (member instanceof FunctionDeclaration func) {
+                resolveFunction(func);
+            }
+        }
+    }
+
+    public void resolveFunction(FunctionDeclaration func) {
+        slots = new HashMap<>();
+        names = new ArrayList<>();
+        functionName = func.name();
+        loopDepth = 0;
+
+        for (String param : func.parameters()) {
+            if (slots.containsKey(param)) {
+                throw new RuntimeException("Duplicate parameter '" + param + "' in function " + func.name());
+            }
+            declare(param);
+        }
+        // Declare everything first so a reference that textually precedes its
+        // declaration (e.g. inside a loop) still finds the slot.
+        declareAll(func.body());
+        resolveBlock(func.body());
+
+        func.setLocalNames(names.toArray(new String[0]));
+        DefiniteAssignment.markUnassignedReads(func);
+    }
+
+    private int declare(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = names.size();
+            slots.put(name, slot);
+            names.add(name);
+        }
+        return slot;
+    }
+
+    private int lookup(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    private void declareAll(List<StatementNode> statements) {
+        if (statements == null) {
+            return;
+        }
+        for (StatementNode stmt : statements) {
+            if (stmt instanceof VarDeclaration varDecl) {
+                varDecl.setSlot(declare(varDecl.name()));
+            } else if (stmt instanceof IfStatement ifStmt) {
+                declareAll(ifStmt.getThenBranch());
+                if (ifStmt.getElseIfBranches() != null) {
+                    for (ElseIfBranch elseIf : ifStmt.getElseIfBranches()) {
+                        declareAll(elseIf.getBody());
+                    }
+                }
+                declareAll(ifStmt.getElseBranch());
+            } else if (stmt instanceof WhileStatement whileStmt) {
+                declareAll(whileStmt.getBody());
+            } else if (stmt instanceof ForStatement forStmt) {
+                if (forStmt.isForEach()) {
+                    forStmt.setSlot(declare(forStmt.getVarName()));
+                } else if (forStmt.getInit() != null) {
+                    declareAll(List.of(forStmt.getInit()));
+                }
+                declareAll(forStmt.getBody());
+            } else if (stmt instanceof ForEachStatement forEachStmt) {
+                forEachStmt.setSlot(declare(forEachStmt.getVariableName()));
+                declareAll(forEachStmt.getBody());
+            }
+        }
+    }
+
+    private void resolveLoopBody(List<StatementNode> body) {
+        loopDepth++;
+        resolveBlock(body);
+        loopDepth--;
+    }
+
+    private void resolveBlock(List<StatementNode> statements) {
+        if (statements == null) {
+            return;
+        }
+        for (StatementNode stmt : statements) {
+            resolveStatement(stmt);
+        }
+    }
+
+    private void resolveStatement(StatementNode stmt) {
+        if (stmt instanceof VarDeclaration varDecl) {
+            resolveExpression(varDecl.value());
+        } else if (stmt instanceof PrintStatement printStmt) {
+            resolveExpression(printStmt.expression());
+        } else if (stmt instanceof ExpressionStatement exprStmt) {
+            resolveExpression(exprStmt.expression());
+        } else if (stmt instanceof ReturnStatement ret) {
+            resolveExpression(ret.value());
+        } else if (stmt instanceof IfStatement ifStmt) {
+            resolveExpression(ifStmt.getCondition());
+            resolveBlock(ifStmt.getThenBranch());
+            if (ifStmt.getElseIfBranches() != null) {
+                for (ElseIfBranch elseIf : ifStmt.getElseIfBranches()) {
+                    resolveExpression(elseIf.getCondition());
+                    resolveBlock(elseIf.getBody());
+                }
+            }
+            resolveBlock(ifStmt.getElseBranch());
+        } else if (stmt instanceof WhileStatement whileStmt) {
+            resolveExpression(whileStmt.getCondition());
+            resolveLoopBody(whileStmt.getBody());
+        } else if (stmt instanceof ForStatement forStmt) {
+            if (forStmt.isForEach()) {
+                resolveExpression(forStmt.getIterable());
+            } else if (forStmt.getInit() != null) {
+                resolveStatement(forStmt.getInit());
+            }
+            resolveExpression(forStmt.getCondition());
+            resolveExpression(forStmt.getIncrement());
+            resolveLoopBody(forStmt.getBody());
+        } else if (stmt instanceof ForEachStatement forEachStmt) {
+            resolveExpression(forEachStmt.getIterable());
+            resolveLoopBody(forEachStmt.getBody());
+        } else if (stmt instanceof BreakStatement || stmt instanceof ContinueStatement) {
+            if (loopDepth == 0) {
+                String keyword = stmt instanceof BreakStatement ? "break" : "continue";
+                throw new RuntimeException("'" + keyword + "' outside of a loop in function " + functionName);
+            }
+        }
+    }
+
+    private void resolveExpression(ExpressionNode expr) {
+        if (expr == null) {
+            return;
+        }
+        if (expr instanceof VariableReference varRef) {
+            varRef.setSlot(lookup(varRef.name()));
+        } else if (expr instanceof AssignmentExpression assign) {
+            assign.setSlot(lookup(assign.name()));
+            resolveExpression(assign.right());
+        } else if (expr instanceof CompoundAssignmentExpression compoundAssign) {
+            compoundAssign.setSlot(lookup(compoundAssign.variableName));
+            resolveExpression(compoundAssign.value);
+        } else if (expr instanceof IncrementExpression inc) {
+            inc.setSlot(lookup(inc.variableName()));
+        } else if (expr instanceof BinaryExpression binExpr) {
+            resolveExpression(binExpr.left);
+            resolveExpression(binExpr.right);
+        } else if (expr instanceof UnaryExpression unary) {
+            resolveExpression(unary.operand);
+        } else if (expr instanceof TernaryExpression ternary) {
+            resolveExpression(ternary.condition);
+            resolveExpression(ternary.trueExpr);
+            resolveExpression(ternary.falseExpr);
+        } else if (expr instanceof FunctionCall funcCall) {
+            resolveExpressions(funcCall.arguments());
+        } else if (expr instanceof MethodCall methodCall) {
+            resolveExpression(methodCall.target);
+            resolveExpressions(methodCall.arguments);
+        } else if (expr instanceof ListLiteral listLiteral) {
+            resolveExpressions(listLiteral.elements);
+        } else if (expr instanceof CollectionLiteral collection) {
+            resolveExpressions(collection.elements);
+        } else if (expr instanceof IndexExpression indexExpr) {
+            resolveExpression(indexExpr.getTarget());
+            resolveExpression(indexExpr.getIndex());
+        } else if (expr instanceof PropertyAccess propAccess) {
+            resolveExpression(propAccess.target);
+        } else if (expr instanceof PropertyAssignment assign) {
+            resolveExpression(assign.target);
+            resolveExpression(assign.value);
+        } else if (expr instanceof NewObjectExpression newExpr) {
+            resolveExpressions(newExpr.getArguments());
+        }
+    }
+
+    private void resolveExpressions(List<ExpressionNode> expressions) {
+        if (expressions == null) {
+            return;
+        }
+        for (ExpressionNode expr : expressions) {
+            resolveExpression(expr);
+        }
+    }
+}
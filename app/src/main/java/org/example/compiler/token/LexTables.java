@@ -0,0 +1,246 @@
+package org.example.compiler.token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scanner tables generated from {@link Tokens} when the class loads: an
+ * ASCII character-class table, a perfect hash over the keywords and a trie
+ * for longest-match operator recognition. Keywords, operators and
+ * delimiters get fixed symbol ids (in that order) which every
+ * {@link SymbolTable} reserves up front.
+ */
+public final class LexTables {
+    public static final byte OTHER = 0;
+    public static final byte SPACE = 1;
+    public static final byte NEWLINE = 2;
+    public static final byte LETTER = 3;
+    public static final byte DIGIT = 4;
+    public static final byte QUOTE = 5;
+    public static final byte DELIMITER = 6;
+    public static final byte OPERATOR = 7;
+
+    /** Keywords, then operators, then delimiters; a symbol's id is its index here. */
+    static final String[] SYMBOLS;
+    static final int KEYWORDS_END;
+    static final int OPERATORS_END;
+
+    public static final int MAX_OPERATOR;
+
+    private static final byte[] CLASSES = new byte[128];
+    private static final int[] DELIMITER_IDS = new int[128];
+
+    private static final int[] KEYWORD_SLOTS; // symbol id + 1, 0 = empty
+    private static final int KEYWORD_SHIFT;
+    private static final int KEYWORD_SEED;
+
+    private static final byte[] OPERATOR_COLUMNS = new byte[128]; // column + 1, 0 = not an operator char
+    private static final int OPERATOR_COLUMN_COUNT;
+    private static final int[] OPERATOR_NEXT; // state * columns + column -> state, 0 = none
+    private static final int[] OPERATOR_ACCEPT; // state -> symbol id, -1 = not an operator
+
+    static {
+        String[] keywords = Tokens.KEYWORDS.toArray(new String[0]);
+        String[] operators = Tokens.OPERATORS.toArray(new String[0]);
+        String[] delimiters = Tokens.DELIMITERS.stream().map(String::valueOf).toArray(String[]::new);
+        Arrays.sort(keywords);
+        Arrays.sort(operators);
+        Arrays.sort(delimiters);
+
+        List<String> symbols = new ArrayList<>();
+        symbols.addAll(List.of(keywords));
+        symbols.addAll(List.of(operators));
+        symbols.addAll(List.of(delimiters));
+        SYMBOLS = symbols.toArray(new String[0]);
+        KEYWORDS_END = keywords.length;
+        OPERATORS_END = keywords.length + operators.length;
+
+        // Character classes
+        Arrays.fill(DELIMITER_IDS, -1);
+        for (char c = 0; c < 128; c++) {
+            CLASSES[c] = classify(c);
+        }
+        CLASSES['\n'] = NEWLINE;
+        CLASSES['"'] = QUOTE;
+        CLASSES['\''] = QUOTE;
+        for (String operator : operators) {
+            char first = operator.charAt(0);
+            if (CLASSES[first] == OTHER) {
+                CLASSES[first] = OPERATOR;
+            }
+        }
+        for (int i = 0; i < delimiters.length; i++) {
+            char c = delimiters[i].charAt(0);
+            CLASSES[c] = DELIMITER;
+            DELIMITER_IDS[c] = OPERATORS_END + i;
+        }
+
+        // Keyword perfect hash: search for a multiplier that separates every keyword.
+        // Distinct keys always separate (an odd multiplier is a bijection on ints), equal ones never do.
+        checkKeywordKeys(keywords);
+        int bits = 32 - Integer.numberOfLeadingZeros(keywords.length * 2 - 1);
+        int seed = 0x9E3779B9;
+        int[] slots;
+        search:
+        while (true) {
+            for (int attempt = 0; attempt < 1 << 20; attempt++, seed += 2) {
+                slots = new int[1 << bits];
+                boolean perfect = true;
+                for (int i = 0; i < keywords.length && perfect; i++) {
+                    String k = keywords[i];
+                    int slot = (keywordKey(k.charAt(0), k.charAt(k.length() - 1), k.length()) * seed) >>> (32 - bits);
+                    perfect = slots[slot] == 0;
+                    slots[slot] = i + 1;
+                }
+                if (perfect) {
+                    break search;
+                }
+            }
+            bits++;
+        }
+        KEYWORD_SLOTS = slots;
+        KEYWORD_SHIFT = 32 - bits;
+        KEYWORD_SEED = seed;
+
+        // Operator trie
+        int columns = 0;
+        int longest = 0;
+        for (String operator : operators) {
+            longest = Math.max(longest, operator.length());
+            for (char c : operator.toCharArray()) {
+                if (OPERATOR_COLUMNS[c] == 0) {
+                    OPERATOR_COLUMNS[c] = (byte) ++columns;
+                }
+            }
+        }
+        OPERATOR_COLUMN_COUNT = columns;
+        MAX_OPERATOR = longest;
+
+        int[] next = new int[columns];
+        int[] accept = {-1};
+        int states = 1;
+        for (int i = 0; i < operators.length; i++) {
+            int state = 0;
+            for (char c : operators[i].toCharArray()) {
+                int edge = state * columns + OPERATOR_COLUMNS[c] - 1;
+                if (next[edge] == 0) {
+                    next = Arrays.copyOf(next, (states + 1) * columns);
+                    accept = Arrays.copyOf(accept, states + 1);
+                    accept[states] = -1;
+                    next[edge] = states++;
+                }
+                state = next[edge];
+            }
+            accept[state] = KEYWORDS_END + i;
+        }
+        OPERATOR_NEXT = next;
+        OPERATOR_ACCEPT = accept;
+    }
+
+    private LexTables() {
+    }
+
+    /** Throws if two keywords agree on first letter, last letter and length, which no multiplier can separate. */
+    static void checkKeywordKeys(String[] keywords) {
+        Map<Integer, String> keys = new HashMap<>();
+        for (String k : keywords) {
+            String other = keys.put(keywordKey(k.charAt(0), k.charAt(k.length() - 1), k.length()), k);
+            if (other != null) {
+                throw new IllegalStateException("Keywords '" + other + "' and '" + k
+                        + "' have the same hash key (first letter, last letter and length)");
+            }
+        }
+    }
+
+    private static byte classify(char c) {
+        if (Character.isWhitespace(c)) {
+            return c == '\n' ? NEWLINE : SPACE;
+        }
+        if (Character.isLetter(c) || c == '_') {
+            return LETTER;
+        }
+        if (Character.isDigit(c)) {
+            return DIGIT;
+        }
+        return OTHER;
+    }
+
+    private static int keywordKey(char first, char last, int length) {
+        return (first * 31 + last) * 31 + length;
+    }
+
+    public static byte classOf(char c) {
+        return c < 128 ? CLASSES[c] : classify(c);
+    }
+
+    public static boolean isIdentifierPart(char c) {
+        byte cls = classOf(c);
+        return cls == LETTER || cls == DIGIT;
+    }
+
+    /** Fixed symbol id of a keyword, operator or delimiter spelling, or -1. */
+    public static int symbolId(String symbol) {
+        for (int id = 0; id < SYMBOLS.length; id++) {
+            if (SYMBOLS[id].equals(symbol)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /** Number of fixed symbol ids; ids below this never change between tables. */
+    public static int fixedSymbols() {
+        return SYMBOLS.length;
+    }
+
+    /** Symbol id of a delimiter character. */
+    public static int delimiter(char c) {
+        return DELIMITER_IDS[c];
+    }
+
+    /** Symbol id of the keyword spelled by {@code buf[start, start + length)}, or -1. */
+    public static int keyword(char[] buf, int start, int length) {
+        int slot = (keywordKey(buf[start], buf[start + length - 1], length) * KEYWORD_SEED) >>> KEYWORD_SHIFT;
+        int id = KEYWORD_SLOTS[slot] - 1;
+        if (id < 0) {
+            return -1;
+        }
+        String keyword = SYMBOLS[id];
+        if (keyword.length() != length) {
+            return -1;
+        }
+        for (int i = 0; i < length; i++) {
+            if (keyword.charAt(i) != buf[start + i]) {
+                return -1;
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Longest operator starting at {@code start} and ending before {@code end},
+     * packed as {@code symbolId << 8 | length}; 0 if none matches.
+     */
+    public static int operator(char[] buf, int start, int end) {
+        int state = 0;
+        int match = 0;
+        for (int i = start; i < end; i++) {
+            char c = buf[i];
+            int column = c < 128 ? OPERATOR_COLUMNS[c] : 0;
+            if (column == 0) {
+                break;
+            }
+            state = OPERATOR_NEXT[state * OPERATOR_COLUMN_COUNT + column - 1];
+            if (state == 0) {
+                break;
+            }
+            if (OPERATOR_ACCEPT[state] >= 0) {
+                match = OPERATOR_ACCEPT[state] << 8 | (i - start + 1);
+            }
+        }
+        return match;
+    }
+}
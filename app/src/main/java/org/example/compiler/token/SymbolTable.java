@@ -0,0 +1,143 @@
+package org.example.compiler.token;
+
+import java.util.Arrays;
+
+/**
+ * Interns identifier, keyword, operator and delimiter spellings straight
+ * from the source buffer, so each distinct name becomes one {@code String}
+ * and one small int id no matter how often it appears. Keywords, operators
+ * and delimiters are interned up front with the fixed ids assigned by
+ * {@link LexTables}.
+ */
+public final class SymbolTable {
+    private String[] names = new String[64];
+    private int[] hashes = new int[64];
+    private int count;
+    private int[] table = new int[256]; // open addressing, id + 1, 0 = empty
+
+    public SymbolTable() {
+        for (String symbol : LexTables.SYMBOLS) {
+            intern(symbol);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    public boolean isKeyword(int id) {
+        return id >= 0 && id < LexTables.KEYWORDS_END;
+    }
+
+    public boolean isOperator(int id) {
+        return id >= LexTables.KEYWORDS_END && id < LexTables.OPERATORS_END;
+    }
+
+    private static int hash(char[] buf, int start, int length) {
+        int h = 0;
+        for (int i = start; i < start + length; i++) {
+            h = 31 * h + buf[i];
+        }
+        return h;
+    }
+
+    private static boolean sameChars(String name, char[] buf, int start, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != buf[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the id of a spelling, or -1 if it has never been interned. */
+    public int lookup(String name) {
+        int h = name.hashCode(); // same function as hash(), and cached by String
+        int mask = table.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) {
+                return -1;
+            }
+            if (hashes[entry - 1] == h && names[entry - 1].equals(name)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /** Returns the id of {@code buf[start, start + length)} without interning it. */
+    public int lookup(char[] buf, int start, int length) {
+        int h = hash(buf, start, length);
+        int mask = table.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) {
+                return -1;
+            }
+            if (hashes[entry - 1] == h && sameChars(names[entry - 1], buf, start, length)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    public int intern(char[] buf, int start, int length) {
+        int h = hash(buf, start, length);
+        int mask = table.length - 1;
+        int i = h & mask;
+        for (; table[i] != 0; i = (i + 1) & mask) {
+            int id = table[i] - 1;
+            if (hashes[id] == h && sameChars(names[id], buf, start, length)) {
+                return id;
+            }
+        }
+        return add(new String(buf, start, length), h, i);
+    }
+
+    public int intern(String name) {
+        int id = lookup(name);
+        if (id >= 0) {
+            return id;
+        }
+        int h = name.hashCode();
+        int mask = table.length - 1;
+        int i = h & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        return add(name, h, i);
+    }
+
+    private int add(String name, int hash, int bucket) {
+        if (count == names.length) {
+            names = Arrays.copyOf(names, count * 2);
+            hashes = Arrays.copyOf(hashes, count * 2);
+        }
+        int id = count++;
+        names[id] = name;
+        hashes[id] = hash;
+        table[bucket] = id + 1;
+        if (count * 2 > table.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for (int id = 0; id < count; id++) {
+            int i = hashes[id] & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = id + 1;
+        }
+    }
+}
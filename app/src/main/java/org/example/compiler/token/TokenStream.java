@@ -0,0 +1,157 @@
+package org.example.compiler.token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The lexer's output as parallel primitive arrays over the source buffer:
+ * token {@code i} is {@code type(i)} spanning {@code length(i)} chars from
+ * {@code start(i)} on {@code line(i)}. Names, keywords, operators and
+ * delimiters also carry a {@link SymbolTable} id; literals do not.
+ * <p>
+ * A windowed stream is filled on demand by a producer and keeps only the
+ * last {@code capacity} tokens, so callers must stay within that distance
+ * of the newest token; reading an older one throws.
+ */
+public final class TokenStream {
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final char[] source;
+    private final SymbolTable symbols;
+    private byte[] types;
+    private int[] starts;
+    private int[] lengths;
+    private int[] lines;
+    private int[] symbolIds;
+    private int size;
+    private final int mask; // -1 for a stream that keeps every token
+    private BooleanSupplier producer;
+
+    public TokenStream(char[] source, SymbolTable symbols) {
+        this(source, symbols, Math.max(16, source.length / 4), -1, null);
+    }
+
+    /**
+     * @param window   power-of-two number of tokens to keep
+     * @param producer adds the next token, returning false at end of input
+     */
+    public TokenStream(char[] source, SymbolTable symbols, int window, BooleanSupplier producer) {
+        this(source, symbols, window, window - 1, producer);
+        if (Integer.bitCount(window) != 1) {
+            throw new IllegalArgumentException("Token window must be a power of two: " + window);
+        }
+    }
+
+    private TokenStream(char[] source, SymbolTable symbols, int capacity, int mask, BooleanSupplier producer) {
+        this.source = source;
+        this.symbols = symbols;
+        this.mask = mask;
+        this.producer = producer;
+        types = new byte[capacity];
+        starts = new int[capacity];
+        lengths = new int[capacity];
+        lines = new int[capacity];
+        symbolIds = new int[capacity];
+    }
+
+    public void add(TokenType type, int start, int length, int line, int symbol) {
+        int slot;
+        if (mask >= 0) {
+            slot = size & mask;
+        } else {
+            if (size == types.length) {
+                int capacity = size * 2;
+                types = Arrays.copyOf(types, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                lines = Arrays.copyOf(lines, capacity);
+                symbolIds = Arrays.copyOf(symbolIds, capacity);
+            }
+            slot = size;
+        }
+        types[slot] = (byte) type.ordinal();
+        starts[slot] = start;
+        lengths[slot] = length;
+        lines[slot] = line;
+        symbolIds[slot] = symbol;
+        size++;
+    }
+
+    /** Number of tokens produced so far. */
+    public int size() {
+        return size;
+    }
+
+    /** Pulls tokens from the producer until {@code index} exists or input runs out. */
+    public boolean has(int index) {
+        while (index >= size && producer != null) {
+            if (!producer.getAsBoolean()) {
+                producer = null;
+            }
+        }
+        return index < size;
+    }
+
+    private int slot(int index) {
+        if (mask < 0) {
+            return index;
+        }
+        if (index < size - mask - 1) {
+            throw new IllegalStateException("Token " + index + " has left the " + (mask + 1) + "-token window");
+        }
+        return index & mask;
+    }
+
+    public char[] source() {
+        return source;
+    }
+
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
+    public TokenType type(int index) {
+        return TYPES[types[slot(index)]];
+    }
+
+    public int start(int index) {
+        return starts[slot(index)];
+    }
+
+    public int length(int index) {
+        return lengths[slot(index)];
+    }
+
+    public int line(int index) {
+        return lines[slot(index)];
+    }
+
+    /** Symbol id, or -1 for number and string literals. */
+    public int symbol(int index) {
+        return symbolIds[slot(index)];
+    }
+
+    /**
+     * The token's text. Symbols return their interned name; literals are
+     * copied out of the source.
+     */
+    public String text(int index) {
+        int symbol = symbolIds[slot(index)];
+        return symbol >= 0 ? symbols.name(symbol) : new String(source, starts[slot(index)], lengths[slot(index)]);
+    }
+
+    public Token token(int index) {
+        return new Token(type(index), text(index), line(index));
+    }
+
+    /** Only meaningful for a stream that keeps every token. */
+    public List<Token> toTokens() {
+        List<Token> tokens = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tokens.add(token(i));
+        }
+        return tokens;
+    }
+}
@@ -10,7 +10,7 @@ public class Tokens {
             "break", "continue", "throw", "try", "catch",
             "true", "false", "null",
             "finally", "import", "export", "new", "this", "super",
-            "list","map","set", "tuple",
+            "list","map","set", "tuple", "range",
             "case", "return", "print");
 
     public static final Set<String> OPERATORS = Set.of(
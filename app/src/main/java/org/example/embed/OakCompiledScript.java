@@ -0,0 +1,45 @@
+package org.example.embed;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * A script compiled by {@link OakScriptEngine}; each {@code eval} runs its
+ * {@code main} again, printing to the context's writer.
+ */
+public class OakCompiledScript extends CompiledScript {
+    private final OakScriptEngine engine;
+    private final OakProgram program;
+
+    OakCompiledScript(OakScriptEngine engine, OakProgram program) {
+        this.engine = engine;
+        this.program = program;
+    }
+
+    /** The loaded program, for calling methods other than {@code main}. */
+    public OakProgram program() {
+        return program;
+    }
+
+    @Override
+    public Object eval(ScriptContext context) throws ScriptException {
+        Writer writer = context.getWriter();
+        PrintWriter out = writer instanceof PrintWriter printWriter ? printWriter : new PrintWriter(writer);
+        try {
+            return program.run(out);
+        } catch (RuntimeException e) {
+            throw OakScriptEngine.scriptException(e);
+        } finally {
+            out.flush();
+        }
+    }
+
+    @Override
+    public ScriptEngine getEngine() {
+        return engine;
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.embed;
+
+import org.example.compiler.Compiler;
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.StatementNode;
+import org.example.compiler.interpreter.Interpreter;
+import org.example.compiler.interpreter.OakTuple;
+import org.example.compiler.interpreter.Program;
+import org.example.compiler.interpreter.Rope;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A script parsed and loaded once, whose methods can then be called any
+ * number of times. Arguments and results are oak values: {@link Integer},
+ * {@link Double}, {@link Boolean}, {@link String}, {@link List}, and the
+ * {@link java.util.Map}, {@link java.util.Set} and {@link OakTuple} values
+ * built by {@code map(...)}, {@code set(...)} and {@code tuple(...)}. A
+ * {@code range(...)} or a {@code map}/{@code filter}/{@code take} pipeline is
+ * returned as a lazy {@link Iterable}.
+ * <p>
+ * The loaded {@link Program} is shared and never changes; every call runs
+ * in its own {@link Interpreter}, so calls may come from any number of
+ * threads at once.
+ */
+public final class OakProgram {
+    private final Program program;
+
+    private OakProgram(List<ClassDeclaration> classes) {
+        this.program = new Program(new ArrayList<StatementNode>(classes));
+    }
+
+    /** Parses, resolves and loads {@code source}; fails with the parser's message. */
+    public static OakProgram compile(String source) {
+        return new OakProgram(Compiler.compileSource(source));
+    }
+
+    /** Calls {@code className.method} with no receiver and returns its result. */
+    public Object invoke(String className, String method, Object... args) {
+        return invoke(null, className, method, args);
+    }
+
+    private Object invoke(PrintWriter out, String className, String method, Object... args) {
+        return Rope.flat(new Interpreter(program, out).callMethod(className, method, Arrays.asList(args)));
+    }
+
+    /**
+     * Calls {@code className.method} once per argument list, each call on its
+     * own virtual thread, and returns the results in the same order. The
+     * first failing call's exception is rethrown once all calls are done.
+     */
+    public List<Object> invokeAll(String className, String method, List<Object[]> argumentLists) {
+        List<Future<Object>> calls = new ArrayList<>(argumentLists.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Object[] args : argumentLists) {
+                calls.add(executor.submit(() -> invoke(className, method, args)));
+            }
+        }
+        List<Object> results = new ArrayList<>(calls.size());
+        for (Future<Object> call : calls) {
+            try {
+                results.add(call.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new RuntimeException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for " + className + "." + method, e);
+            }
+        }
+        return results;
+    }
+
+    /** Runs the first {@code main} method in declaration order. */
+    public Object run() {
+        return run(null);
+    }
+
+    /** Like {@link #run()}, with {@code print} writing to {@code out}, or to {@link System#out} when null. */
+    public Object run(PrintWriter out) {
+        return invoke(out, program.findMainClass().name(), "main");
+    }
+}
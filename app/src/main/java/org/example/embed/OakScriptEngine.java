@@ -0,0 +1,81 @@
+package org.example.embed;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+
+/**
+ * JSR-223 engine for oak. {@code eval} compiles and runs the script's
+ * {@code main}; {@link #compile} returns an {@link OakCompiledScript} that
+ * keeps the loaded {@link OakProgram}, so repeated evaluation and
+ * {@link OakProgram#invoke} calls skip parsing. Oak has no globals, so
+ * bindings are accepted but not visible to scripts.
+ * <p>
+ * {@code print} writes to the context's writer. Errors are not written to
+ * its error writer; they are thrown as {@link ScriptException}s.
+ */
+public class OakScriptEngine extends AbstractScriptEngine implements Compilable {
+    private final OakScriptEngineFactory factory;
+
+    OakScriptEngine(OakScriptEngineFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public Object eval(String script, ScriptContext context) throws ScriptException {
+        return compile(script).eval(context);
+    }
+
+    @Override
+    public Object eval(Reader reader, ScriptContext context) throws ScriptException {
+        return eval(read(reader), context);
+    }
+
+    @Override
+    public OakCompiledScript compile(String script) throws ScriptException {
+        try {
+            return new OakCompiledScript(this, OakProgram.compile(script));
+        } catch (RuntimeException e) {
+            throw scriptException(e);
+        }
+    }
+
+    @Override
+    public CompiledScript compile(Reader script) throws ScriptException {
+        return compile(read(script));
+    }
+
+    @Override
+    public Bindings createBindings() {
+        return new SimpleBindings();
+    }
+
+    @Override
+    public ScriptEngineFactory getFactory() {
+        return factory;
+    }
+
+    static ScriptException scriptException(RuntimeException e) {
+        ScriptException wrapped = new ScriptException(e.getMessage());
+        wrapped.initCause(e);
+        return wrapped;
+    }
+
+    private static String read(Reader reader) throws ScriptException {
+        StringWriter source = new StringWriter();
+        try {
+            reader.transferTo(source);
+        } catch (IOException e) {
+            throw new ScriptException(e);
+        }
+        return source.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.embed;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Registers oak with {@link javax.script.ScriptEngineManager} under the name {@code oak}. */
+public class OakScriptEngineFactory implements ScriptEngineFactory {
+    @Override
+    public String getEngineName() {
+        return "oak";
+    }
+
+    @Override
+    public String getEngineVersion() {
+        return "0.1";
+    }
+
+    @Override
+    public List<String> getExtensions() {
+        return List.of("oak");
+    }
+
+    @Override
+    public List<String> getMimeTypes() {
+        return List.of("application/x-oak");
+    }
+
+    @Override
+    public List<String> getNames() {
+        return List.of("oak", "Oak");
+    }
+
+    @Override
+    public String getLanguageName() {
+        return "oak";
+    }
+
+    @Override
+    public String getLanguageVersion() {
+        return "0.1";
+    }
+
+    @Override
+    public Object getParameter(String key) {
+        return switch (key) {
+            case ScriptEngine.ENGINE, ScriptEngine.NAME, ScriptEngine.LANGUAGE -> "oak";
+            case ScriptEngine.ENGINE_VERSION, ScriptEngine.LANGUAGE_VERSION -> "0.1";
+            default -> null;
+        };
+    }
+
+    @Override
+    public String getMethodCallSyntax(String obj, String m, String... args) {
+        return obj + "." + m + "(" + String.join(", ", args) + ")";
+    }
+
+    @Override
+    public String getOutputStatement(String toDisplay) {
+        return "print(\"" + toDisplay + "\");";
+    }
+
+    @Override
+    public String getProgram(String... statements) {
+        return "class Main {\n    def main() {\n"
+                + List.of(statements).stream().map(s -> "        " + s + "\n").collect(Collectors.joining())
+                + "    }\n}\n";
+    }
+
+    @Override
+    public ScriptEngine getScriptEngine() {
+        return new OakScriptEngine(this);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example;
+
+import org.example.compiler.Compiler;
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.ast.StatementNode;
+import org.example.compiler.jit.Jit;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs every program under {@code differential/} on each engine, with and
+ * without constant folding, and on the tree interpreter with the JIT
+ * compiling after two calls, and checks that every run prints exactly what
+ * the plain tree interpreter prints, errors included. Each run is its own
+ * JVM because the engines read these settings once per process. The JIT
+ * runs only prove something if it compiles, so {@code hot.oak} is also
+ * checked to compile in full.
+ */
+public class DifferentialTest {
+    private static final String[] ENGINES = {"tree", "nodes", "vm", "flat"};
+    private static final int JIT_OFF = 0;
+    private static final int JIT_EAGER = 2;
+
+    private record Config(String engine, boolean fold, int jitThreshold) {
+        @Override
+        public String toString() {
+            return engine + (fold ? " with folding" : "") + (jitThreshold > 0 ? " with the JIT" : "");
+        }
+    }
+
+    @Test public void enginesPrintTheSameOutput() throws Exception {
+        Config reference = new Config("tree", false, JIT_OFF);
+        List<Config> configs = new ArrayList<>();
+        for (String engine : ENGINES) {
+            configs.add(new Config(engine, true, JIT_OFF));
+            if (!engine.equals(reference.engine())) {
+                configs.add(new Config(engine, false, JIT_OFF));
+            }
+        }
+        configs.add(new Config("tree", false, JIT_EAGER));
+        configs.add(new Config("tree", true, JIT_EAGER));
+
+        List<Path> programs = programs();
+        assertFalse("No programs under differential/", programs.isEmpty());
+        for (Path program : programs) {
+            String expected = run(program, reference);
+            assertFalse(program.getFileName() + " printed nothing", expected.isBlank());
+            for (Config config : configs) {
+                assertEquals(program.getFileName() + " on " + config, expected, run(program, config));
+            }
+        }
+    }
+
+    @Test public void hotFunctionsCompile() throws Exception {
+        Path hot = Path.of(DifferentialTest.class.getResource("/differential/hot.oak").toURI());
+        for (ClassDeclaration cls : Compiler.compileSource(Files.readString(hot))) {
+            for (StatementNode member : cls.body()) {
+                if (member instanceof FunctionDeclaration func && !func.name().equals("main")) {
+                    // a threshold of one compiles on the first call; null means the JIT gave up
+                    assertNotNull(func.name() + " did not compile", new Jit(1).profile(func, cls));
+                }
+            }
+        }
+    }
+
+    private static List<Path> programs() throws IOException, URISyntaxException {
+        Path dir = Path.of(DifferentialTest.class.getResource("/differential").toURI());
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.toString().endsWith(".oak")).sorted().toList();
+        }
+    }
+
+    /** Runs {@code program} in a fresh JVM and returns everything it wrote. */
+    private static String run(Path program, Config config) throws IOException, InterruptedException {
+        List<String> command = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Doak.cache=false",
+                "-Doak.fold=" + config.fold(),
+                "-Doak.jit.threshold=" + config.jitThreshold(),
+                "-cp", System.getProperty("java.class.path"),
+                App.class.getName(), "run", "--engine=" + config.engine(), program.toString());
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        process.waitFor();
+        return output;
+    }
+}
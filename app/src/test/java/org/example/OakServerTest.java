@@ -0,0 +1,125 @@
+package org.example;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/** Talks to a server in this JVM over the wire protocol described on {@link OakServer}. */
+public class OakServerTest {
+    private static Path socket;
+
+    private record Reply(String stdout, String stderr, int status) {}
+
+    private interface Request {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @BeforeClass public static void startServer() throws Exception {
+        socket = Files.createTempDirectory("oak").resolve("s.sock");
+        Thread server = new Thread(() -> new OakServer(socket).serve());
+        server.setDaemon(true);
+        server.start();
+        for (int i = 0; i < 500 && !Files.exists(socket); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue("server did not start", Files.exists(socket));
+    }
+
+    private static Reply send(Request request) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            request.write(out);
+            out.flush();
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+            while (true) {
+                byte stream = in.readByte();
+                if (stream == OakServer.EXIT) {
+                    return new Reply(stdout.toString(StandardCharsets.UTF_8), stderr.toString(StandardCharsets.UTF_8),
+                            in.readInt());
+                }
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                (stream == OakServer.STDERR ? stderr : stdout).write(data);
+            }
+        }
+    }
+
+    private static Reply runSource(String source) throws IOException {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        return send(out -> {
+            out.writeUTF("tree");
+            out.writeInt(1);
+            out.writeByte(OakServer.SOURCE);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        });
+    }
+
+    private static Reply sourceOfLength(int length) throws IOException {
+        return send(out -> {
+            out.writeUTF("tree");
+            out.writeInt(1);
+            out.writeByte(OakServer.SOURCE);
+            out.writeInt(length);
+        });
+    }
+
+    @Test public void runsSubmittedSource() throws IOException {
+        Reply reply = runSource("class Main { def main() { print(1 + 2); } }");
+        assertEquals("3\n", reply.stdout());
+        assertEquals(0, reply.status());
+    }
+
+    @Test public void failedRunExitsWithStatusOne() throws IOException {
+        Reply reply = runSource("class Util { } class Util { } class Main { def main() { print(1); } }");
+        assertEquals("Duplicate class: Util\n", reply.stderr());
+        assertEquals(1, reply.status());
+    }
+
+    @Test public void refusesNegativeSourceLength() throws IOException {
+        Reply reply = sourceOfLength(-1);
+        assertEquals(1, reply.status());
+        assertTrue(reply.stderr(), reply.stderr().contains("Bad source length -1"));
+    }
+
+    @Test public void refusesOversizedSourceWithoutReadingIt() throws IOException {
+        Reply reply = sourceOfLength(Integer.MAX_VALUE);
+        assertEquals(1, reply.status());
+        assertTrue(reply.stderr(), reply.stderr().contains("Bad source length"));
+    }
+
+    @Test public void refusesNegativeInputCount() throws IOException {
+        Reply reply = send(out -> {
+            out.writeUTF("tree");
+            out.writeInt(-5);
+        });
+        assertEquals(1, reply.status());
+    }
+
+    @Test public void keepsServingAfterABadRequest() throws IOException {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            // hang up halfway through the request
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+            out.writeUTF("tree");
+            out.writeInt(1);
+        }
+        sourceOfLength(-1);
+        assertEquals("ok\n", runSource("class Main { def main() { print(\"ok\"); } }").stdout());
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.compiler;
+
+import org.example.compiler.token.SymbolTable;
+import org.example.compiler.token.TokenStream;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LexerTest {
+    private static final int CHUNK = 64 * 1024;
+
+    private static List<String> texts(TokenStream tokens) {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; tokens.has(i); i++) {
+            texts.add(tokens.text(i));
+        }
+        return texts;
+    }
+
+    private static Lexer utf8Lexer(String source) {
+        return new Lexer(ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8)), new SymbolTable());
+    }
+
+    @Test public void multiByteCharactersSurviveEveryChunkSplit() {
+        String text = "€😀漢é"; // 3, 4, 3 and 2 bytes
+        String head = "class Main { def main() { ";
+        int textBytes = text.getBytes(StandardCharsets.UTF_8).length;
+        for (int split = 0; split <= textBytes; split++) {
+            // puts the chunk boundary split bytes into the string literal
+            int padding = CHUNK - head.length() - "print(\"".length() - split;
+            String source = head + " ".repeat(padding) + "print(\"" + text + "\"); var longName = 1; } }";
+            Lexer lexer = utf8Lexer(source);
+            List<String> tokens = texts(lexer.stream());
+            assertEquals("split " + split, texts(new Lexer(source).scan()), tokens);
+            assertTrue(tokens.contains(text));
+            assertFalse(lexer.hasErrors());
+        }
+    }
+
+    @Test public void tokensSpanningChunksAreWhole() {
+        String head = "class Main { def main() { var ";
+        for (int split = 1; split < 8; split++) {
+            String source = head + " ".repeat(CHUNK - head.length() - split) + "identifier = 12345678; } }";
+            assertEquals(texts(new Lexer(source).scan()), texts(utf8Lexer(source).stream()));
+        }
+    }
+
+    @Test public void streamLexesOnDemandAndForgetsOldTokens() {
+        StringBuilder source = new StringBuilder("class Main { def main() {");
+        for (int i = 0; i < 100; i++) {
+            source.append(" print(").append(i).append(");");
+        }
+        source.append(" } }");
+        TokenStream tokens = utf8Lexer(source.toString()).stream();
+        assertTrue(tokens.has(4));
+        assertTrue("lexed far ahead of the reader: " + tokens.size(), tokens.size() < 64);
+        assertEquals("main", tokens.text(4));
+
+        int last = 0;
+        while (tokens.has(last + 1)) {
+            last++;
+        }
+        assertEquals("}", tokens.text(last));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> tokens.text(4));
+        assertTrue(e.getMessage(), e.getMessage().contains("left the 64-token window"));
+    }
+
+    @Test public void windowMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenStream(new char[0], new SymbolTable(), 48, () -> false));
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.compiler.cache;
+
+import org.example.compiler.Compiler;
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.StatementNode;
+import org.example.compiler.interpreter.Interpreter;
+import org.example.compiler.interpreter.Program;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProgramCacheTest {
+    private static final String SOURCE = """
+            class Point {
+                def Point(x, y) { this.x = x; this.y = y; }
+                def sum() { return this.x + this.y; }
+            }
+            class Main {
+                def main() {
+                    var total = 0;
+                    for (var i = 0; i < 4; i++) { var p = new Point(i, 2 * i); total += p.sum(); }
+                    print("total " + total);
+                    print(late);
+                    var late = 1;
+                }
+            }
+            """;
+
+    private static ProgramCache cacheFor(Path script, String source, boolean folded) {
+        return ProgramCache.forSource(script, ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8)), folded);
+    }
+
+    private static Path stored() throws IOException {
+        Path script = Files.createTempDirectory("oakcache").resolve("main.oak");
+        Files.writeString(script, SOURCE);
+        cacheFor(script, SOURCE, true).store(Compiler.compileSource(SOURCE));
+        return script;
+    }
+
+    /** Runs main and returns what it printed, followed by the error that stopped it, if any. */
+    private static String run(List<ClassDeclaration> classes) {
+        StringWriter output = new StringWriter();
+        PrintWriter out = new PrintWriter(output);
+        Interpreter interpreter = new Interpreter(new Program(new ArrayList<StatementNode>(classes)), out);
+        try {
+            interpreter.callMethod(interpreter.findMainClass().name(), "main");
+        } catch (RuntimeException e) {
+            out.println(e.getMessage());
+        }
+        out.flush();
+        return output.toString();
+    }
+
+    @Test public void loadedClassesRunLikeFreshlyCompiledOnes() throws IOException {
+        Path script = stored();
+        List<ClassDeclaration> loaded = cacheFor(script, SOURCE, true).load();
+        assertNotNull(loaded);
+        assertEquals(List.of("Point", "Main"), loaded.stream().map(ClassDeclaration::name).toList());
+        String expected = run(Compiler.compileSource(SOURCE));
+        assertEquals("total 18\nUndefined variable: late\n", expected);
+        assertEquals(expected, run(loaded));
+    }
+
+    @Test public void changedSourceIsAMiss() throws IOException {
+        Path script = stored();
+        assertNull(cacheFor(script, SOURCE + " ", true).load());
+        assertNull(cacheFor(script, SOURCE, false).load());
+    }
+
+    @Test public void missingFileIsAMiss() throws IOException {
+        Path script = Files.createTempDirectory("oakcache").resolve("main.oak");
+        assertNull(cacheFor(script, SOURCE, true).load());
+    }
+
+    @Test public void damagedFileIsAMiss() throws IOException {
+        Path script = stored();
+        ProgramCache cache = cacheFor(script, SOURCE, true);
+        byte[] good = Files.readAllBytes(cache.file());
+        for (int at : new int[]{0, 5, good.length / 2, good.length - 1}) {
+            byte[] damaged = good.clone();
+            damaged[at] ^= 0x20;
+            Files.write(cache.file(), damaged);
+            assertNull("byte " + at + " flipped", cache.load());
+        }
+    }
+
+    @Test public void truncatedFileIsAMiss() throws IOException {
+        Path script = stored();
+        ProgramCache cache = cacheFor(script, SOURCE, true);
+        byte[] good = Files.readAllBytes(cache.file());
+        for (int length : new int[]{0, 3, 40, good.length - 1}) {
+            Files.write(cache.file(), Arrays.copyOf(good, length));
+            assertNull(length + " bytes kept", cache.load());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.compiler.interpreter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HashTableTest {
+    private static List<Object> liveKeys(HashTable table) {
+        List<Object> keys = new ArrayList<>();
+        for (int entry = 0; entry < table.entryLimit(); entry++) {
+            if (table.isLive(entry)) {
+                keys.add(table.key(entry));
+            }
+        }
+        return keys;
+    }
+
+    @Test public void intKeysAreFoundAndKeepInsertionOrder() {
+        HashTable table = new HashTable(true);
+        List<Object> expected = new ArrayList<>();
+        for (int i = 100; i > -100; i -= 3) {
+            assertTrue(table.put(i, "v" + i));
+            expected.add(i);
+        }
+        for (Object key : expected) {
+            assertEquals("v" + key, table.value(table.find(key)));
+        }
+        assertEquals(-1, table.find(101));
+        assertEquals(-1, table.find("100"));
+        assertEquals(expected, liveKeys(table));
+    }
+
+    @Test public void aNonIntKeyKeepsEarlierIntKeys() {
+        HashTable table = new HashTable(true);
+        table.put(1, "one");
+        table.put(2, "two");
+        table.put("three", 3);
+        assertEquals("one", table.value(table.find(1)));
+        assertEquals("two", table.value(table.find(2)));
+        assertEquals(3, table.value(table.find("three")));
+        assertEquals(List.of(1, 2, "three"), liveKeys(table));
+    }
+
+    @Test public void putReplacesTheValueOfAnExistingKey() {
+        HashTable table = new HashTable(true);
+        assertTrue(table.put("k", 1));
+        assertFalse(table.put("k", 2));
+        assertEquals(1, table.size());
+        assertEquals(2, table.value(table.find("k")));
+    }
+
+    @Test public void removedKeysAreSkippedButOthersStillFound() {
+        HashTable table = new HashTable(false);
+        for (int i = 0; i < 50; i++) {
+            table.put(i, null);
+        }
+        for (int i = 0; i < 50; i += 2) {
+            assertTrue(table.remove(i) >= 0);
+        }
+        assertEquals(-1, table.remove(0));
+        assertEquals(25, table.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("key " + i, i % 2 == 1, table.contains(i));
+        }
+        List<Object> odd = new ArrayList<>();
+        for (int i = 1; i < 50; i += 2) {
+            odd.add(i);
+        }
+        assertEquals(odd, liveKeys(table));
+    }
+
+    @Test public void aKeyPutBackAfterRemovalMovesToTheEnd() {
+        HashTable table = new HashTable(false);
+        table.put("a", null);
+        table.put("b", null);
+        table.put("c", null);
+        table.remove("b");
+        table.put("b", null);
+        assertEquals(List.of("a", "c", "b"), liveKeys(table));
+    }
+
+    @Test public void churnIsCompactedAway() {
+        HashTable table = new HashTable(true);
+        for (int i = 0; i < 10_000; i++) {
+            table.put(i, i);
+            if (i >= 4) {
+                table.remove(i - 4);
+            }
+        }
+        assertEquals(4, table.size());
+        assertTrue("entries grew to " + table.entryLimit(), table.entryLimit() < 64);
+        assertEquals(List.of(9996, 9997, 9998, 9999), liveKeys(table));
+    }
+
+    @Test public void collectionsAreUnhashable() {
+        HashTable table = new HashTable(false);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> table.put(new OakList(0), null));
+        assertTrue(e.getMessage(), e.getMessage().startsWith("Unhashable key"));
+    }
+}
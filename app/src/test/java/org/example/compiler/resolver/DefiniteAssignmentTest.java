@@ -0,0 +1,58 @@
+package org.example.compiler.resolver;
+
+import org.example.compiler.Compiler;
+import org.example.compiler.ast.ClassDeclaration;
+import org.example.compiler.ast.FunctionDeclaration;
+import org.example.compiler.ast.PrintStatement;
+import org.example.compiler.ast.ReturnStatement;
+import org.example.compiler.ast.StatementNode;
+import org.example.compiler.ast.VariableReference;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DefiniteAssignmentTest {
+    private static FunctionDeclaration function(String source, String name) {
+        for (ClassDeclaration cls : Compiler.compileSource(source)) {
+            for (StatementNode member : cls.body()) {
+                if (member instanceof FunctionDeclaration func && func.name().equals(name)) {
+                    return func;
+                }
+            }
+        }
+        throw new AssertionError("No function " + name);
+    }
+
+    private static VariableReference returned(FunctionDeclaration func) {
+        List<StatementNode> body = func.body();
+        return (VariableReference) ((ReturnStatement) body.get(body.size() - 1)).value();
+    }
+
+    @Test public void readBeforeDeclarationMayBeUnassigned() {
+        FunctionDeclaration main = function("class Main { def main() { print(x); var x = 1; } }", "main");
+        VariableReference read = (VariableReference) ((PrintStatement) main.body().get(0)).expression();
+        assertTrue(read.mayBeUnassigned());
+        assertTrue(main.readsUnassigned());
+    }
+
+    @Test public void declarationInUntakenBranchMayBeUnassigned() {
+        FunctionDeclaration f = function(
+                "class Main { def f(n) { if (n > 1) { var y = 1; } return y; } def main() { print(f(2)); } }", "f");
+        assertTrue(returned(f).mayBeUnassigned());
+    }
+
+    @Test public void assignmentOnEveryPathIsDefinite() {
+        FunctionDeclaration f = function(
+                "class Main { def f(n) { var y = 0; if (n > 1) { y = 1; } else { y = 2; } return y; } "
+                        + "def main() { print(f(2)); } }", "f");
+        assertFalse(returned(f).mayBeUnassigned());
+        assertFalse(f.readsUnassigned());
+    }
+
+    @Test public void parametersAreAssigned() {
+        FunctionDeclaration f = function("class Main { def f(n) { return n; } def main() { print(f(2)); } }", "f");
+        assertFalse(returned(f).mayBeUnassigned());
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.compiler.token;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LexTablesTest {
+    private static int keyword(String word) {
+        return LexTables.keyword(word.toCharArray(), 0, word.length());
+    }
+
+    private static String operator(String text) {
+        int match = LexTables.operator(text.toCharArray(), 0, text.length());
+        return match == 0 ? null : LexTables.SYMBOLS[match >>> 8].substring(0, match & 0xFF);
+    }
+
+    @Test public void everyKeywordHashesToItself() {
+        for (String keyword : Tokens.KEYWORDS) {
+            assertEquals(keyword, LexTables.symbolId(keyword), keyword(keyword));
+        }
+    }
+
+    @Test public void nearMissesAreNotKeywords() {
+        for (String word : new String[]{"classy", "Class", "whale", "fr", "x", "returns", "deff"}) {
+            assertEquals(word, -1, keyword(word));
+        }
+    }
+
+    @Test public void keywordsThatShareAKeyAreRejected() {
+        // "for" and "far": same first letter, last letter and length
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> LexTables.checkKeywordKeys(new String[]{"for", "far"}));
+        assertTrue(e.getMessage(), e.getMessage().contains("'for' and 'far'"));
+        LexTables.checkKeywordKeys(Tokens.KEYWORDS.toArray(new String[0]));
+    }
+
+    @Test public void operatorsMatchTheLongestPrefix() {
+        assertEquals("<<=", operator("<<=1"));
+        assertEquals("<<", operator("<<1"));
+        assertEquals("<", operator("< 1"));
+        assertEquals("==", operator("=== "));
+        assertNull(operator("abc"));
+    }
+
+    @Test public void characterClasses() {
+        assertEquals(LexTables.LETTER, LexTables.classOf('a'));
+        assertEquals(LexTables.LETTER, LexTables.classOf('_'));
+        assertEquals(LexTables.DIGIT, LexTables.classOf('7'));
+        assertEquals(LexTables.QUOTE, LexTables.classOf('"'));
+        assertEquals(LexTables.NEWLINE, LexTables.classOf('\n'));
+        assertEquals(LexTables.DELIMITER, LexTables.classOf('{'));
+        assertTrue(LexTables.isIdentifierPart('9'));
+        assertFalse(LexTables.isIdentifierPart('-'));
+    }
+}
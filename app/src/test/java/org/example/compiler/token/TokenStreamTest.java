@@ -0,0 +1,63 @@
+package org.example.compiler.token;
+
+import org.example.compiler.Lexer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TokenStreamTest {
+    private static TokenStream scan(String source) {
+        return new Lexer(source).scan();
+    }
+
+    private static List<String> texts(TokenStream tokens) {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            texts.add(tokens.text(i));
+        }
+        return texts;
+    }
+
+    @Test public void scanKeepsEveryTokenWithItsTypeAndLine() {
+        TokenStream tokens = scan("class A {\n  def f(x) {\n    return x <<= 2.5; // done\n  }\n}");
+        assertEquals(List.of("class", "A", "{", "def", "f", "(", "x", ")", "{", "return", "x", "<<=", "2.5", ";",
+                "}", "}"), texts(tokens));
+        assertEquals(TokenType.KEYWORD, tokens.type(0));
+        assertEquals(TokenType.IDENTIFIER, tokens.type(1));
+        assertEquals(TokenType.DELIMITER, tokens.type(2));
+        assertEquals(TokenType.OPERATOR, tokens.type(11));
+        assertEquals(TokenType.NUMBER, tokens.type(12));
+        assertEquals(1, tokens.line(0));
+        assertEquals(2, tokens.line(3));
+        assertEquals(3, tokens.line(13));
+        assertEquals(5, tokens.line(15));
+    }
+
+    @Test public void repeatedNamesShareOneInternedString() {
+        TokenStream tokens = scan("count = count + count;");
+        assertEquals(tokens.symbol(0), tokens.symbol(2));
+        assertEquals(tokens.symbol(0), tokens.symbol(4));
+        assertSame(tokens.text(0), tokens.text(4));
+        assertFalse(tokens.symbols().isKeyword(tokens.symbol(0)));
+    }
+
+    @Test public void fixedSymbolsUseTheTableIds() {
+        TokenStream tokens = scan("while (x) { }");
+        assertEquals(LexTables.symbolId("while"), tokens.symbol(0));
+        assertTrue(tokens.symbols().isKeyword(tokens.symbol(0)));
+        assertEquals(LexTables.symbolId("("), tokens.symbol(1));
+    }
+
+    @Test public void literalsPointIntoTheSource() {
+        TokenStream tokens = scan("print(\"hi there\", 42);");
+        assertEquals(TokenType.STRING, tokens.type(2));
+        assertEquals(-1, tokens.symbol(2));
+        assertEquals("hi there", tokens.text(2));
+        assertEquals("hi there", new String(tokens.source(), tokens.start(2), tokens.length(2)));
+        assertEquals(-1, tokens.symbol(4));
+        assertEquals("42", tokens.text(4));
+    }
+}
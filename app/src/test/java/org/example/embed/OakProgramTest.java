@@ -0,0 +1,59 @@
+package org.example.embed;
+
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OakProgramTest {
+    private static final OakProgram PROGRAM = OakProgram.compile("""
+            class Counter {
+                def Counter(start) { this.count = start; }
+                def bump(times) {
+                    for (var i = 0; i < times; i++) { this.count = this.count + 1; }
+                    return this.count;
+                }
+            }
+            class Calc {
+                def add(a, b) { return a + b; }
+                def greet(name) { return "hi " + name; }
+                def div(a, b) { return a / b; }
+                def count(start, times) { var c = new Counter(start); return c.bump(times); }
+                def main() { print("main ran"); return 0; }
+            }
+            """);
+
+    @Test public void invokeReturnsPlainOakValues() {
+        assertEquals(5, PROGRAM.invoke("Calc", "add", 2, 3));
+        Object greeting = PROGRAM.invoke("Calc", "greet", "oak");
+        assertEquals("hi oak", greeting);
+        assertTrue(greeting instanceof String);
+    }
+
+    @Test public void invokeAllKeepsArgumentOrder() {
+        List<Object[]> argumentLists = new ArrayList<>();
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            argumentLists.add(new Object[]{i * 10, 1000});
+            expected.add(i * 10 + 1000);
+        }
+        assertEquals(expected, PROGRAM.invokeAll("Calc", "count", argumentLists));
+    }
+
+    @Test public void invokeAllRethrowsTheFirstFailure() {
+        List<Object[]> argumentLists = List.of(new Object[]{4, 2}, new Object[]{1, 0}, new Object[]{9, 3});
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> PROGRAM.invokeAll("Calc", "div", argumentLists));
+        assertEquals("Division by zero", e.getMessage());
+    }
+
+    @Test public void runCallsMainAndPrintsToTheGivenWriter() {
+        StringWriter out = new StringWriter();
+        assertEquals(0, PROGRAM.run(new PrintWriter(out, true)));
+        assertEquals("main ran\n", out.toString());
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.embed;
+
+import org.junit.Test;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class OakScriptEngineTest {
+    private static final String SCRIPT = """
+            class Main {
+                def show(n) { print(n); return n; }
+                def twice(n) { return n * 2; }
+                def main() {
+                    for (var i = 0; i < 3; i++) { show(i); }
+                    return "done";
+                }
+            }
+            """;
+
+    private static ScriptEngine engine() {
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName("oak");
+        assertNotNull("oak is not registered as a script engine", engine);
+        return engine;
+    }
+
+    private static ScriptContext capturing(StringWriter out) {
+        ScriptContext context = new SimpleScriptContext();
+        context.setWriter(out);
+        return context;
+    }
+
+    @Test public void evalReturnsMainsResultAndPrintsToTheContextWriter() throws ScriptException {
+        StringWriter out = new StringWriter();
+        assertEquals("done", engine().eval(SCRIPT, capturing(out)));
+        assertEquals("0\n1\n2\n", out.toString());
+    }
+
+    @Test public void evalReadsScriptsFromAReader() throws ScriptException {
+        StringWriter out = new StringWriter();
+        assertEquals("done", engine().eval(new StringReader(SCRIPT), capturing(out)));
+        assertEquals("0\n1\n2\n", out.toString());
+    }
+
+    @Test public void aCompiledScriptRunsAgainWithoutReparsing() throws ScriptException {
+        CompiledScript script = ((Compilable) engine()).compile(SCRIPT);
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        assertEquals("done", script.eval(capturing(first)));
+        assertEquals("done", script.eval(capturing(second)));
+        assertEquals(first.toString(), second.toString());
+        assertEquals(4, ((OakCompiledScript) script).program().invoke("Main", "twice", 2));
+    }
+
+    @Test public void errorsBecomeScriptExceptions() {
+        ScriptEngine engine = engine();
+        ScriptException undefined = assertThrows(ScriptException.class,
+                () -> engine.eval("class X { def main() { print(y); } }", capturing(new StringWriter())));
+        assertTrue(undefined.getMessage(), undefined.getMessage().contains("Undefined variable: y"));
+        ScriptException empty = assertThrows(ScriptException.class, () -> engine.eval(""));
+        assertTrue(empty.getMessage(), empty.getMessage().contains("Empty file or no class found."));
+    }
+}